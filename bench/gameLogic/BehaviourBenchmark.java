@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.prefab.behaviour.Behaviour;
+import blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent;
+import java.util.concurrent.TimeUnit;
+import org.lwjgl.util.vector.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures ticking the behaviours of a scene of entities that each have a
+ * {@link blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent BehaviourComponent}.
+ * Half of the behaviours run every update, the other half wait for a delay
+ * that does not pass during the benchmark, so both paths of a tick are
+ * covered.
+ *
+ * @author Blackened
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BehaviourBenchmark {
+
+    @Param({"100", "10000"})
+    private int entityCount;
+
+    @Param({"1", "8"})
+    private int behaviourCount;
+
+    private GameManager gameManager;
+
+    private Scene scene;
+
+    private long ticks = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        LogicEngine.getInstance().registerComponent(BehaviourComponent.class, 0f);
+
+        this.scene = new Scene("benchmark");
+        for (int i = 0; i < this.entityCount; i++) {
+            BehaviourComponent component = new BehaviourComponent();
+            for (int b = 0; b < this.behaviourCount; b++) {
+                long delay = b % 2 == 0 ? -1 : TimeUnit.HOURS.toMillis(1);
+                component.addBehaviour(Behaviour.as("behaviour" + b, x -> this.ticks++).after(delay).build());
+            }
+            this.scene.addEntity(Entity.create("entity" + i, new Vector3f(), component));
+        }
+        this.gameManager.setActiveScene(this.scene);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.gameManager.destroyGameElements();
+        this.gameManager.destroyEngine();
+    }
+
+    @Benchmark
+    public long tickBehaviours() {
+        LogicEngine.getInstance().update(this.scene.getComponentStore());
+        return this.ticks;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.ComponentAccess;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.lwjgl.util.vector.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full update of a scene of N entities with M components each,
+ * which calls update and lateUpdate on every component, applies the command
+ * buffer and resolves the transform hierarchy.
+ *
+ * @author Blackened
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityUpdateBenchmark {
+
+    /**
+     * The component classes, of which the first M are added to every entity.
+     */
+    private static final List<Class<? extends WorkComponent>> COMPONENT_CLASSES = Arrays.asList(
+            FirstComponent.class, SecondComponent.class, ThirdComponent.class, FourthComponent.class);
+
+    @Param({"100", "10000"})
+    private int entityCount;
+
+    @Param({"1", "4"})
+    private int componentCount;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private GameManager gameManager;
+
+    private Scene scene;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        LogicEngine.getInstance().setParallelUpdateEnabled(this.parallel);
+        for (int i = 0; i < COMPONENT_CLASSES.size(); i++) {
+            LogicEngine.getInstance().registerComponent(COMPONENT_CLASSES.get(i), (float) i, ComponentAccess.create().entityLocal());
+        }
+
+        this.scene = new Scene("benchmark");
+        for (int i = 0; i < this.entityCount; i++) {
+            Entity entity = new Entity("entity" + i, new Vector3f(i, 0, 0));
+            for (int c = 0; c < this.componentCount; c++) {
+                entity.addComponent(COMPONENT_CLASSES.get(c).newInstance());
+            }
+            this.scene.addEntity(entity);
+        }
+        this.gameManager.setActiveScene(this.scene);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.gameManager.destroyGameElements();
+        this.gameManager.destroyEngine();
+    }
+
+    @Benchmark
+    public void updateScene() {
+        this.scene.update();
+    }
+
+    @Benchmark
+    public void updateComponents() {
+        LogicEngine.getInstance().update(this.scene.getComponentStore());
+        LogicEngine.getInstance().lateUpdate(this.scene.getComponentStore());
+    }
+
+    /**
+     * A component doing a small amount of work in both update and lateUpdate.
+     */
+    public abstract static class WorkComponent extends ComponentBase {
+
+        private float value;
+
+        @Override
+        public void update() {
+            this.value += this.getParent().getTransform().getRelativePosition().getX();
+        }
+
+        @Override
+        public void lateUpdate() {
+            this.value *= 0.5f;
+        }
+
+    }
+
+    public static class FirstComponent extends WorkComponent {
+    }
+
+    public static class SecondComponent extends WorkComponent {
+    }
+
+    public static class ThirdComponent extends WorkComponent {
+    }
+
+    public static class FourthComponent extends WorkComponent {
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Scene;
+import java.util.concurrent.TimeUnit;
+import org.lwjgl.util.vector.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures walking all entities of a scene and their children recursively
+ * through {@link blackengine.gameLogic.GameElement#flattened() flattened()},
+ * for a scene of root entities that each have a tree of children.
+ *
+ * @author Blackened
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlattenedBenchmark {
+
+    @Param({"100", "1000"})
+    private int rootCount;
+
+    @Param({"0", "2"})
+    private int depth;
+
+    @Param({"4"})
+    private int childCount;
+
+    private Scene scene;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.scene = new Scene("benchmark");
+        for (int i = 0; i < this.rootCount; i++) {
+            Entity root = new Entity("root" + i, new Vector3f());
+            this.addChildren(root, this.depth);
+            this.scene.addEntity(root);
+        }
+    }
+
+    @Benchmark
+    public long countFlattened() {
+        return this.scene.flattened().count();
+    }
+
+    @Benchmark
+    public float sumFlattenedPositions() {
+        return (float) this.scene.flattened()
+                .mapToDouble(x -> x.getTransform().getRelativePosition().getX())
+                .sum();
+    }
+
+    private void addChildren(Entity parent, int levels) {
+        if (levels == 0) {
+            return;
+        }
+        for (int i = 0; i < this.childCount; i++) {
+            Entity child = new Entity("child" + i, new Vector3f(i, 0, 0));
+            this.addChildren(child, levels - 1);
+            parent.addChild(child);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.TransformHierarchy;
+import java.util.concurrent.TimeUnit;
+import org.lwjgl.util.vector.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes for a change to the root of a hierarchy to reach
+ * all transforms below it, both for a deep chain of entities and for a single
+ * root with many children. Changes are either resolved level by level through
+ * the {@link blackengine.gameLogic.TransformHierarchy TransformHierarchy}, or
+ * lazily by reading the absolute position of a transform.
+ *
+ * @author Blackened
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark {
+
+    @Benchmark
+    public float resolveDeep(DeepState state) {
+        state.moveRoot();
+        state.hierarchy.resolve();
+        return state.leaf.getTransform().getAbsolutePosition().getX();
+    }
+
+    @Benchmark
+    public float readDeepLeaf(DeepState state) {
+        state.moveRoot();
+        return state.leaf.getTransform().getAbsolutePosition().getX();
+    }
+
+    @Benchmark
+    public float resolveWide(WideState state) {
+        state.moveRoot();
+        state.hierarchy.resolve();
+        return state.lastChild.getTransform().getAbsolutePosition().getX();
+    }
+
+    @Benchmark
+    public float readWideChildren(WideState state) {
+        state.moveRoot();
+        float sum = 0;
+        for (Entity child : state.children) {
+            sum += child.getTransform().getAbsolutePosition().getX();
+        }
+        return sum;
+    }
+
+    /**
+     * A hierarchy with a single root, of which the transforms are resolved
+     * either serially or level by level in parallel.
+     */
+    @State(Scope.Benchmark)
+    public abstract static class HierarchyState {
+
+        @Param({"false", "true"})
+        private boolean parallel;
+
+        TransformHierarchy hierarchy;
+
+        Entity root;
+
+        private int moves = 0;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Scene scene = new Scene("benchmark");
+            this.root = new Entity("root", new Vector3f());
+            this.build(this.root);
+            scene.addEntity(this.root);
+            this.hierarchy = scene.getComponentStore().getTransformHierarchy();
+            this.hierarchy.setParallelEnabled(this.parallel);
+            this.hierarchy.resolve();
+        }
+
+        void moveRoot() {
+            this.root.getTransform().setRelativePosition(new Vector3f(++this.moves % 2, 0, 0));
+        }
+
+        /**
+         * Builds the entities below the root.
+         *
+         * @param root The root of the hierarchy.
+         */
+        abstract void build(Entity root);
+
+    }
+
+    public static class DeepState extends HierarchyState {
+
+        @Param({"16", "256"})
+        private int depth;
+
+        Entity leaf;
+
+        @Override
+        void build(Entity root) {
+            this.leaf = root;
+            for (int i = 0; i < this.depth; i++) {
+                Entity child = new Entity("child", new Vector3f(1, 0, 0));
+                this.leaf.addChild(child);
+                this.leaf = child;
+            }
+        }
+
+    }
+
+    public static class WideState extends HierarchyState {
+
+        @Param({"1000", "100000"})
+        private int width;
+
+        Entity[] children;
+
+        Entity lastChild;
+
+        @Override
+        void build(Entity root) {
+            this.children = new Entity[this.width];
+            for (int i = 0; i < this.width; i++) {
+                this.children[i] = new Entity("child" + i, new Vector3f(1, 0, 0));
+                root.addChild(this.children[i]);
+            }
+            this.lastChild = this.children[this.width - 1];
+        }
+
+    }
+
+}
@@ -23,13 +23,18 @@
  */
 package blackengine.application;
 
+import blackengine.gameLogic.FramePhase;
+import blackengine.gameLogic.FrameTimer;
 import blackengine.gameLogic.GameManager;
 import blackengine.gameLogic.LogicEngine;
+import blackengine.jobs.JobSystem;
 import org.lwjgl.opengl.Display;
 import blackengine.rendering.DisplayManager;
+import blackengine.rendering.MasterRenderer;
+import blackengine.rendering.RenderEngine;
+import blackengine.rendering.SnapshotBuffer;
 import blackengine.userInput.InputManager;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 
 /**
  * An implementation of this abstract class will manage the outside of the
@@ -42,9 +47,35 @@ public abstract class ApplicationManager {
     /**
      * Flags whether the game loop should be running.
      */
-    private boolean isRunning;
+    private volatile boolean isRunning;
 
-    private Queue<Runnable> dispatchQueue;
+    /**
+     * The runnables that have to be run on the logic thread at the end of this
+     * frame.
+     */
+    private final DispatchQueue dispatchQueue;
+
+    /**
+     * The runnables that have to be run on the render thread at the end of this
+     * frame.
+     */
+    private final DispatchQueue renderDispatchQueue;
+
+    /**
+     * Whether the game logic runs on its own thread, one frame ahead of the
+     * rendering.
+     */
+    private boolean pipelined = false;
+
+    /**
+     * Whether the game loop runs without a display, rendering and input.
+     */
+    private boolean headless = false;
+
+    /**
+     * The failure that stopped the logic thread, if any.
+     */
+    private volatile Throwable logicFailure;
 
     /**
      * The game manager that is responsible for handling all game state updates.
@@ -64,6 +95,23 @@ public abstract class ApplicationManager {
      */
     private InputManager inputManager;
 
+    /**
+     * The amount of simulation steps per second, or 0 if the simulation runs
+     * once per frame.
+     */
+    private int tickRate = 0;
+
+    /**
+     * The maximum amount of simulation steps run in a single frame to catch up
+     * with the time that has passed.
+     */
+    private int maxCatchUpSteps = 5;
+
+    /**
+     * The time in seconds that has passed but has not been simulated yet.
+     */
+    private float accumulator = 0;
+
     /**
      * Getter for the display manager.
      *
@@ -86,6 +134,39 @@ public abstract class ApplicationManager {
         this.displayManager = displayManager;
     }
 
+    /**
+     * Getter for the queue of runnables passed to
+     * {@link #runLater(java.lang.Runnable) runLater(Runnable)}, which can be
+     * used to change its time budget and to read its metrics.
+     *
+     * @return The dispatch queue of the logic thread.
+     */
+    public DispatchQueue getDispatchQueue() {
+        return dispatchQueue;
+    }
+
+    /**
+     * Getter for the queue of runnables passed to
+     * {@link #runOnRenderThread(java.lang.Runnable) runOnRenderThread(Runnable)},
+     * which can be used to change its time budget and to read its metrics.
+     *
+     * @return The dispatch queue of the render thread.
+     */
+    public DispatchQueue getRenderDispatchQueue() {
+        return renderDispatchQueue;
+    }
+
+    /**
+     * Getter for the job system that engine subsystems and the game use to
+     * spread work within a frame over several threads. Its workers are shut
+     * down after {@link #cleanUp() cleanUp} has been called.
+     *
+     * @return The job system.
+     */
+    public JobSystem getJobSystem() {
+        return JobSystem.getInstance();
+    }
+
     /**
      * Getter for the game manager.
      *
@@ -130,12 +211,120 @@ public abstract class ApplicationManager {
         this.inputManager = inputManager;
     }
 
+    /**
+     * Getter for the amount of simulation steps per second.
+     *
+     * @return The tick rate, or 0 if the simulation runs once per frame.
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Setter for the amount of simulation steps per second. With a tick rate
+     * set, the game manager is updated in fixed steps of the same length,
+     * independent of the frame rate, and rendering interpolates between the
+     * last two simulated states.
+     *
+     * @param tickRate The amount of steps per second, or 0 to update the game
+     * manager once per frame.
+     */
+    public void setTickRate(int tickRate) {
+        this.tickRate = Math.max(0, tickRate);
+        this.accumulator = 0;
+        LogicEngine.getInstance().getTimer().setFixedDelta(this.tickRate > 0 ? 1f / this.tickRate : 0);
+    }
+
+    /**
+     * Getter for the maximum amount of simulation steps run in a single frame.
+     *
+     * @return The maximum amount of catch up steps.
+     */
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    /**
+     * Setter for the maximum amount of simulation steps run in a single frame.
+     * Any time left over after this many steps is dropped, so that a slow frame
+     * can not cause every next frame to fall further behind.
+     *
+     * @param maxCatchUpSteps The maximum amount of catch up steps, at least 1.
+     */
+    public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+    }
+
+    /**
+     * Getter for whether the game logic runs on its own thread.
+     *
+     * @return True if the game loop is pipelined, false otherwise.
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * Setter for whether the game logic runs on its own thread. In a
+     * pipelined game loop, the logic thread updates frame N+1 while the render
+     * thread renders frame N from a
+     * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}. This takes
+     * effect the next time the application is started.
+     *
+     * When pipelined, input is still handled on the render thread, but it is
+     * sent out to subscribers on the logic thread. Runnables passed to
+     * {@link #runLater(java.lang.Runnable) runLater(Runnable)} run on the logic
+     * thread, while anything touching OpenGL or the display has to be passed
+     * to {@link #runOnRenderThread(java.lang.Runnable) runOnRenderThread(Runnable)}.
+     * Renderer targets and lights can be added and removed from the logic
+     * thread, but should not be created there.
+     *
+     * @param pipelined True to run the game logic on its own thread.
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Getter for whether the game loop runs without a display.
+     *
+     * @return True if the application is headless, false otherwise.
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Setter for whether the game loop runs without a display. A headless
+     * game loop only has the game manager update the game, and runs the
+     * runnables passed to {@link #runLater(java.lang.Runnable) runLater(Runnable)}
+     * and {@link #runOnRenderThread(java.lang.Runnable) runOnRenderThread(Runnable)}.
+     * The display manager and input manager are never used, so no display or
+     * OpenGL context is needed, and the render engine does not have to be
+     * created, in which case all rendered components do nothing. This takes
+     * effect the next time the application is started, and overrules
+     * {@link #setPipelined(boolean) pipelining}.
+     *
+     * Without a {@link #setTickRate(int) tick rate}, the game loop runs as
+     * fast as possible. With a tick rate, it waits on the
+     * {@link blackengine.gameLogic.Clock Clock} of the frame timer until the
+     * next step is due, so that it runs in real time with the default clock,
+     * and one step after the other with a
+     * {@link blackengine.gameLogic.ManualClock ManualClock}.
+     *
+     * @param headless True to run the game loop without a display.
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
     /**
      * Constructor for creating a new instance of ApplicationManager.
      */
     public ApplicationManager() {
         this.displayManager = new DisplayManager(60);
-        this.dispatchQueue = new LinkedBlockingQueue<>();
+        this.dispatchQueue = new DispatchQueue();
+        this.renderDispatchQueue = new DispatchQueue();
     }
 
     /**
@@ -153,55 +342,309 @@ public abstract class ApplicationManager {
      * <ul>
      * <li>Have the InputManager handle all keyboard and mouse input.</li>
      * <li>Have the GameManager handle state updates to the scene and/or user
-     * interface.</li>
+     * interface. If a {@link #setTickRate(int) tick rate} is set, this happens
+     * as many times as fixed steps fit in the time that passed, up to the
+     * {@link #setMaxCatchUpSteps(int) maximum amount of catch up steps}.</li>
      * <li>Have the DisplayManager handle all rendering and updating of the
      * display.</li>
      * </ul>
+     *
+     * If the game loop is {@link #setPipelined(boolean) pipelined}, the second
+     * part runs on a separate logic thread, one frame ahead of the other two.
+     * If the application is {@link #setHeadless(boolean) headless}, only the
+     * second part runs, and the loop can only be stopped by calling
+     * {@link #quit() quit}.
      */
     public void startApplication() {
         if (!this.isRunning) {
             this.isRunning = true;
             setUp();
 
+            if (this.headless) {
+                this.runHeadless();
+            } else if (this.pipelined) {
+                this.runPipelined();
+            } else {
+                this.runSerial();
+            }
+
+            cleanUp();
+            JobSystem.getInstance().shutdown();
+            this.isRunning = false;
+        }
+    }
+
+    /**
+     * Runs the provided runnable at the end of this frame. In a pipelined game
+     * loop, it runs on the logic thread after the logic of this frame. The
+     * {@link blackengine.gameLogic.LogicEngine#runContinuations() continuations}
+     * of async behaviours run right after these runnables, on the same thread.
+     *
+     * The runnable is added to the
+     * {@link blackengine.application.DispatchLane#NORMAL normal lane}. If the
+     * runnables waiting in the dispatch queue take longer than its time budget,
+     * the remaining ones run in the next frame.
+     *
+     * @param runnable The runnable to be run at the end of this frame.
+     */
+    public void runLater(Runnable runnable) {
+        this.runLater(runnable, DispatchLane.NORMAL);
+    }
+
+    /**
+     * Runs the provided runnable at the end of this frame, or of a later frame
+     * if the lanes with a higher priority and the time budget of the dispatch
+     * queue do not leave room for it. This may be called from any thread.
+     *
+     * @param runnable The runnable to be run at the end of a frame.
+     * @param lane The lane of the runnable.
+     */
+    public void runLater(Runnable runnable, DispatchLane lane) {
+        this.dispatchQueue.add(runnable, lane);
+    }
+
+    /**
+     * Runs the provided runnable on the render thread at the end of this
+     * frame, after the frame has been rendered. This can be used from the
+     * logic thread of a pipelined game loop for anything touching OpenGL or
+     * the display.
+     *
+     * @param runnable The runnable to be run on the render thread.
+     */
+    public void runOnRenderThread(Runnable runnable) {
+        this.runOnRenderThread(runnable, DispatchLane.NORMAL);
+    }
+
+    /**
+     * Runs the provided runnable on the render thread at the end of this
+     * frame, or of a later frame if the lanes with a higher priority and the
+     * time budget of the render dispatch queue do not leave room for it. Heavy
+     * work such as uploading loaded assets to the GPU can be spread over
+     * several frames by passing it to the
+     * {@link blackengine.application.DispatchLane#LOW low lane}.
+     *
+     * @param runnable The runnable to be run on the render thread.
+     * @param lane The lane of the runnable.
+     */
+    public void runOnRenderThread(Runnable runnable, DispatchLane lane) {
+        this.renderDispatchQueue.add(runnable, lane);
+    }
+
+    /**
+     * Will break the game loop once this iteration has finished.
+     */
+    public void quit() {
+        this.isRunning = false;
+    }
+
+    /**
+     * Runs the game loop with the logic and the rendering on the calling
+     * thread.
+     */
+    private void runSerial() {
+        FrameTimer timer = LogicEngine.getInstance().getTimer();
+        while (!Display.isCloseRequested() && isRunning) {
+            long time = timer.getNanoTime();
+
+            if (this.inputManager != null) {
+                this.inputManager.handleInput();
+            }
+            timer.recordPhase(FramePhase.INPUT, time);
+
+            this.updateGame(timer);
+
+            time = timer.getNanoTime();
+            this.displayManager.renderFrame();
+            time = timer.recordPhase(FramePhase.RENDER, time);
+            this.displayManager.updateDisplay();
+            time = timer.recordPhase(FramePhase.DISPLAY_SYNC, time);
+            timer.registerFrame();
+
+            this.dispatchQueue.drain();
+            LogicEngine.getInstance().runContinuations();
+            this.renderDispatchQueue.drain();
+            timer.recordPhase(FramePhase.DISPATCH, time);
+        }
+    }
+
+    /**
+     * Runs the game loop without rendering and input on the calling thread,
+     * until {@link #quit() quit} is called.
+     */
+    private void runHeadless() {
+        FrameTimer timer = LogicEngine.getInstance().getTimer();
+        while (isRunning) {
+            timer.registerFrame();
+            long frameStart = timer.getNanoTime();
+
+            this.updateGame(timer);
+
+            long time = timer.getNanoTime();
+            this.dispatchQueue.drain();
+            LogicEngine.getInstance().runContinuations();
+            this.renderDispatchQueue.drain();
+            timer.recordPhase(FramePhase.DISPATCH, time);
+
+            if (this.tickRate > 0) {
+                double remaining = timer.getFixedDelta() - this.accumulator;
+                timer.getClock().sleepUntil(frameStart + (long) Math.ceil(remaining * 1e9));
+            }
+        }
+    }
+
+    /**
+     * Runs the game loop with the rendering on the calling thread, and the
+     * logic on a separate thread. Every frame, the render thread acquires the
+     * last frame published by the logic thread, lets the logic thread start
+     * on the next frame, and renders the acquired one in the meantime.
+     */
+    private void runPipelined() {
+        SnapshotBuffer snapshotBuffer = new SnapshotBuffer();
+        MasterRenderer masterRenderer = RenderEngine.getInstance().getMasterRenderer();
+        Semaphore frameRequests = new Semaphore(0);
+
+        if (this.inputManager != null) {
+            this.inputManager.setBuffered(true);
+        }
+        masterRenderer.setSnapshotBuffer(snapshotBuffer);
+        this.logicFailure = null;
+
+        FrameTimer timer = LogicEngine.getInstance().getTimer();
+        Thread logicThread = new Thread(() -> this.runLogic(snapshotBuffer, frameRequests), "Logic");
+        logicThread.start();
+        try {
             while (!Display.isCloseRequested() && isRunning) {
+                long time = timer.getNanoTime();
 
                 if (this.inputManager != null) {
                     this.inputManager.handleInput();
                 }
+                time = timer.recordPhase(FramePhase.INPUT, time);
 
-                if (this.gameManager != null) {
-                    this.gameManager.updateActiveScene();
-                    this.gameManager.updateActiveUI();
-                }
+                snapshotBuffer.acquire();
+                frameRequests.release();
+
+                this.displayManager.renderFrame();
+                time = timer.recordPhase(FramePhase.RENDER, time);
+                this.displayManager.updateDisplay();
+                time = timer.recordPhase(FramePhase.DISPLAY_SYNC, time);
+
+                this.renderDispatchQueue.drain();
+                timer.recordPhase(FramePhase.RENDER_DISPATCH, time);
+            }
+        } finally {
+            this.isRunning = false;
+            frameRequests.release();
+            try {
+                logicThread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            masterRenderer.setSnapshotBuffer(null);
+            if (this.inputManager != null) {
+                this.inputManager.setBuffered(false);
+                this.inputManager.dispatchBufferedInput();
+            }
+        }
 
-                this.displayManager.render();
-                LogicEngine.getInstance().getTimer().registerFrame();
+        if (this.logicFailure != null) {
+            throw new RuntimeException("The logic thread has stopped.", this.logicFailure);
+        }
+    }
 
-                while (this.dispatchQueue.peek() != null) {
-                    this.dispatchQueue.poll().run();
+    /**
+     * Runs the logic of the game loop on the logic thread, one frame every time
+     * the render thread requests one. Requests that pile up while a frame is
+     * being updated are merged into one. The frame time and the dispatch phase
+     * are measured on this thread, all other phases, including the render
+     * dispatch phase, on the render thread.
+     *
+     * @param snapshotBuffer The buffer in which every frame is published.
+     * @param frameRequests The frames requested by the render thread.
+     */
+    private void runLogic(SnapshotBuffer snapshotBuffer, Semaphore frameRequests) {
+        FrameTimer timer = LogicEngine.getInstance().getTimer();
+        try {
+            while (true) {
+                frameRequests.acquire();
+                frameRequests.drainPermits();
+                if (!this.isRunning) {
+                    break;
                 }
 
-            }
+                timer.registerFrame();
+                if (this.inputManager != null) {
+                    this.inputManager.dispatchBufferedInput();
+                }
 
-            cleanUp();
+                this.updateGame(timer);
+
+                snapshotBuffer.publish(this.gameManager);
+
+                long time = timer.getNanoTime();
+                this.dispatchQueue.drain();
+                LogicEngine.getInstance().runContinuations();
+                timer.recordPhase(FramePhase.DISPATCH, time);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable ex) {
+            this.logicFailure = ex;
             this.isRunning = false;
         }
     }
 
     /**
-     * Runs the provided runnable at the end of this frame.
+     * Has the game manager update the active scene and user interface, either
+     * once or in fixed steps.
      *
-     * @param runnable The runnable to be run at the end of this frame.
+     * @param timer The timer measuring the update phases.
      */
-    public void runLater(Runnable runnable) {
-        this.dispatchQueue.add(runnable);
+    private void updateGame(FrameTimer timer) {
+        if (this.gameManager != null) {
+            if (this.tickRate > 0) {
+                this.updateFixedSteps(timer);
+            } else {
+                this.updateStep(timer);
+            }
+        }
     }
 
     /**
-     * Will break the game loop once this iteration has finished.
+     * Has the game manager update the active scene and user interface once.
+     *
+     * @param timer The timer measuring the update phases.
      */
-    public void quit() {
-        this.isRunning = false;
+    private void updateStep(FrameTimer timer) {
+        long time = timer.getNanoTime();
+        this.gameManager.updateActiveScene();
+        time = timer.recordPhase(FramePhase.SCENE_UPDATE, time);
+        this.gameManager.updateActiveUI();
+        timer.recordPhase(FramePhase.UI_UPDATE, time);
+    }
+
+    /**
+     * Updates the game manager once for every fixed step that fits in the time
+     * that has passed, and sets how far rendering is in between the last two
+     * steps.
+     *
+     * @param timer The timer measuring the update phases.
+     */
+    private void updateFixedSteps(FrameTimer timer) {
+        float step = timer.getFixedDelta();
+        this.accumulator += timer.getFrameDelta();
+
+        int steps = 0;
+        while (this.accumulator >= step && steps < this.maxCatchUpSteps) {
+            this.updateStep(timer);
+            this.accumulator -= step;
+            steps++;
+        }
+        if (this.accumulator >= step) {
+            this.accumulator %= step;
+        }
+
+        timer.setInterpolationAlpha(this.accumulator / step);
     }
 
     /**
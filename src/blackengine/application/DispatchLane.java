@@ -0,0 +1,50 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.application;
+
+/**
+ * The priority lanes of a {@link blackengine.application.DispatchQueue DispatchQueue}.
+ * Runnables in a lane only run once all lanes with a higher priority are
+ * empty, so cheap work that has to land quickly is not held up behind a
+ * backlog of heavy work.
+ *
+ * @author Blackened
+ */
+public enum DispatchLane {
+
+    /**
+     * Work that should run as soon as possible, such as gameplay callbacks.
+     */
+    HIGH,
+    /**
+     * The lane of all runnables that are dispatched without a lane.
+     */
+    NORMAL,
+    /**
+     * Heavy work that may be spread over many frames, such as uploading
+     * loaded assets to the GPU.
+     */
+    LOW
+
+}
@@ -0,0 +1,297 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.application;
+
+import blackengine.toolbox.profiling.RollingHistogram;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * An instance of this class queues runnables from any thread, to be run on a
+ * single thread at the end of every frame. Every
+ * {@link blackengine.application.DispatchLane DispatchLane} is a lock-free
+ * multi-producer single-consumer queue: adding a runnable is a single atomic
+ * swap, and never blocks.
+ *
+ * Draining runs runnables in order of their lane, and in the order in which
+ * they were added within a lane, until the time budget of the frame is spent.
+ * Runnables that did not fit in the budget are carried over to the next
+ * frame, so that a burst of dispatched work is spread over several frames
+ * instead of causing a single long one. At least one runnable runs every
+ * frame, so that a runnable taking longer than the budget can not block the
+ * queue.
+ *
+ * @author Blackened
+ */
+public class DispatchQueue {
+
+    /**
+     * The default time budget of a frame, in nanoseconds.
+     */
+    public static final long DEFAULT_BUDGET = 4000000;
+
+    /**
+     * The amount of most recent wait times kept in the histogram.
+     */
+    private static final int HISTOGRAM_WINDOW = 1000;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The lanes, indexed by the ordinal of their lane.
+     */
+    private final Lane[] lanes = new Lane[DispatchLane.values().length];
+
+    /**
+     * The time budget of a frame, in nanoseconds.
+     */
+    private volatile long budget = DEFAULT_BUDGET;
+
+    /**
+     * The times the most recently run runnables waited in the queue, in
+     * nanoseconds.
+     */
+    private final RollingHistogram waitTimes = new RollingHistogram(HISTOGRAM_WINDOW);
+
+    /**
+     * The amount of runnables that were left in the queue after the last
+     * drain.
+     */
+    private volatile int carriedOver = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters & Setters">
+    /**
+     * Getter for the time budget of a frame.
+     *
+     * @return The budget in nanoseconds.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Setter for the time budget of a frame. Once the runnables run in a
+     * drain have taken this long, the remaining runnables are carried over.
+     *
+     * @param budget The budget in nanoseconds, or Long.MAX_VALUE to run all
+     * runnables every frame.
+     */
+    public void setBudget(long budget) {
+        this.budget = Math.max(0, budget);
+    }
+
+    /**
+     * Getter for the amount of runnables waiting in all lanes.
+     *
+     * @return The depth of this queue.
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (Lane lane : this.lanes) {
+            depth += lane.size.get();
+        }
+        return depth;
+    }
+
+    /**
+     * Getter for the amount of runnables waiting in a lane.
+     *
+     * @param lane The lane.
+     * @return The depth of the lane.
+     */
+    public int getDepth(DispatchLane lane) {
+        return this.lanes[lane.ordinal()].size.get();
+    }
+
+    /**
+     * Getter for the histogram of the times the most recently run runnables
+     * waited between being added and being run.
+     *
+     * @return The histogram of wait times in nanoseconds.
+     */
+    public RollingHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Getter for the amount of runnables that did not fit in the budget of the
+     * last drain, including the ones added while draining.
+     *
+     * @return The amount of runnables carried over to the next frame.
+     */
+    public int getCarriedOver() {
+        return carriedOver;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of DispatchQueue.
+     */
+    public DispatchQueue() {
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane();
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Adds a runnable to a lane. This may be called from any thread.
+     *
+     * @param runnable The runnable.
+     * @param lane The lane of the runnable.
+     */
+    public void add(Runnable runnable, DispatchLane lane) {
+        if (runnable == null) {
+            throw new NullPointerException();
+        }
+        this.lanes[lane.ordinal()].offer(new Node(runnable, System.nanoTime()));
+    }
+
+    /**
+     * Runs the waiting runnables in order of their lane, until the budget is
+     * spent or all lanes are empty. Runnables added while draining run in the
+     * same drain if the budget allows. This must only be called from a single
+     * thread at a time.
+     *
+     * @return The amount of runnables that were run.
+     */
+    public int drain() {
+        long start = System.nanoTime();
+        long now = start;
+        int count = 0;
+        Node node;
+        while ((count == 0 || now - start < this.budget) && (node = this.poll()) != null) {
+            // The node stays behind as the head of its lane, so it should not hold on to its runnable.
+            Runnable runnable = node.runnable;
+            node.runnable = null;
+            this.waitTimes.record(now - node.addedAt);
+            count++;
+            runnable.run();
+            now = System.nanoTime();
+        }
+        this.carriedOver = this.getDepth();
+        return count;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Removes the first node of the lane with the highest priority that is not
+     * empty.
+     *
+     * @return The node, or null if all lanes are empty.
+     */
+    private Node poll() {
+        for (Lane lane : this.lanes) {
+            Node node = lane.poll();
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+    //</editor-fold>
+
+    /**
+     * A runnable waiting in a lane.
+     */
+    private static class Node {
+
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT
+                = AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        private Runnable runnable;
+
+        /**
+         * The time at which the runnable was added, in nanoseconds.
+         */
+        private final long addedAt;
+
+        private volatile Node next;
+
+        private Node(Runnable runnable, long addedAt) {
+            this.runnable = runnable;
+            this.addedAt = addedAt;
+        }
+
+    }
+
+    /**
+     * A lock-free multi-producer single-consumer queue of nodes. Producers
+     * swap themselves in as the tail and then link the previous tail to
+     * themselves, while the single consumer follows the links from a stub
+     * head node.
+     */
+    private static class Lane {
+
+        /**
+         * The last node that was consumed, whose successor is the first
+         * waiting node.
+         */
+        private Node head;
+
+        /**
+         * The last node that was added.
+         */
+        private final AtomicReference<Node> tail;
+
+        /**
+         * The amount of waiting nodes.
+         */
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Lane() {
+            this.head = new Node(null, 0);
+            this.tail = new AtomicReference<>(this.head);
+        }
+
+        private void offer(Node node) {
+            this.size.incrementAndGet();
+            Node previous = this.tail.getAndSet(node);
+            Node.NEXT.lazySet(previous, node);
+        }
+
+        /**
+         * Removes the first waiting node, which becomes the new head. A node
+         * of which the producer has swapped in the tail but not linked it yet
+         * is seen as not added yet.
+         *
+         * @return The node, or null if there is none.
+         */
+        private Node poll() {
+            Node next = this.head.next;
+            if (next == null) {
+                return null;
+            }
+            this.head = next;
+            this.size.decrementAndGet();
+            return next;
+        }
+
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link java.io.DataOutput DataOutput} writing to a direct byte buffer,
+ * which is replaced by one twice as large whenever it is full. The buffer is
+ * kept when the output is cleared, so that it can be reused without
+ * allocating.
+ *
+ * @author Blackened
+ */
+final class ByteBufferOutput implements DataOutput {
+
+    /**
+     * The buffer written to.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Default constructor for creating a new instance of ByteBufferOutput.
+     *
+     * @param capacity The initial capacity in bytes.
+     */
+    ByteBufferOutput(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(Math.max(16, capacity));
+    }
+
+    /**
+     * Getter for the buffer written to. Its position is the amount of bytes
+     * written. The buffer is replaced when it is full, so it should not be
+     * kept across writes.
+     *
+     * @return The buffer.
+     */
+    ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Getter for the amount of bytes written since the output was cleared.
+     *
+     * @return The position of the buffer.
+     */
+    int position() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Getter for the capacity of the buffer.
+     *
+     * @return The capacity in bytes.
+     */
+    int capacity() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Discards all bytes written.
+     */
+    void clear() {
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes the remaining bytes of the provided buffer.
+     *
+     * @param source The buffer to copy from.
+     */
+    void put(ByteBuffer source) {
+        this.ensureRemaining(source.remaining());
+        this.buffer.put(source);
+    }
+
+    /**
+     * Overwrites an int that was written before.
+     *
+     * @param index The position of the int.
+     * @param value The new value.
+     */
+    void putInt(int index, int value) {
+        this.buffer.putInt(index, value);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="DataOutput">
+    @Override
+    public void write(int b) {
+        this.ensureRemaining(1);
+        this.buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b) {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.ensureRemaining(len);
+        this.buffer.put(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        this.write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        this.write(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        this.ensureRemaining(2);
+        this.buffer.putShort((short) v);
+    }
+
+    @Override
+    public void writeChar(int v) {
+        this.ensureRemaining(2);
+        this.buffer.putChar((char) v);
+    }
+
+    @Override
+    public void writeInt(int v) {
+        this.ensureRemaining(4);
+        this.buffer.putInt(v);
+    }
+
+    @Override
+    public void writeLong(long v) {
+        this.ensureRemaining(8);
+        this.buffer.putLong(v);
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        this.ensureRemaining(4);
+        this.buffer.putFloat(v);
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        this.ensureRemaining(8);
+        this.buffer.putDouble(v);
+    }
+
+    @Override
+    public void writeBytes(String s) {
+        this.ensureRemaining(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            this.buffer.put((byte) s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(String s) {
+        this.ensureRemaining(s.length() * 2);
+        for (int i = 0; i < s.length(); i++) {
+            this.buffer.putChar(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeUTF(String s) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(s.length() + 2);
+        new DataOutputStream(bytes).writeUTF(s);
+        this.write(bytes.toByteArray());
+    }
+    //</editor-fold>
+
+    /**
+     * Replaces the buffer with a larger one if fewer than the provided amount
+     * of bytes remain.
+     *
+     * @param amount The amount of bytes about to be written.
+     */
+    private void ensureRemaining(int amount) {
+        if (this.buffer.remaining() < amount) {
+            long required = (long) this.buffer.position() + amount;
+            ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, Math.max(required, this.buffer.capacity() * 2L)));
+            this.buffer.flip();
+            larger.put(this.buffer);
+            this.buffer = larger;
+        }
+    }
+
+}
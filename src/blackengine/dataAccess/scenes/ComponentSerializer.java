@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An implementation of this interface writes the state of components of a
+ * single class to a scene file, and reads it back into new components. It is
+ * registered for that class with
+ * {@link SceneFormat#register(java.lang.Class, blackengine.dataAccess.scenes.ComponentSerializer) SceneFormat.register(...)}.
+ *
+ * Both methods use big endian byte order, which is the order of
+ * {@link java.io.DataOutput DataOutput} and the default order of a
+ * {@link java.nio.ByteBuffer ByteBuffer}. The read method has to read exactly
+ * the bytes that the write method wrote.
+ *
+ * To have the components of the class recorded by the
+ * {@link SnapshotRing SnapshotRing} as well, implement
+ * {@link RestorableComponentSerializer RestorableComponentSerializer} instead.
+ *
+ * @author Blackened
+ * @param <T> The class of the components.
+ */
+public interface ComponentSerializer<T extends ComponentBase> {
+
+    /**
+     * Writes the state of the provided component.
+     *
+     * @param component The component to write.
+     * @param output The output to write to.
+     * @throws IOException If writing to the output fails.
+     */
+    void write(T component, DataOutput output) throws IOException;
+
+    /**
+     * Creates a new component from the state at the position of the provided
+     * buffer, and advances the position past it. The component is not added to
+     * an entity yet.
+     *
+     * @param buffer The buffer to read from.
+     * @return The new component.
+     * @throws IOException If the state is invalid.
+     */
+    T read(ByteBuffer buffer) throws IOException;
+
+}
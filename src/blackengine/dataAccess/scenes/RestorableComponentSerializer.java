@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An implementation of this interface is a
+ * {@link ComponentSerializer ComponentSerializer} that can also restore the
+ * state it wrote into an existing component. Only the components of classes
+ * that have a restorable serializer registered are recorded by the
+ * {@link SnapshotRing SnapshotRing}, which rolls them back without replacing
+ * them.
+ *
+ * @author Blackened
+ * @param <T> The class of the components.
+ */
+public interface RestorableComponentSerializer<T extends ComponentBase> extends ComponentSerializer<T> {
+
+    /**
+     * Restores the state at the position of the provided buffer into an
+     * existing component, and advances the position past it. This has to read
+     * exactly the bytes that the write method wrote.
+     *
+     * @param component The component to restore.
+     * @param buffer The buffer to read from.
+     * @throws IOException If the state is invalid.
+     */
+    void readInto(T component, ByteBuffer buffer) throws IOException;
+
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class describes the binary scene format written by
+ * {@link SceneWriter SceneWriter} and read by {@link SceneReader SceneReader},
+ * and keeps the serializers of the component classes that are stored in it.
+ *
+ * A scene file is big endian, and consists of the following sections:
+ * <ul>
+ * <li>The header: the magic number, the version, the index of the name of the
+ * scene in the string table, and the amount of strings, tags, entities and
+ * component sections.</li>
+ * <li>The string table: every string as its length in bytes followed by its
+ * UTF-8 bytes. All names are stored as an index in this table.</li>
+ * <li>The tag table: every tag as the index of the name of its enum class and
+ * the index of the name of its constant.</li>
+ * <li>The entities, in columns: the index of the parent of every entity, or -1
+ * for entities directly in the scene, the index of its name and the index of
+ * its tag, followed by the relative positions, rotations as quaternions and
+ * scales of all entities. Parents always come before their children.</li>
+ * <li>One section per component class: the index of the name of the class, the
+ * amount of components, the index of the entity of every component, and the
+ * length in bytes of the state of all components, followed by the state
+ * written by the serializer of the class.</li>
+ * </ul>
+ *
+ * @author Blackened
+ */
+public final class SceneFormat {
+
+    /**
+     * The first four bytes of every scene file, which spell "BESC".
+     */
+    public static final int MAGIC = 0x42455343;
+
+    /**
+     * The version of the format written by the scene writer.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The serializers of all registered component classes, mapped to the name
+     * of their class.
+     */
+    private static final Map<String, ComponentSerializer<?>> SERIALIZERS = new ConcurrentHashMap<>();
+
+    private SceneFormat() {
+    }
+
+    /**
+     * Registers the serializer of a component class. Components of that exact
+     * class are written to scene files, and can be read back. Components of
+     * classes without a serializer are left out when a scene is written.
+     *
+     * @param <T> The class of the components.
+     * @param componentClass The class of the components.
+     * @param serializer The serializer of the components.
+     */
+    public static <T extends ComponentBase> void register(Class<T> componentClass, ComponentSerializer<T> serializer) {
+        SERIALIZERS.put(componentClass.getName(), serializer);
+    }
+
+    /**
+     * Removes the serializer of a component class.
+     *
+     * @param componentClass The class of the components.
+     */
+    public static void unregister(Class<? extends ComponentBase> componentClass) {
+        SERIALIZERS.remove(componentClass.getName());
+    }
+
+    /**
+     * Retrieves the serializer registered for a component class.
+     *
+     * @param componentClassName The name of the class of the components.
+     * @return The serializer, or null if none is registered.
+     */
+    static ComponentSerializer<?> getSerializer(String componentClassName) {
+        return SERIALIZERS.get(componentClassName);
+    }
+
+}
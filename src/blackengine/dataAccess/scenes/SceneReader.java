@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameElement;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.Tag;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Function;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * Reads game elements from scene files in the {@link SceneFormat SceneFormat}.
+ * The file is mapped into memory, and every column is read in bulk. All
+ * entities are built and given their components before they are added to the
+ * game element, so that every entity is stored only once.
+ *
+ * The game element that is read is not activated, so reading can be done in
+ * the background by
+ * {@link blackengine.gameLogic.GameManager#preloadScene(java.util.function.Supplier) GameManager.preloadScene(Supplier)}.
+ *
+ * @author Blackened
+ */
+public final class SceneReader {
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    private SceneReader() {
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Static Methods">
+    /**
+     * Reads a scene file into a new scene.
+     *
+     * @param path The path of the scene file.
+     * @return The scene.
+     * @throws IOException If reading the file fails, or the file is not a valid
+     * scene file.
+     */
+    public static Scene read(Path path) throws IOException {
+        return read(path, Scene::new);
+    }
+
+    /**
+     * Reads a scene file into a new game element.
+     *
+     * @param <T> The type of the game element.
+     * @param path The path of the scene file.
+     * @param factory The factory creating the game element from its name.
+     * @return The game element.
+     * @throws IOException If reading the file fails, or the file is not a valid
+     * scene file.
+     */
+    public static <T extends GameElement> T read(Path path, Function<String, T> factory) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return read(buffer, factory);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException ex) {
+            throw new IOException("The scene file " + path + " is corrupt.", ex);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Static Methods">
+    /**
+     * Reads a game element from the provided buffer.
+     *
+     * @param <T> The type of the game element.
+     * @param buffer The buffer containing the scene file.
+     * @param factory The factory creating the game element from its name.
+     * @return The game element.
+     * @throws IOException If the buffer does not contain a valid scene file.
+     */
+    private static <T extends GameElement> T read(ByteBuffer buffer, Function<String, T> factory) throws IOException {
+        if (buffer.remaining() < 28 || buffer.getInt() != SceneFormat.MAGIC) {
+            throw new IOException("Not a scene file.");
+        }
+        int version = buffer.getInt();
+        if (version != SceneFormat.VERSION) {
+            throw new IOException("Unsupported scene file version " + version + ".");
+        }
+        int name = buffer.getInt();
+        String[] strings = new String[buffer.getInt()];
+        Tag[] tags = new Tag[buffer.getInt()];
+        int count = buffer.getInt();
+        int sectionCount = buffer.getInt();
+
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            buffer.get(bytes, 0, length);
+            strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        for (int i = 0; i < tags.length; i++) {
+            tags[i] = resolveTag(strings[buffer.getInt()], strings[buffer.getInt()]);
+        }
+
+        int[] parents = readInts(buffer, count);
+        int[] names = readInts(buffer, count);
+        int[] entityTags = readInts(buffer, count);
+        float[] positions = readFloats(buffer, count * 3);
+        float[] rotations = readFloats(buffer, count * 4);
+        float[] scales = readFloats(buffer, count * 3);
+
+        Entity[] entities = new Entity[count];
+        Vector3f position = new Vector3f();
+        Vector3f scale = new Vector3f();
+        Vector3f noRotation = new Vector3f();
+        Quaternion rotation = new Quaternion();
+        for (int i = 0; i < count; i++) {
+            position.set(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+            scale.set(scales[i * 3], scales[i * 3 + 1], scales[i * 3 + 2]);
+            Entity entity = new Entity(strings[names[i]], position, noRotation, scale);
+            rotation.set(rotations[i * 4], rotations[i * 4 + 1], rotations[i * 4 + 2], rotations[i * 4 + 3]);
+            if (rotation.x != 0 || rotation.y != 0 || rotation.z != 0) {
+                entity.getTransform().setRelativeRotation(rotation);
+            }
+            entity.setTag(tags[entityTags[i]]);
+            entities[i] = entity;
+        }
+
+        ComponentBase[][] components = readComponents(buffer, strings, count, sectionCount);
+        for (int i = 0; i < count; i++) {
+            if (components[i] != null) {
+                entities[i].addComponents(components[i]);
+            }
+        }
+
+        // Children are linked while their parents are not part of the game
+        // element yet, so that each subtree is stored once when it is added.
+        T gameElement = factory.apply(strings[name]);
+        for (int i = 0; i < count; i++) {
+            if (parents[i] >= i) {
+                throw new IOException("An entity is stored before its parent.");
+            }
+            if (parents[i] >= 0) {
+                entities[parents[i]].addChild(entities[i]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (parents[i] < 0) {
+                gameElement.addEntity(entities[i]);
+            }
+        }
+        return gameElement;
+    }
+
+    /**
+     * Reads all component sections from the provided buffer.
+     *
+     * @param buffer The buffer, positioned at the first component section.
+     * @param strings The string table.
+     * @param count The amount of entities.
+     * @param sectionCount The amount of component sections.
+     * @return The components of every entity, or null for entities without
+     * components.
+     * @throws IOException If a component class has no serializer, or a
+     * serializer does not read exactly the state of its components.
+     */
+    private static ComponentBase[][] readComponents(ByteBuffer buffer, String[] strings, int count, int sectionCount) throws IOException {
+        ComponentBase[][] components = new ComponentBase[count][];
+        for (int s = 0; s < sectionCount; s++) {
+            String className = strings[buffer.getInt()];
+            ComponentSerializer<?> serializer = SceneFormat.getSerializer(className);
+            if (serializer == null) {
+                throw new IOException("No serializer is registered for the component class " + className + ".");
+            }
+            int[] owners = readInts(buffer, buffer.getInt());
+            int end = buffer.getInt();
+            end += buffer.position();
+            for (int owner : owners) {
+                ComponentBase[] row = components[owner];
+                if (row == null) {
+                    row = new ComponentBase[1];
+                } else {
+                    row = Arrays.copyOf(row, row.length + 1);
+                }
+                row[row.length - 1] = serializer.read(buffer);
+                components[owner] = row;
+            }
+            if (buffer.position() != end) {
+                throw new IOException("The serializer of " + className + " read " + (buffer.position() > end ? "more" : "less") + " than was written.");
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Resolves a tag from the name of its enum class and constant.
+     *
+     * @param className The name of the enum class.
+     * @param constantName The name of the constant.
+     * @return The tag.
+     * @throws IOException If the class does not exist, or the constant is not
+     * a tag.
+     */
+    private static Tag resolveTag(String className, String constantName) throws IOException {
+        Class<?> tagClass;
+        try {
+            tagClass = Class.forName(className);
+        } catch (ClassNotFoundException ex) {
+            throw new IOException("The tag class " + className + " can not be found.", ex);
+        }
+        if (tagClass.isEnum() && Tag.class.isAssignableFrom(tagClass)) {
+            for (Object constant : tagClass.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(constantName)) {
+                    return (Tag) constant;
+                }
+            }
+        }
+        throw new IOException("The tag " + className + "." + constantName + " can not be found.");
+    }
+
+    /**
+     * Reads a column of ints from the provided buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @param length The amount of ints.
+     * @return The ints.
+     */
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * 4);
+        return values;
+    }
+
+    /**
+     * Reads a column of floats from the provided buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @param length The amount of floats.
+     * @return The floats.
+     */
+    private static float[] readFloats(ByteBuffer buffer, int length) {
+        float[] values = new float[length];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + length * 4);
+        return values;
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,304 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameElement;
+import blackengine.gameLogic.Tag;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * Writes game elements to scene files in the {@link SceneFormat SceneFormat}.
+ *
+ * @author Blackened
+ */
+public final class SceneWriter {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * All strings to write, in order of their index.
+     */
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * The index of every string to write.
+     */
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+
+    /**
+     * All tags to write, in order of their index.
+     */
+    private final List<Tag> tags = new ArrayList<>();
+
+    /**
+     * The index of every tag to write.
+     */
+    private final Map<Tag, Integer> tagIndices = new HashMap<>();
+
+    /**
+     * All entities to write, parents before children.
+     */
+    private final List<Entity> entities = new ArrayList<>();
+
+    /**
+     * The index of the parent of every entity to write, or -1 if it has none.
+     */
+    private final List<Integer> parents = new ArrayList<>();
+
+    /**
+     * The sections of all component classes with a serializer, in order of
+     * the first entity with a component of that class.
+     */
+    private final Map<Class<?>, ComponentSection> sections = new LinkedHashMap<>();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    private SceneWriter() {
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Static Methods">
+    /**
+     * Writes the provided game element, all its entities and their children,
+     * their transforms and tags, and all components that have a registered
+     * serializer to a scene file. Tags have to be enum constants.
+     *
+     * @param gameElement The game element to write.
+     * @param path The path of the scene file, which is replaced if it exists.
+     * @throws IOException If writing the file fails, or an entity has a tag
+     * that is not an enum constant.
+     */
+    public static void write(GameElement gameElement, Path path) throws IOException {
+        SceneWriter writer = new SceneWriter();
+        writer.collect(gameElement);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            writer.writeTo(output, gameElement.getName());
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Collects all entities, strings, tags and components of the provided game
+     * element.
+     *
+     * @param gameElement The game element to write.
+     * @throws IOException If an entity has a tag that is not an enum constant.
+     */
+    private void collect(GameElement gameElement) throws IOException {
+        this.indexOf(gameElement.getName());
+        Iterator<Entity> roots = gameElement.getAllEntities().iterator();
+        while (roots.hasNext()) {
+            this.collect(roots.next(), -1);
+        }
+    }
+
+    /**
+     * Collects the provided entity and all its children.
+     *
+     * @param entity The entity to collect.
+     * @param parent The index of its parent, or -1 if it has none.
+     * @throws IOException If the entity has a tag that is not an enum
+     * constant.
+     */
+    @SuppressWarnings("unchecked")
+    private void collect(Entity entity, int parent) throws IOException {
+        int index = this.entities.size();
+        this.entities.add(entity);
+        this.parents.add(parent);
+        this.indexOf(entity.getName());
+        this.indexOf(entity.getTag());
+
+        Iterator<ComponentBase> components = entity.getAllComponents().iterator();
+        while (components.hasNext()) {
+            ComponentBase component = components.next();
+            ComponentSection section = this.sections.get(component.getClass());
+            if (section == null) {
+                ComponentSerializer<?> serializer = SceneFormat.getSerializer(component.getClass().getName());
+                if (serializer == null) {
+                    continue;
+                }
+                section = new ComponentSection(this.indexOf(component.getClass().getName()), (ComponentSerializer<ComponentBase>) serializer);
+                this.sections.put(component.getClass(), section);
+            }
+            section.entities.add(index);
+            section.serializer.write(component, section.data);
+        }
+
+        Iterator<Entity> children = entity.getChildren().iterator();
+        while (children.hasNext()) {
+            this.collect(children.next(), index);
+        }
+    }
+
+    /**
+     * Writes all collected data to the provided output.
+     *
+     * @param output The output to write to.
+     * @param name The name of the game element.
+     * @throws IOException If writing to the output fails.
+     */
+    private void writeTo(DataOutputStream output, String name) throws IOException {
+        int count = this.entities.size();
+        output.writeInt(SceneFormat.MAGIC);
+        output.writeInt(SceneFormat.VERSION);
+        output.writeInt(this.indexOf(name));
+        output.writeInt(this.strings.size());
+        output.writeInt(this.tags.size());
+        output.writeInt(count);
+        output.writeInt(this.sections.size());
+
+        for (String string : this.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        for (Tag tag : this.tags) {
+            Enum<?> constant = (Enum<?>) tag;
+            output.writeInt(this.stringIndices.get(constant.getDeclaringClass().getName()));
+            output.writeInt(this.stringIndices.get(constant.name()));
+        }
+
+        for (int parent : this.parents) {
+            output.writeInt(parent);
+        }
+        for (Entity entity : this.entities) {
+            output.writeInt(this.stringIndices.get(entity.getName()));
+        }
+        for (Entity entity : this.entities) {
+            output.writeInt(this.tagIndices.get(entity.getTag()));
+        }
+        for (Entity entity : this.entities) {
+            Vector3f position = entity.getTransform().getRelativePosition();
+            output.writeFloat(position.x);
+            output.writeFloat(position.y);
+            output.writeFloat(position.z);
+        }
+        for (Entity entity : this.entities) {
+            Quaternion rotation = entity.getTransform().getRelativeRotation();
+            output.writeFloat(rotation.x);
+            output.writeFloat(rotation.y);
+            output.writeFloat(rotation.z);
+            output.writeFloat(rotation.w);
+        }
+        for (Entity entity : this.entities) {
+            Vector3f scale = entity.getTransform().getRelativeScale();
+            output.writeFloat(scale.x);
+            output.writeFloat(scale.y);
+            output.writeFloat(scale.z);
+        }
+
+        for (ComponentSection section : this.sections.values()) {
+            output.writeInt(section.className);
+            output.writeInt(section.entities.size());
+            for (int entity : section.entities) {
+                output.writeInt(entity);
+            }
+            output.writeInt(section.bytes.size());
+            section.bytes.writeTo(output);
+        }
+    }
+
+    /**
+     * Retrieves the index of the provided string in the string table, and
+     * adds it if it is not present yet.
+     *
+     * @param string The string.
+     * @return The index of the string.
+     */
+    private int indexOf(String string) {
+        Integer index = this.stringIndices.get(string);
+        if (index == null) {
+            index = this.strings.size();
+            this.strings.add(string);
+            this.stringIndices.put(string, index);
+        }
+        return index;
+    }
+
+    /**
+     * Retrieves the index of the provided tag in the tag table, and adds it
+     * and its names to the string table if it is not present yet.
+     *
+     * @param tag The tag.
+     * @return The index of the tag.
+     * @throws IOException If the tag is not an enum constant.
+     */
+    private int indexOf(Tag tag) throws IOException {
+        Integer index = this.tagIndices.get(tag);
+        if (index == null) {
+            if (!(tag instanceof Enum)) {
+                throw new IOException("Only enum constants can be written as tags, found " + tag + ".");
+            }
+            Enum<?> constant = (Enum<?>) tag;
+            this.indexOf(constant.getDeclaringClass().getName());
+            this.indexOf(constant.name());
+            index = this.tags.size();
+            this.tags.add(tag);
+            this.tagIndices.put(tag, index);
+        }
+        return index;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="ComponentSection">
+    /**
+     * The components of a single class that are written.
+     */
+    private static class ComponentSection {
+
+        private final int className;
+
+        private final ComponentSerializer<ComponentBase> serializer;
+
+        private final List<Integer> entities = new ArrayList<>();
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream data = new DataOutputStream(this.bytes);
+
+        ComponentSection(int className, ComponentSerializer<ComponentBase> serializer) {
+            this.className = className;
+            this.serializer = serializer;
+        }
+    }
+    //</editor-fold>
+
+}
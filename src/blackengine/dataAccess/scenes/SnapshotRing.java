@@ -0,0 +1,635 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.dataAccess.scenes;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameElement;
+import blackengine.gameLogic.Transform;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * An instance of this class records the state of a game element in a ring of
+ * snapshots, so that it can be rolled back to any recorded frame, for example
+ * to re-simulate frames after late input from the network.
+ *
+ * The state consists of the relative transforms of all entities, and the state
+ * of all components of a class that has a registered
+ * {@link RestorableComponentSerializer RestorableComponentSerializer}.
+ * Components of classes with a serializer that can not restore existing
+ * components are not recorded. Every few frames, and whenever the structure
+ * of the game element changes, a keyframe with the full state is recorded. The frames in between only record the transforms
+ * and components of which the serialized state differs from the frame before.
+ * Every snapshot is kept in a direct byte buffer, which is reused once the
+ * ring wraps around.
+ *
+ * Rolling back restores the transforms and components in place, using
+ * {@link RestorableComponentSerializer#readInto(blackengine.gameLogic.components.base.ComponentBase, java.nio.ByteBuffer) readInto},
+ * so references to them stay valid. Entities that have been added since the
+ * frame keep their state, and entities that have been destroyed since are not
+ * brought back. Snapshots should be captured and restored between updates of
+ * the game element.
+ *
+ * @author Blackened
+ */
+public class SnapshotRing {
+
+    /**
+     * The default amount of frames from one keyframe to the next.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 30;
+
+    /**
+     * The initial capacity in bytes of every buffer.
+     */
+    private static final int INITIAL_BUFFER_CAPACITY = 4096;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The game element of which the state is recorded.
+     */
+    private final GameElement gameElement;
+
+    /**
+     * The amount of frames from one keyframe to the next.
+     */
+    private final int keyframeInterval;
+
+    /**
+     * The ring of snapshots.
+     */
+    private final Slot[] slots;
+
+    /**
+     * The index of the newest snapshot, or -1 if the ring is empty.
+     */
+    private int newest = -1;
+
+    /**
+     * The amount of snapshots in the ring.
+     */
+    private int size = 0;
+
+    /**
+     * The entities and components of the game element at the last capture.
+     */
+    private Layout layout;
+
+    /**
+     * The serialized state of the last capture.
+     */
+    private ByteBufferOutput state = new ByteBufferOutput(INITIAL_BUFFER_CAPACITY);
+
+    /**
+     * The serialized state of the capture before the last one.
+     */
+    private ByteBufferOutput previousState = new ByteBufferOutput(INITIAL_BUFFER_CAPACITY);
+
+    /**
+     * The position of every record in the serialized state of the last
+     * capture, followed by the end of the last record.
+     */
+    private int[] offsets = new int[1];
+
+    /**
+     * The position of every record in the serialized state of the capture
+     * before the last one, followed by the end of the last record.
+     */
+    private int[] previousOffsets = new int[1];
+
+    /**
+     * Whether the next capture has to be a keyframe.
+     */
+    private boolean keyframeRequired = true;
+
+    /**
+     * The amount of frames captured since the last keyframe.
+     */
+    private int framesSinceKeyframe = 0;
+
+    private final Vector3f vector = new Vector3f();
+
+    private final Quaternion quaternion = new Quaternion();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Constructor for creating a new instance of SnapshotRing, with a keyframe
+     * every {@link #DEFAULT_KEYFRAME_INTERVAL 30} frames.
+     *
+     * @param gameElement The game element of which the state is recorded.
+     * @param capacity The maximum amount of frames in the ring.
+     */
+    public SnapshotRing(GameElement gameElement, int capacity) {
+        this(gameElement, capacity, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Default constructor for creating a new instance of SnapshotRing. The
+     * ring can go back at least the capacity minus the keyframe interval in
+     * frames, as the oldest frames can only be restored while their keyframe
+     * is still in the ring.
+     *
+     * @param gameElement The game element of which the state is recorded.
+     * @param capacity The maximum amount of frames in the ring.
+     * @param keyframeInterval The amount of frames from one keyframe to the
+     * next.
+     */
+    public SnapshotRing(GameElement gameElement, int capacity, int keyframeInterval) {
+        if (capacity < 1 || keyframeInterval < 1) {
+            throw new IllegalArgumentException("The capacity and the keyframe interval have to be at least 1.");
+        }
+        this.gameElement = gameElement;
+        this.keyframeInterval = keyframeInterval;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.slots[i] = new Slot();
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the maximum amount of frames in the ring.
+     *
+     * @return The capacity of the ring.
+     */
+    public int getCapacity() {
+        return this.slots.length;
+    }
+
+    /**
+     * Getter for the amount of frames from one keyframe to the next.
+     *
+     * @return The keyframe interval.
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Getter for the amount of frames in the ring.
+     *
+     * @return The amount of frames.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the newest frame in the ring.
+     *
+     * @return The newest frame, or Long.MIN_VALUE if the ring is empty.
+     */
+    public long getNewestFrame() {
+        return this.size > 0 ? this.slots[this.newest].frame : Long.MIN_VALUE;
+    }
+
+    /**
+     * Getter for the oldest frame in the ring.
+     *
+     * @return The oldest frame, or Long.MIN_VALUE if the ring is empty.
+     */
+    public long getOldestFrame() {
+        return this.size > 0 ? this.slots[this.oldest()].frame : Long.MIN_VALUE;
+    }
+
+    /**
+     * Getter for the amount of memory outside of the heap used by the
+     * snapshots and the state they are encoded from.
+     *
+     * @return The capacity in bytes of all buffers.
+     */
+    public long getMemoryUsage() {
+        long usage = (long) this.state.capacity() + this.previousState.capacity();
+        for (Slot slot : this.slots) {
+            usage += slot.data.capacity();
+        }
+        return usage;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Records the current state of the game element as the provided frame. If
+     * the ring is full, the oldest frame is overwritten.
+     *
+     * @param frame The frame, which has to be after the newest frame in the
+     * ring.
+     * @throws IllegalArgumentException If the frame is not after the newest
+     * frame.
+     * @throws UncheckedIOException If a component serializer fails.
+     */
+    public void capture(long frame) {
+        if (this.size > 0 && frame <= this.slots[this.newest].frame) {
+            throw new IllegalArgumentException("Frame " + frame + " is not after the newest frame in the ring.");
+        }
+        int structureVersion = this.gameElement.getComponentStore().getStructureVersion();
+        if (this.layout == null || this.layout.structureVersion != structureVersion) {
+            this.layout = new Layout(this.gameElement, structureVersion);
+            this.keyframeRequired = true;
+        }
+        this.serializeState();
+
+        boolean keyframe = this.keyframeRequired || this.framesSinceKeyframe + 1 >= this.keyframeInterval;
+        this.newest = (this.newest + 1) % this.slots.length;
+        this.size = Math.min(this.size + 1, this.slots.length);
+        Slot slot = this.slots[this.newest];
+        slot.frame = frame;
+        slot.layout = this.layout;
+        slot.keyframe = keyframe;
+        slot.data.clear();
+        this.writeRecords(slot.data, keyframe);
+        if (keyframe) {
+            this.keyframeRequired = false;
+            this.framesSinceKeyframe = 0;
+        } else {
+            this.framesSinceKeyframe++;
+        }
+
+        ByteBufferOutput swappedState = this.previousState;
+        this.previousState = this.state;
+        this.state = swappedState;
+        int[] swappedOffsets = this.previousOffsets;
+        this.previousOffsets = this.offsets;
+        this.offsets = swappedOffsets;
+    }
+
+    /**
+     * Verifies whether the game element can be rolled back to the provided
+     * frame.
+     *
+     * @param frame The frame.
+     * @return True if the frame and its keyframe are in the ring, false
+     * otherwise.
+     */
+    public boolean canRestore(long frame) {
+        int target = this.indexOf(frame);
+        return target >= 0 && this.keyframeOf(target) >= 0;
+    }
+
+    /**
+     * Rolls the game element back to the state recorded as the provided
+     * frame, by applying its keyframe and all frames after it up to the
+     * provided frame. All frames after the provided frame are dropped from the
+     * ring, so that they can be captured again while re-simulating.
+     *
+     * @param frame The frame to roll back to.
+     * @throws IllegalArgumentException If the frame or its keyframe is not in
+     * the ring.
+     * @throws UncheckedIOException If a component serializer fails.
+     */
+    public void restore(long frame) {
+        int target = this.indexOf(frame);
+        int keyframe = target >= 0 ? this.keyframeOf(target) : -1;
+        if (keyframe < 0) {
+            throw new IllegalArgumentException("Frame " + frame + " or its keyframe is not in the ring.");
+        }
+        for (int i = keyframe;; i = (i + 1) % this.slots.length) {
+            this.apply(this.slots[i]);
+            if (i == target) {
+                break;
+            }
+        }
+        this.size -= this.distance(target, this.newest);
+        this.newest = target;
+        this.keyframeRequired = true;
+    }
+
+    /**
+     * Removes all frames from the ring. The buffers are kept for reuse.
+     */
+    public void clear() {
+        this.size = 0;
+        this.newest = -1;
+        this.layout = null;
+        this.keyframeRequired = true;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Serializes the transforms and components of the current layout, and
+     * records where each of them starts.
+     */
+    private void serializeState() {
+        Entity[] entities = this.layout.entities;
+        ComponentBase[] components = this.layout.components;
+        int records = entities.length + components.length;
+        if (this.offsets.length < records + 1) {
+            this.offsets = new int[records + 1];
+        }
+        ByteBufferOutput output = this.state;
+        output.clear();
+        for (int i = 0; i < entities.length; i++) {
+            this.offsets[i] = output.position();
+            Transform transform = entities[i].getTransform();
+            Vector3f position = transform.getRelativePosition();
+            output.writeFloat(position.x);
+            output.writeFloat(position.y);
+            output.writeFloat(position.z);
+            Quaternion rotation = transform.getRelativeRotation();
+            output.writeFloat(rotation.x);
+            output.writeFloat(rotation.y);
+            output.writeFloat(rotation.z);
+            output.writeFloat(rotation.w);
+            Vector3f scale = transform.getRelativeScale();
+            output.writeFloat(scale.x);
+            output.writeFloat(scale.y);
+            output.writeFloat(scale.z);
+        }
+        try {
+            for (int i = 0; i < components.length; i++) {
+                this.offsets[entities.length + i] = output.position();
+                this.layout.serializers[i].write(components[i], output);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.offsets[records] = output.position();
+    }
+
+    /**
+     * Writes the records of the serialized state to a snapshot: the amount of
+     * records, followed by the index of every record, its length if it is a
+     * component, and its bytes.
+     *
+     * @param data The data of the snapshot.
+     * @param all True to write all records, false to only write the records
+     * that differ from the capture before.
+     */
+    private void writeRecords(ByteBufferOutput data, boolean all) {
+        int entityCount = this.layout.entities.length;
+        int records = entityCount + this.layout.components.length;
+        ByteBuffer current = this.state.getBuffer();
+        ByteBuffer view = current.duplicate();
+        int countPosition = data.position();
+        data.writeInt(0);
+        int written = 0;
+        for (int r = 0; r < records; r++) {
+            int start = this.offsets[r];
+            int end = this.offsets[r + 1];
+            if (!all && !this.changed(current, r)) {
+                continue;
+            }
+            data.writeInt(r);
+            if (r >= entityCount) {
+                data.writeInt(end - start);
+            }
+            view.limit(end);
+            view.position(start);
+            data.put(view);
+            written++;
+        }
+        data.putInt(countPosition, written);
+    }
+
+    /**
+     * Verifies whether the serialized state of a record differs from the
+     * capture before.
+     *
+     * @param current The buffer containing the serialized state.
+     * @param record The index of the record.
+     * @return True if the record has changed, false otherwise.
+     */
+    private boolean changed(ByteBuffer current, int record) {
+        int start = this.offsets[record];
+        int length = this.offsets[record + 1] - start;
+        int previousStart = this.previousOffsets[record];
+        if (this.previousOffsets[record + 1] - previousStart != length) {
+            return true;
+        }
+        ByteBuffer previous = this.previousState.getBuffer();
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            if (current.getLong(start + i) != previous.getLong(previousStart + i)) {
+                return true;
+            }
+        }
+        for (; i < length; i++) {
+            if (current.get(start + i) != previous.get(previousStart + i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Restores the records of a snapshot into the transforms and components
+     * of its layout. Records of destroyed entities and components are skipped.
+     *
+     * @param slot The snapshot.
+     */
+    private void apply(Slot slot) {
+        Layout slotLayout = slot.layout;
+        int entityCount = slotLayout.entities.length;
+        ByteBuffer view = slot.data.getBuffer().duplicate();
+        view.flip();
+        int records = view.getInt();
+        try {
+            for (int i = 0; i < records; i++) {
+                int r = view.getInt();
+                if (r < entityCount) {
+                    this.applyTransform(slotLayout.entities[r], view);
+                    continue;
+                }
+                int length = view.getInt();
+                int end = view.position() + length;
+                ComponentBase component = slotLayout.components[r - entityCount];
+                if (!component.isDestroyed()) {
+                    int limit = view.limit();
+                    view.limit(end);
+                    slotLayout.serializers[r - entityCount].readInto(component, view);
+                    if (view.position() != end) {
+                        throw new IllegalStateException("The serializer of " + component.getClass().getName() + " read less than was written.");
+                    }
+                    view.limit(limit);
+                }
+                view.position(end);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Restores the relative position, rotation and scale of an entity. Values
+     * that are already equal are left alone, so that restoring a keyframe
+     * does not mark every transform as changed.
+     *
+     * @param entity The entity.
+     * @param view The buffer positioned at the transform.
+     */
+    private void applyTransform(Entity entity, ByteBuffer view) {
+        if (entity.isDestroyed()) {
+            view.position(view.position() + 40);
+            return;
+        }
+        Transform transform = entity.getTransform();
+        this.vector.set(view.getFloat(), view.getFloat(), view.getFloat());
+        if (!equal(this.vector, transform.getRelativePosition())) {
+            transform.setRelativePosition(this.vector);
+        }
+        this.quaternion.set(view.getFloat(), view.getFloat(), view.getFloat(), view.getFloat());
+        Quaternion rotation = transform.getRelativeRotation();
+        if (this.quaternion.x != rotation.x || this.quaternion.y != rotation.y
+                || this.quaternion.z != rotation.z || this.quaternion.w != rotation.w) {
+            transform.setRelativeRotation(this.quaternion);
+        }
+        this.vector.set(view.getFloat(), view.getFloat(), view.getFloat());
+        if (!equal(this.vector, transform.getRelativeScale())) {
+            transform.setRelativeScale(this.vector);
+        }
+    }
+
+    /**
+     * Retrieves the index of the slot of the provided frame.
+     *
+     * @param frame The frame.
+     * @return The index of its slot, or -1 if it is not in the ring.
+     */
+    private int indexOf(long frame) {
+        for (int n = 0, i = this.newest; n < this.size; n++, i = (i - 1 + this.slots.length) % this.slots.length) {
+            if (this.slots[i].frame == frame) {
+                return i;
+            }
+            if (this.slots[i].frame < frame) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the index of the slot of the keyframe of the frame in the
+     * provided slot.
+     *
+     * @param target The index of the slot of the frame.
+     * @return The index of the slot of its keyframe, or -1 if it is no longer
+     * in the ring.
+     */
+    private int keyframeOf(int target) {
+        int steps = this.distance(this.oldest(), target);
+        for (int n = 0, i = target; n <= steps; n++, i = (i - 1 + this.slots.length) % this.slots.length) {
+            if (this.slots[i].keyframe) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Getter for the index of the slot of the oldest frame.
+     *
+     * @return The index of the oldest slot.
+     */
+    private int oldest() {
+        return (this.newest - this.size + 1 + this.slots.length) % this.slots.length;
+    }
+
+    /**
+     * Calculates how many slots the second slot comes after the first.
+     *
+     * @param from The index of the first slot.
+     * @param to The index of the second slot.
+     * @return The distance between the slots.
+     */
+    private int distance(int from, int to) {
+        return (to - from + this.slots.length) % this.slots.length;
+    }
+
+    /**
+     * Verifies whether two vectors have exactly the same components.
+     *
+     * @param a The first vector.
+     * @param b The second vector.
+     * @return True if the vectors are equal, false otherwise.
+     */
+    private static boolean equal(Vector3f a, Vector3f b) {
+        return a.x == b.x && a.y == b.y && a.z == b.z;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Slot">
+    /**
+     * A single snapshot in the ring.
+     */
+    private static class Slot {
+
+        private final ByteBufferOutput data = new ByteBufferOutput(INITIAL_BUFFER_CAPACITY);
+
+        private long frame;
+
+        private boolean keyframe;
+
+        private Layout layout;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Layout">
+    /**
+     * The entities and the components with a restorable serializer of a game
+     * element, in the order in which they are recorded.
+     */
+    private static class Layout {
+
+        private final int structureVersion;
+
+        private final Entity[] entities;
+
+        private final ComponentBase[] components;
+
+        private final RestorableComponentSerializer<ComponentBase>[] serializers;
+
+        @SuppressWarnings("unchecked")
+        Layout(GameElement gameElement, int structureVersion) {
+            this.structureVersion = structureVersion;
+            this.entities = gameElement.flattened().toArray(Entity[]::new);
+            List<ComponentBase> componentList = new ArrayList<>();
+            List<RestorableComponentSerializer<?>> serializerList = new ArrayList<>();
+            for (Entity entity : this.entities) {
+                Iterator<ComponentBase> iterator = entity.getAllComponents().iterator();
+                while (iterator.hasNext()) {
+                    ComponentBase component = iterator.next();
+                    ComponentSerializer<?> serializer = SceneFormat.getSerializer(component.getClass().getName());
+                    if (serializer instanceof RestorableComponentSerializer) {
+                        componentList.add(component);
+                        serializerList.add((RestorableComponentSerializer<?>) serializer);
+                    }
+                }
+            }
+            this.components = componentList.toArray(new ComponentBase[componentList.size()]);
+            this.serializers = serializerList.toArray(new RestorableComponentSerializer[serializerList.size()]);
+        }
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,281 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An instance of this class describes a unique set of component mappings. All
+ * entities that contain exactly this set of components share the same
+ * archetype, and are stored together in the same
+ * {@link blackengine.gameLogic.ArchetypeTable ArchetypeTable} of a
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore}.
+ *
+ * Archetypes are interned, so two archetypes describing the same set of
+ * component mappings are always the same instance.
+ *
+ * @author Blackened
+ */
+public final class Archetype {
+
+    //<editor-fold defaultstate="collapsed" desc="Interning">
+    /**
+     * All archetypes that have been created so far, mapped to their set of
+     * component mappings.
+     */
+    private static final Map<Set<Class<? extends ComponentBase>>, Archetype> ARCHETYPES = new ConcurrentHashMap<>();
+
+    /**
+     * The archetype of an entity without any components.
+     */
+    public static final Archetype EMPTY = intern(Collections.emptySet());
+
+    /**
+     * Retrieves the interned archetype for the provided set of component
+     * mappings, creating it if it did not exist yet.
+     *
+     * @param types The component mappings of the archetype.
+     * @return The archetype describing exactly the provided mappings.
+     */
+    private static Archetype intern(Set<Class<? extends ComponentBase>> types) {
+        return ARCHETYPES.computeIfAbsent(types, Archetype::new);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The component mappings of this archetype, sorted by class name. The index
+     * of a mapping in this array is the column of that mapping in every row of
+     * this archetype.
+     */
+    private final Class<? extends ComponentBase>[] types;
+
+    /**
+     * A bitset with a bit set for the
+     * {@link blackengine.gameLogic.ComponentType ComponentType} ID of every
+     * mapping of this archetype.
+     */
+    private final long[] signature;
+
+    /**
+     * The column of every mapping of this archetype, indexed by the ID of the
+     * mapping. IDs of mappings that are not part of this archetype map to -1.
+     */
+    private final int[] columns;
+
+    /**
+     * Cached transitions to the archetypes with one extra mapping.
+     */
+    private final Map<Class<? extends ComponentBase>, Archetype> additions = new ConcurrentHashMap<>();
+
+    /**
+     * Cached transitions to the archetypes with one mapping less.
+     */
+    private final Map<Class<? extends ComponentBase>, Archetype> removals = new ConcurrentHashMap<>();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    @SuppressWarnings("unchecked")
+    private Archetype(Set<Class<? extends ComponentBase>> types) {
+        this.types = types.toArray(new Class[types.size()]);
+        Arrays.sort(this.types, Comparator.comparing(Class::getName));
+
+        int maxId = -1;
+        for (Class<? extends ComponentBase> type : this.types) {
+            maxId = Math.max(maxId, ComponentType.idOf(type));
+        }
+        this.signature = new long[(maxId >> 6) + 1];
+        this.columns = new int[maxId + 1];
+        Arrays.fill(this.columns, -1);
+        for (int i = 0; i < this.types.length; i++) {
+            int id = ComponentType.idOf(this.types[i]);
+            this.signature[id >> 6] |= 1L << id;
+            this.columns[id] = i;
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Getter for the amount of component mappings in this archetype.
+     *
+     * @return The amount of columns in a row of this archetype.
+     */
+    public int getColumnCount() {
+        return this.types.length;
+    }
+
+    /**
+     * Getter for the component mapping stored in the specified column.
+     *
+     * @param column The column index.
+     * @return The component mapping of that column.
+     */
+    public Class<? extends ComponentBase> getType(int column) {
+        return this.types[column];
+    }
+
+    /**
+     * Retrieves the column in which components of the specified mapping are
+     * stored.
+     *
+     * @param type The component mapping.
+     * @return The column index, or -1 if this archetype does not contain the
+     * mapping.
+     */
+    public int columnOf(Class<?> type) {
+        return this.columnOf(ComponentType.findId(type));
+    }
+
+    /**
+     * Retrieves the column in which components of the mapping with the
+     * specified ID are stored.
+     *
+     * @param typeId The {@link blackengine.gameLogic.ComponentType ComponentType}
+     * ID of the component mapping.
+     * @return The column index, or -1 if this archetype does not contain the
+     * mapping.
+     */
+    public int columnOf(int typeId) {
+        return typeId >= 0 && typeId < this.columns.length ? this.columns[typeId] : -1;
+    }
+
+    /**
+     * Verifies whether this archetype contains the specified component
+     * mapping.
+     *
+     * @param type The component mapping.
+     * @return True if the mapping is part of this archetype, false otherwise.
+     */
+    public boolean contains(Class<?> type) {
+        return this.contains(ComponentType.findId(type));
+    }
+
+    /**
+     * Verifies whether this archetype contains the mapping with the specified
+     * ID, by testing a single bit of its signature.
+     *
+     * @param typeId The {@link blackengine.gameLogic.ComponentType ComponentType}
+     * ID of the component mapping.
+     * @return True if the mapping is part of this archetype, false otherwise.
+     */
+    public boolean contains(int typeId) {
+        int word = typeId >> 6;
+        return typeId >= 0 && word < this.signature.length && (this.signature[word] & (1L << typeId)) != 0;
+    }
+
+    /**
+     * Verifies whether this archetype contains all mappings of another
+     * archetype.
+     *
+     * @param other The other archetype.
+     * @return True if every mapping of the other archetype is part of this
+     * archetype, false otherwise.
+     */
+    public boolean containsAll(Archetype other) {
+        if (other.signature.length > this.signature.length) {
+            for (int i = this.signature.length; i < other.signature.length; i++) {
+                if (other.signature[i] != 0) {
+                    return false;
+                }
+            }
+        }
+        for (int i = 0; i < Math.min(this.signature.length, other.signature.length); i++) {
+            if ((other.signature[i] & ~this.signature[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the archetype that contains all mappings of this archetype and
+     * the specified mapping.
+     *
+     * @param type The component mapping to add.
+     * @return The resulting archetype.
+     */
+    public Archetype with(Class<? extends ComponentBase> type) {
+        if (this.contains(type)) {
+            return this;
+        }
+        return this.additions.computeIfAbsent(type, x -> {
+            Set<Class<? extends ComponentBase>> set = new HashSet<>(Arrays.asList(this.types));
+            set.add(x);
+            return intern(set);
+        });
+    }
+
+    /**
+     * Retrieves the archetype that contains all mappings of this archetype
+     * except the specified mapping.
+     *
+     * @param type The component mapping to remove.
+     * @return The resulting archetype.
+     */
+    public Archetype without(Class<? extends ComponentBase> type) {
+        if (!this.contains(type)) {
+            return this;
+        }
+        return this.removals.computeIfAbsent(type, x -> {
+            Set<Class<? extends ComponentBase>> set = new HashSet<>(Arrays.asList(this.types));
+            set.remove(x);
+            return intern(set);
+        });
+    }
+
+    /**
+     * Copies a row of the provided archetype into a row of this archetype.
+     * Columns that are not part of the source archetype are left empty, and
+     * columns that are not part of this archetype are dropped.
+     *
+     * @param source The archetype of the source row.
+     * @param sourceRow The source row.
+     * @return A new row for this archetype.
+     */
+    ComponentBase[] convertRow(Archetype source, ComponentBase[] sourceRow) {
+        ComponentBase[] row = new ComponentBase[this.types.length];
+        for (int i = 0; i < source.types.length; i++) {
+            int column = this.columnOf(source.types[i]);
+            if (column >= 0) {
+                row[column] = sourceRow[i];
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "Archetype" + Arrays.toString(this.types);
+    }
+    //</editor-fold>
+
+}
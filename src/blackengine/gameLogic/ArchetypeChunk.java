@@ -0,0 +1,215 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+
+/**
+ * An instance of this class is a fixed size block of rows belonging to a single
+ * {@link blackengine.gameLogic.ArchetypeTable ArchetypeTable}. Every column of
+ * the archetype is stored in its own dense array, so iterating all components
+ * of a single mapping walks contiguous memory.
+ *
+ * @author Blackened
+ */
+public final class ArchetypeChunk {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The table this chunk belongs to.
+     */
+    private final ArchetypeTable table;
+
+    /**
+     * The entity owning each row.
+     */
+    private final Entity[] entities;
+
+    /**
+     * The component columns, indexed as [column][row].
+     */
+    private final ComponentBase[][] columns;
+
+    /**
+     * The amount of rows in use.
+     */
+    private int size = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the table this chunk belongs to.
+     *
+     * @return The table containing this chunk.
+     */
+    public ArchetypeTable getTable() {
+        return table;
+    }
+
+    /**
+     * Getter for the amount of rows in use.
+     *
+     * @return The amount of entities stored in this chunk.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the maximum amount of rows in this chunk.
+     *
+     * @return The capacity of this chunk.
+     */
+    public int capacity() {
+        return this.entities.length;
+    }
+
+    /**
+     * Verifies whether all rows of this chunk are in use.
+     *
+     * @return True if no more entities can be stored, false otherwise.
+     */
+    public boolean isFull() {
+        return this.size == this.entities.length;
+    }
+
+    /**
+     * Retrieves the entity stored in the specified row.
+     *
+     * @param row The row index.
+     * @return The entity owning the row.
+     */
+    public Entity getEntity(int row) {
+        return this.entities[row];
+    }
+
+    /**
+     * Retrieves the dense array of the specified column. Only the first
+     * {@link #size() size()} elements are in use.
+     *
+     * @param column The column index.
+     * @return The array containing the column.
+     */
+    public ComponentBase[] getColumn(int column) {
+        return this.columns[column];
+    }
+
+    /**
+     * Retrieves a single component.
+     *
+     * @param column The column index.
+     * @param row The row index.
+     * @return The component stored at the specified location.
+     */
+    public ComponentBase get(int column, int row) {
+        return this.columns[column][row];
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of ArchetypeChunk.
+     *
+     * @param table The table this chunk belongs to.
+     * @param capacity The amount of rows in this chunk.
+     */
+    ArchetypeChunk(ArchetypeTable table, int capacity) {
+        this.table = table;
+        this.entities = new Entity[capacity];
+        this.columns = new ComponentBase[table.getArchetype().getColumnCount()][capacity];
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Replaces a single component.
+     *
+     * @param column The column index.
+     * @param row The row index.
+     * @param component The new component.
+     */
+    void set(int column, int row, ComponentBase component) {
+        this.columns[column][row] = component;
+    }
+
+    /**
+     * Appends a row to this chunk and updates the location of the entity.
+     *
+     * @param entity The entity owning the row.
+     * @param components The components of the row, one per column.
+     */
+    void add(Entity entity, ComponentBase[] components) {
+        int row = this.size++;
+        this.entities[row] = entity;
+        for (int i = 0; i < components.length; i++) {
+            this.columns[i][row] = components[i];
+        }
+        entity.setLocation(this, row);
+    }
+
+    /**
+     * Copies a row of this chunk to a new array.
+     *
+     * @param row The row index.
+     * @return A new array containing one component per column.
+     */
+    ComponentBase[] copyRow(int row) {
+        ComponentBase[] components = new ComponentBase[this.columns.length];
+        for (int i = 0; i < this.columns.length; i++) {
+            components[i] = this.columns[i][row];
+        }
+        return components;
+    }
+
+    /**
+     * Removes the last row of this chunk.
+     */
+    void removeLast() {
+        int last = --this.size;
+        this.entities[last] = null;
+        for (ComponentBase[] column : this.columns) {
+            column[last] = null;
+        }
+    }
+
+    /**
+     * Overwrites a row with the last row of the provided chunk, and updates the
+     * location of the moved entity. The chunk must share the archetype of this
+     * chunk.
+     *
+     * @param row The row to overwrite.
+     * @param source The chunk of which the last row will be moved.
+     */
+    void fillFromLast(int row, ArchetypeChunk source) {
+        int last = source.size - 1;
+        Entity moved = source.entities[last];
+        this.entities[row] = moved;
+        for (int i = 0; i < this.columns.length; i++) {
+            this.columns[i][row] = source.columns[i][last];
+        }
+        moved.setLocation(this, row);
+    }
+    //</editor-fold>
+
+}
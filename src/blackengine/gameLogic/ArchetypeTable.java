@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An instance of this class contains the rows of all entities of a single
+ * {@link blackengine.gameLogic.Archetype Archetype} within a
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore}. The rows are
+ * divided over chunks of a fixed size. All chunks but the last one are always
+ * completely filled.
+ *
+ * @author Blackened
+ */
+public final class ArchetypeTable {
+
+    /**
+     * The amount of rows in a single chunk.
+     */
+    public static final int CHUNK_CAPACITY = 128;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The store containing this table.
+     */
+    private final ComponentStore store;
+
+    /**
+     * The archetype of all rows in this table.
+     */
+    private final Archetype archetype;
+
+    /**
+     * All chunks of this table.
+     */
+    private final List<ArchetypeChunk> chunks;
+
+    /**
+     * Empty chunks that have been reserved or emptied, which are reused before
+     * new chunks are allocated.
+     */
+    private final Deque<ArchetypeChunk> spareChunks = new ArrayDeque<>();
+
+    /**
+     * The amount of rows in this table.
+     */
+    private int size = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the store containing this table.
+     *
+     * @return The component store containing this table.
+     */
+    public ComponentStore getStore() {
+        return store;
+    }
+
+    /**
+     * Getter for the archetype of this table.
+     *
+     * @return The archetype of all rows in this table.
+     */
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    /**
+     * Getter for the amount of rows in this table.
+     *
+     * @return The amount of entities stored in this table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the amount of chunks in this table.
+     *
+     * @return The amount of chunks.
+     */
+    public int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Retrieves a chunk of this table.
+     *
+     * @param index The index of the chunk.
+     * @return The chunk at the specified index.
+     */
+    public ArchetypeChunk getChunk(int index) {
+        return this.chunks.get(index);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of ArchetypeTable.
+     *
+     * @param store The store containing this table.
+     * @param archetype The archetype of all rows in this table.
+     */
+    ArchetypeTable(ComponentStore store, Archetype archetype) {
+        this.store = store;
+        this.archetype = archetype;
+        this.chunks = new ArrayList<>();
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Appends a row to this table.
+     *
+     * @param entity The entity owning the row.
+     * @param components The components of the row, one per column.
+     */
+    void add(Entity entity, ComponentBase[] components) {
+        ArchetypeChunk last = this.chunks.isEmpty() ? null : this.chunks.get(this.chunks.size() - 1);
+        if (last == null || last.isFull()) {
+            last = this.spareChunks.isEmpty() ? new ArchetypeChunk(this, CHUNK_CAPACITY) : this.spareChunks.pop();
+            this.chunks.add(last);
+        }
+        last.add(entity, components);
+        this.size++;
+    }
+
+    /**
+     * Removes a row from this table by moving the very last row of this table
+     * into its place.
+     *
+     * @param chunk The chunk containing the row.
+     * @param row The row index.
+     * @return The components of the removed row.
+     */
+    ComponentBase[] remove(ArchetypeChunk chunk, int row) {
+        ComponentBase[] components = chunk.copyRow(row);
+        ArchetypeChunk last = this.chunks.get(this.chunks.size() - 1);
+        if (chunk != last || row != last.size() - 1) {
+            chunk.fillFromLast(row, last);
+        }
+        last.removeLast();
+        if (last.size() == 0 && this.chunks.size() > 1) {
+            this.spareChunks.push(this.chunks.remove(this.chunks.size() - 1));
+        }
+        this.size--;
+        return components;
+    }
+
+    /**
+     * Allocates enough spare chunks to add the specified amount of rows
+     * without allocating.
+     *
+     * @param count The amount of additional rows.
+     */
+    void reserve(int count) {
+        int capacity = this.chunks.size() * CHUNK_CAPACITY;
+        int required = this.size + count - capacity;
+        for (int i = this.spareChunks.size() * CHUNK_CAPACITY; i < required; i += CHUNK_CAPACITY) {
+            this.spareChunks.push(new ArchetypeChunk(this, CHUNK_CAPACITY));
+        }
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A source of time for the {@link blackengine.gameLogic.FrameTimer FrameTimer}.
+ * By default, the nanosecond timer of the JVM is used, but a headless
+ * application can provide its own clock, for example a
+ * {@link blackengine.gameLogic.ManualClock ManualClock} to simulate as fast as
+ * possible while every step still covers the same amount of time.
+ *
+ * @author Blackened
+ */
+@FunctionalInterface
+public interface Clock {
+
+    /**
+     * The clock using the nanosecond timer of the JVM.
+     */
+    public static final Clock SYSTEM = System::nanoTime;
+
+    /**
+     * Gets the current time in nanoseconds. Only the difference between two
+     * values is meaningful.
+     *
+     * @return The current time in nanoseconds.
+     */
+    public long nanoTime();
+
+    /**
+     * Waits until this clock has reached the specified time. By default, the
+     * calling thread is parked until then.
+     *
+     * @param nanoTime The time to wait for, in nanoseconds.
+     */
+    public default void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - this.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+}
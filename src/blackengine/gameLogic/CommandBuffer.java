@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An instance of this class records structural changes to the entities of a
+ * {@link blackengine.gameLogic.GameElement GameElement}, such as spawning and
+ * destroying entities, adding and removing components and changing parents.
+ * The changes are applied in one batch at the end of
+ * {@link blackengine.gameLogic.GameElement#update() GameElement.update()},
+ * after all components have been updated, so that no entity or component is
+ * added or removed while they are being iterated over.
+ *
+ * Commands can be recorded from any thread, including from components that are
+ * updated in parallel. They are applied in the order they were recorded.
+ *
+ * @author Blackened
+ */
+public class CommandBuffer {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The game element the commands are applied to.
+     */
+    private final GameElement gameElement;
+
+    /**
+     * The recorded commands that have not been applied yet.
+     */
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of CommandBuffer.
+     *
+     * @param gameElement The game element the commands are applied to.
+     */
+    CommandBuffer(GameElement gameElement) {
+        this.gameElement = gameElement;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Records adding an entity to the game element.
+     *
+     * @param entity The entity that will be added.
+     */
+    public void spawn(Entity entity) {
+        this.commands.add(() -> this.gameElement.addEntity(entity));
+    }
+
+    /**
+     * Records adding an entity as a child to another entity.
+     *
+     * @param parent The entity the child will be added to.
+     * @param child The entity that will be added.
+     */
+    public void spawn(Entity parent, Entity child) {
+        this.commands.add(() -> parent.addChild(child));
+    }
+
+    /**
+     * Records destroying an entity, along with all its components and
+     * children.
+     *
+     * @param entity The entity that will be destroyed.
+     */
+    public void destroy(Entity entity) {
+        this.commands.add(() -> {
+            if (!entity.isDestroyed()) {
+                entity.destroy();
+            }
+        });
+    }
+
+    /**
+     * Records adding a component to an entity.
+     *
+     * @param entity The entity the component will be added to.
+     * @param component The component that will be added.
+     */
+    public void addComponent(Entity entity, ComponentBase component) {
+        this.commands.add(() -> entity.addComponent(component));
+    }
+
+    /**
+     * Records destroying the component with the specified mapping of an
+     * entity.
+     *
+     * @param entity The entity containing the component.
+     * @param clazz The mapping of the component that will be destroyed.
+     */
+    public void destroyComponent(Entity entity, Class<? extends ComponentBase> clazz) {
+        this.commands.add(() -> entity.destroyComponent(clazz));
+    }
+
+    /**
+     * Records returning an instance of a prefab to the recycle pool of the
+     * prefab.
+     *
+     * @param entity The instance that will be recycled.
+     */
+    public void recycle(Entity entity) {
+        this.commands.add(() -> entity.getPrefab().recycle(entity));
+    }
+
+    /**
+     * Records moving an entity to a new parent within the game element.
+     *
+     * @param entity The entity that will be moved.
+     * @param parent The new parent of the entity, or null to move the entity
+     * to the top level of the game element.
+     */
+    public void reparent(Entity entity, Entity parent) {
+        this.commands.add(() -> {
+            if (entity.getParent() != null) {
+                entity.getParent().detachChild(entity.getName());
+            } else if (this.gameElement.getEntity(entity.getName()) == entity) {
+                this.gameElement.detachEntity(entity.getName());
+            }
+            if (parent != null) {
+                parent.addChild(entity);
+            } else {
+                this.gameElement.addEntity(entity);
+            }
+        });
+    }
+
+    /**
+     * Getter for the amount of commands that have not been applied yet.
+     *
+     * @return The amount of pending commands.
+     */
+    public int size() {
+        return this.commands.size();
+    }
+
+    /**
+     * Applies all recorded commands in the order they were recorded,
+     * including commands that are recorded while applying.
+     */
+    public void apply() {
+        Runnable command;
+        while ((command = this.commands.poll()) != null) {
+            command.run();
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Records tearing down an entity that was destroyed, along with all its
+     * components and children, and removing it from its parent or from the
+     * game element.
+     *
+     * @param entity The destroyed entity.
+     */
+    void removeDestroyed(Entity entity) {
+        this.commands.add(() -> {
+            Entity parent = entity.getParent();
+            if (parent != null) {
+                parent.removeDestroyedChild(entity);
+            } else {
+                this.gameElement.removeDestroyedEntity(entity);
+            }
+        });
+    }
+    //</editor-fold>
+
+}
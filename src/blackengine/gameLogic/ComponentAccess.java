@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An instance of this class declares which data the update methods of a
+ * component class read and write. It can be passed to
+ * {@link blackengine.gameLogic.LogicEngine#registerComponent(java.lang.Class, java.lang.Float, blackengine.gameLogic.ComponentAccess) registerComponent(Class, Float, ComponentAccess)},
+ * which allows the {@link blackengine.gameLogic.LogicEngine LogicEngine} to
+ * update component classes that do not conflict with each other at the same
+ * time when parallel updates are enabled.
+ *
+ * A component class always writes its own components. Any other class may be
+ * declared, including classes that are not components, such as
+ * {@link blackengine.gameLogic.Transform Transform}. Component classes that
+ * are registered without an access declaration conflict with all other
+ * classes, and will always be updated on their own.
+ *
+ * Any access to {@link blackengine.gameLogic.Transform Transform} counts as a
+ * write, even when it is only declared as a read: reading the absolute
+ * values of a transform resolves them, which writes the cached values of the
+ * transform and its ancestors. Classes accessing transforms therefore never
+ * share a stage, and their components are never updated in parallel with
+ * each other, even when the class is declared entity local.
+ *
+ * Components that are updated in parallel must not add or remove entities or
+ * components directly while they are being updated, but should record these
+ * changes in the {@link blackengine.gameLogic.CommandBuffer CommandBuffer} of
+ * their game element instead.
+ *
+ * @author Blackened
+ */
+public class ComponentAccess {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * All classes of which instances are read.
+     */
+    private final Set<Class<?>> reads = new HashSet<>();
+
+    /**
+     * All classes of which instances are written.
+     */
+    private final Set<Class<?>> writes = new HashSet<>();
+
+    /**
+     * Whether the update methods only touch data belonging to the parent
+     * entity of the component being updated.
+     */
+    private boolean entityLocal = false;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for all classes of which instances are read.
+     *
+     * @return An unmodifiable set of classes.
+     */
+    public Set<Class<?>> getReads() {
+        return Collections.unmodifiableSet(reads);
+    }
+
+    /**
+     * Getter for all classes of which instances are written.
+     *
+     * @return An unmodifiable set of classes.
+     */
+    public Set<Class<?>> getWrites() {
+        return Collections.unmodifiableSet(writes);
+    }
+
+    /**
+     * Getter for whether the update methods only touch data belonging to the
+     * parent entity of the component being updated.
+     *
+     * @return True if the components of the class can be updated in parallel
+     * with each other, false otherwise.
+     */
+    public boolean isEntityLocal() {
+        return entityLocal;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default protected constructor for creating a new instance of
+     * ComponentAccess. Use {@link #create() create()} instead.
+     */
+    protected ComponentAccess() {
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Declares classes of which instances are read.
+     *
+     * @param classes The classes that are read.
+     * @return this.
+     */
+    public ComponentAccess reads(Class<?>... classes) {
+        this.reads.addAll(Arrays.asList(classes));
+        return this;
+    }
+
+    /**
+     * Declares classes of which instances are written.
+     *
+     * @param classes The classes that are written.
+     * @return this.
+     */
+    public ComponentAccess writes(Class<?>... classes) {
+        this.writes.addAll(Arrays.asList(classes));
+        return this;
+    }
+
+    /**
+     * Declares that the update methods only touch data belonging to the parent
+     * entity of the component being updated, so that the components of the
+     * class may be updated in parallel with each other.
+     *
+     * @return this.
+     */
+    public ComponentAccess entityLocal() {
+        this.entityLocal = true;
+        return this;
+    }
+
+    /**
+     * Verifies whether a component class with this access conflicts with
+     * another component class. Reading a transform counts as writing it.
+     *
+     * @param ownClass The component class using this access.
+     * @param other The access of the other component class, or null if the
+     * other class did not declare its access.
+     * @param otherClass The other component class.
+     * @return True if the classes can not be updated at the same time, false
+     * otherwise.
+     */
+    public boolean conflictsWith(Class<?> ownClass, ComponentAccess other, Class<?> otherClass) {
+        if (other == null) {
+            return true;
+        }
+        return this.writesAny(ownClass, other.reads)
+                || this.writesAny(ownClass, other.writes)
+                || this.writesAny(ownClass, Collections.singleton(otherClass))
+                || other.writesAny(otherClass, this.reads);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Verifies whether the components of a class with this access may be
+     * updated in parallel with each other. This is the case when the class is
+     * entity local and does not access transforms, as resolving a transform
+     * writes the cached values of its ancestors, which are shared between
+     * entities.
+     *
+     * @return True if the components may be split over several tasks, false
+     * otherwise.
+     */
+    boolean isSplittable() {
+        return this.entityLocal && !this.accessesTransform();
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Verifies whether this access writes any of the provided classes.
+     *
+     * @param ownClass The component class using this access.
+     * @param classes The classes to check.
+     * @return True if any of the classes is written, false otherwise.
+     */
+    private boolean writesAny(Class<?> ownClass, Set<Class<?>> classes) {
+        if (classes.contains(ownClass)) {
+            return true;
+        }
+        for (Class<?> clazz : classes) {
+            if (this.writes.contains(clazz) || (clazz == Transform.class && this.accessesTransform())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifies whether this access declares transforms, either as read or as
+     * written.
+     *
+     * @return True if transforms are accessed, false otherwise.
+     */
+    private boolean accessesTransform() {
+        return this.reads.contains(Transform.class) || this.writes.contains(Transform.class);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Static Methods">
+    /**
+     * Creates a new access declaration without any reads or writes besides the
+     * component class itself.
+     *
+     * @return A new instance of ComponentAccess.
+     */
+    public static ComponentAccess create() {
+        return new ComponentAccess();
+    }
+    //</editor-fold>
+
+}
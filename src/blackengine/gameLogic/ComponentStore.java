@@ -0,0 +1,320 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An instance of this class stores the components of all entities of a single
+ * {@link blackengine.gameLogic.GameElement GameElement}. Entities with the same
+ * set of components are grouped in the same
+ * {@link blackengine.gameLogic.ArchetypeTable ArchetypeTable}, which allows all
+ * components of a single mapping to be iterated over dense arrays.
+ *
+ * @author Blackened
+ */
+public class ComponentStore {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * All tables in this store, mapped to their archetype.
+     */
+    private final Map<Archetype, ArchetypeTable> tables;
+
+    /**
+     * All tables in this store containing a mapping, mapped to that mapping.
+     */
+    @SuppressWarnings("unchecked")
+    private List<ArchetypeTable>[] tablesByType = new List[0];
+
+    /**
+     * The amount of entities in this store.
+     */
+    private int size = 0;
+
+    /**
+     * The version of the structure of this store.
+     */
+    private int structureVersion = 0;
+
+    /**
+     * The transforms of all entities in this store.
+     */
+    private final TransformHierarchy transformHierarchy = new TransformHierarchy();
+
+    /**
+     * All queries on this store, mapped to the archetype of their required
+     * mappings.
+     */
+    private final Map<Archetype, Query> queries = new HashMap<>();
+
+    /**
+     * The index of all entities in this store by their tag.
+     */
+    private final TagIndex tagIndex = new TagIndex();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the amount of entities in this store.
+     *
+     * @return The amount of entities stored.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the version of the structure of this store. The version
+     * changes whenever an entity is added to or removed from this store, or
+     * components are added to or removed from an entity in it.
+     *
+     * @return The current structure version.
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Getter for the hierarchy of the transforms of all entities in this
+     * store.
+     *
+     * @return The transform hierarchy.
+     */
+    public TransformHierarchy getTransformHierarchy() {
+        return transformHierarchy;
+    }
+
+    /**
+     * Getter for the index of all entities in this store by their tag.
+     *
+     * @return The tag index.
+     */
+    public TagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+    /**
+     * Retrieves all tables containing the specified component mapping.
+     *
+     * @param type The component mapping.
+     * @return An unmodifiable list of tables.
+     */
+    public List<ArchetypeTable> getTables(Class<? extends ComponentBase> type) {
+        List<ArchetypeTable> list = this.tablesOf(ComponentType.idOf(type));
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of ComponentStore.
+     */
+    public ComponentStore() {
+        this.tables = new HashMap<>();
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Retrieves the query matching all entities that contain at least the
+     * mappings of the provided archetype. The query is created the first time
+     * it is requested, and kept up to date from then on.
+     *
+     * @param required The archetype containing the required mappings.
+     * @return The query for those mappings.
+     */
+    public Query query(Archetype required) {
+        Query query = this.queries.get(required);
+        if (query == null) {
+            query = new Query(required);
+            for (ArchetypeTable table : this.tables.values()) {
+                query.match(table);
+            }
+            this.queries.put(required, query);
+        }
+        return query;
+    }
+
+    /**
+     * Reserves storage for the specified amount of additional entities of an
+     * archetype, so that adding them does not allocate any chunks.
+     *
+     * @param archetype The archetype of the entities.
+     * @param count The amount of additional entities.
+     */
+    public void reserve(Archetype archetype, int count) {
+        this.getTable(archetype).reserve(count);
+    }
+
+    /**
+     * Calls the provided action for every component of the specified mapping in
+     * this store, walking the dense columns of all matching tables.
+     *
+     * @param <T> The type of the components.
+     * @param type The component mapping.
+     * @param action The action to perform on each component.
+     */
+    public <T extends ComponentBase> void forEach(Class<T> type, Consumer<? super T> action) {
+        int typeId = ComponentType.idOf(type);
+        List<ArchetypeTable> list = this.tablesOf(typeId);
+        if (list == null) {
+            return;
+        }
+        for (int t = 0; t < list.size(); t++) {
+            ArchetypeTable table = list.get(t);
+            int column = table.getArchetype().columnOf(typeId);
+            for (int c = 0; c < table.getChunkCount(); c++) {
+                ArchetypeChunk chunk = table.getChunk(c);
+                ComponentBase[] components = chunk.getColumn(column);
+                for (int r = 0; r < chunk.size(); r++) {
+                    action.accept(type.cast(components[r]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the components of the specified mapping in this store.
+     *
+     * @param type The component mapping.
+     * @return The amount of components of that mapping.
+     */
+    public int count(Class<? extends ComponentBase> type) {
+        List<ArchetypeTable> list = this.tablesOf(ComponentType.idOf(type));
+        if (list == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int t = 0; t < list.size(); t++) {
+            count += list.get(t).size();
+        }
+        return count;
+    }
+
+    /**
+     * Copies all components of the specified mapping in this store into the
+     * provided array. The array must be able to hold
+     * {@link #count(java.lang.Class) count(type)} components.
+     *
+     * @param type The component mapping.
+     * @param target The array to copy the components into.
+     * @return The amount of components that were copied.
+     */
+    public int copyInto(Class<? extends ComponentBase> type, ComponentBase[] target) {
+        int typeId = ComponentType.idOf(type);
+        List<ArchetypeTable> list = this.tablesOf(typeId);
+        if (list == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int t = 0; t < list.size(); t++) {
+            ArchetypeTable table = list.get(t);
+            int column = table.getArchetype().columnOf(typeId);
+            for (int c = 0; c < table.getChunkCount(); c++) {
+                ArchetypeChunk chunk = table.getChunk(c);
+                System.arraycopy(chunk.getColumn(column), 0, target, count, chunk.size());
+                count += chunk.size();
+            }
+        }
+        return count;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Stores a row for the entity in the table of its archetype.
+     *
+     * @param entity The entity owning the row.
+     * @param components The components of the row, one per column of the
+     * archetype of the entity.
+     */
+    void add(Entity entity, ComponentBase[] components) {
+        this.getTable(entity.getArchetype()).add(entity, components);
+        this.size++;
+        this.structureVersion++;
+    }
+
+    /**
+     * Removes the row of the entity from this store.
+     *
+     * @param entity The entity of which the row will be removed.
+     * @return The components of the removed row.
+     */
+    ComponentBase[] remove(Entity entity) {
+        ArchetypeChunk chunk = entity.getChunk();
+        ComponentBase[] components = chunk.getTable().remove(chunk, entity.getRow());
+        this.size--;
+        this.structureVersion++;
+        return components;
+    }
+
+    /**
+     * Retrieves the table for the specified archetype, creating it if it did
+     * not exist yet.
+     *
+     * @param archetype The archetype of the table.
+     * @return The table for that archetype.
+     */
+    ArchetypeTable getTable(Archetype archetype) {
+        ArchetypeTable table = this.tables.get(archetype);
+        if (table == null) {
+            table = new ArchetypeTable(this, archetype);
+            this.tables.put(archetype, table);
+            for (int i = 0; i < archetype.getColumnCount(); i++) {
+                int typeId = ComponentType.idOf(archetype.getType(i));
+                if (typeId >= this.tablesByType.length) {
+                    this.tablesByType = Arrays.copyOf(this.tablesByType, Math.max(typeId + 1, this.tablesByType.length * 2));
+                }
+                if (this.tablesByType[typeId] == null) {
+                    this.tablesByType[typeId] = new ArrayList<>();
+                }
+                this.tablesByType[typeId].add(table);
+            }
+            for (Query query : this.queries.values()) {
+                query.match(table);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Retrieves all tables containing the mapping with the specified ID.
+     *
+     * @param typeId The ID of the component mapping.
+     * @return The list of tables, or null if no table contains the mapping.
+     */
+    private List<ArchetypeTable> tablesOf(int typeId) {
+        return typeId < this.tablesByType.length ? this.tablesByType[typeId] : null;
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense integer ID to every component mapping. IDs are assigned in
+ * the order in which mappings are first seen, which is usually when they are
+ * registered to the {@link blackengine.gameLogic.LogicEngine LogicEngine}, and
+ * never change afterwards. The IDs are used to index arrays instead of hashing
+ * classes, and as bit indices in the signature of an
+ * {@link blackengine.gameLogic.Archetype Archetype}.
+ *
+ * @author Blackened
+ */
+public final class ComponentType {
+
+    /**
+     * All mappings that have been assigned an ID, indexed by their ID.
+     */
+    private static final List<Class<?>> TYPES = new ArrayList<>();
+
+    /**
+     * The ID of every mapping that has been assigned one, used for lookups that
+     * must not assign an ID.
+     */
+    private static final Map<Class<?>, Integer> ASSIGNED = new ConcurrentHashMap<>();
+
+    /**
+     * The ID of every mapping, cached on the class itself.
+     */
+    private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return assign(type);
+        }
+    };
+
+    private ComponentType() {
+    }
+
+    /**
+     * Retrieves the ID of the specified mapping, assigning the next free ID if
+     * the mapping did not have one yet.
+     *
+     * @param type The component mapping.
+     * @return The ID of the mapping.
+     */
+    public static int idOf(Class<?> type) {
+        return IDS.get(type);
+    }
+
+    /**
+     * Retrieves the ID of the specified mapping without assigning one. Use
+     * this for read-only lookups with arbitrary classes, so that querying a
+     * mapping that was never registered does not permanently take up an ID.
+     *
+     * @param type The component mapping.
+     * @return The ID of the mapping, or -1 if the mapping has no ID yet.
+     */
+    public static int findId(Class<?> type) {
+        Integer id = ASSIGNED.get(type);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retrieves the mapping with the specified ID.
+     *
+     * @param id The ID of the mapping.
+     * @return The component mapping.
+     */
+    public static synchronized Class<?> typeOf(int id) {
+        return TYPES.get(id);
+    }
+
+    /**
+     * Getter for the amount of IDs assigned so far.
+     *
+     * @return The amount of component mappings that have an ID.
+     */
+    public static synchronized int count() {
+        return TYPES.size();
+    }
+
+    private static synchronized int assign(Class<?> type) {
+        int id = TYPES.indexOf(type);
+        if (id < 0) {
+            id = TYPES.size();
+            TYPES.add(type);
+            ASSIGNED.put(type, id);
+        }
+        return id;
+    }
+
+}
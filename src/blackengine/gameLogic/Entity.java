@@ -28,7 +28,6 @@ import blackengine.gameLogic.components.base.ComponentBase;
 import blackengine.gameLogic.exceptions.DuplicateComponentTypeException;
 import blackengine.gameLogic.exceptions.DuplicateEntityNameException;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -39,12 +38,25 @@ import org.lwjgl.util.vector.Vector3f;
  * An instance of this class represents an entity in 3D space. This entity can
  * consist of multiple other child entities and components for itself.
  *
+ * The components of an entity are not owned by the entity itself. While the
+ * entity is part of a {@link blackengine.gameLogic.GameElement GameElement},
+ * they are stored in a row of the
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore} of that game
+ * element, next to all other entities of the same
+ * {@link blackengine.gameLogic.Archetype Archetype}. While it is not, they are
+ * kept in a loose row until it is attached.
+ *
  * #Tested
  *
  * @author Blackened
  */
 public class Entity {
 
+    /**
+     * The loose row of an entity without components.
+     */
+    private static final ComponentBase[] NO_COMPONENTS = new ComponentBase[0];
+
     //<editor-fold defaultstate="collapsed" desc="Properties">
     private Tag tag;
 
@@ -79,14 +91,41 @@ public class Entity {
     private Transform transform;
 
     /**
-     * All components belonging to this entity, mapped to their mapping class.
+     * The archetype describing the component mappings of this entity.
      */
-    private final Map<Class<? extends ComponentBase>, ComponentBase> components;
+    private Archetype archetype = Archetype.EMPTY;
+
+    /**
+     * The store containing the components of this entity, or null if this
+     * entity is not part of a game element.
+     */
+    private ComponentStore store;
+
+    /**
+     * The chunk containing the components of this entity while it is stored.
+     */
+    private ArchetypeChunk chunk;
+
+    /**
+     * The row of this entity in its chunk while it is stored.
+     */
+    private int row;
+
+    /**
+     * The components of this entity while it is not stored, one per column of
+     * its archetype.
+     */
+    private ComponentBase[] looseComponents = NO_COMPONENTS;
 
     /**
      * A boolean representing whether this entity was activated or not.
      */
     private boolean active = false;
+
+    /**
+     * The prefab this entity was instantiated from, or null if it was not.
+     */
+    private Prefab prefab;
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Getters & Setters">
@@ -155,10 +194,16 @@ public class Entity {
         if (parent == null) {
             this.parent = null;
             this.transform.stopListening();
+            this.detachFromStore();
             return;
         }
         this.parent = parent;
         this.transform.listenTo(parent.getTransform());
+        if (parent.store != null) {
+            this.attachToStore(parent.store);
+        } else {
+            this.detachFromStore();
+        }
     }
 
     /**
@@ -170,6 +215,11 @@ public class Entity {
      */
     public void setGameElement(GameElement gameElement) {
         this.gameElement = gameElement;
+        if (gameElement != null) {
+            this.attachToStore(gameElement.getComponentStore());
+        } else {
+            this.detachFromStore();
+        }
     }
 
     public Tag getTag() {
@@ -177,12 +227,74 @@ public class Entity {
     }
 
     public void setTag(Tag tag) {
+        Tag previousTag = this.tag;
         this.tag = tag;
+        if (this.store != null) {
+            this.store.getTagIndex().retag(this, previousTag);
+        }
     }
 
     public boolean isActive() {
         return active;
     }
+
+    /**
+     * Getter for the archetype of this entity.
+     *
+     * @return The archetype describing the component mappings of this entity.
+     */
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    /**
+     * Getter for the chunk containing the components of this entity.
+     *
+     * @return The chunk containing the row of this entity, or null if this
+     * entity is not stored in a component store.
+     */
+    ArchetypeChunk getChunk() {
+        return chunk;
+    }
+
+    /**
+     * Getter for the row of this entity in its chunk.
+     *
+     * @return The row index.
+     */
+    int getRow() {
+        return row;
+    }
+
+    /**
+     * Getter for the prefab this entity was instantiated from.
+     *
+     * @return The prefab of this entity, or null if it was not instantiated
+     * from a prefab.
+     */
+    public Prefab getPrefab() {
+        return prefab;
+    }
+
+    /**
+     * Setter for the prefab this entity was instantiated from.
+     *
+     * @param prefab The prefab of this entity.
+     */
+    void setPrefab(Prefab prefab) {
+        this.prefab = prefab;
+    }
+
+    /**
+     * Setter for the location of this entity in a component store.
+     *
+     * @param chunk The chunk containing the row of this entity.
+     * @param row The row index.
+     */
+    void setLocation(ArchetypeChunk chunk, int row) {
+        this.chunk = chunk;
+        this.row = row;
+    }
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Constructors">
@@ -196,7 +308,6 @@ public class Entity {
      */
     public Entity(String name, Vector3f position, Vector3f rotation, Vector3f scale) {
         this.name = name;
-        this.components = new HashMap<>();
         this.children = new HashMap<>();
         this.tag = NONE;
         this.transform = new Transform(position, rotation, scale);
@@ -309,7 +420,7 @@ public class Entity {
     public void destroyChild(String name) {
         Entity child = this.getChild(name);
         if (child != null) {
-            child.destroy();
+            child.tearDown();
             this.removeChildrenFlaggedForDestruction();
         }
     }
@@ -324,7 +435,21 @@ public class Entity {
      * otherwise.
      */
     public boolean containsComponent(Class<? extends ComponentBase> clazz) {
-        return this.components.containsKey(clazz);
+        return this.archetype.contains(clazz);
+    }
+
+    /**
+     * Verifies whether a component with the specified mapping ID is present in
+     * this entity. This tests a single bit of the signature of the archetype of
+     * this entity.
+     *
+     * @param typeId The {@link blackengine.gameLogic.ComponentType ComponentType}
+     * ID of the component mapping.
+     * @return True if a component with that mapping is present, false
+     * otherwise.
+     */
+    public boolean containsComponent(int typeId) {
+        return this.archetype.contains(typeId);
     }
 
     /**
@@ -336,7 +461,21 @@ public class Entity {
      * @return A component from this entity of the specified class.
      */
     public <T extends ComponentBase> T getComponent(Class<T> clazz) {
-        return clazz.cast(this.components.get(clazz));
+        int column = this.archetype.columnOf(clazz);
+        return column >= 0 ? clazz.cast(this.componentAt(column)) : null;
+    }
+
+    /**
+     * Retrieves the component with the specified mapping ID if it is present
+     * in this entity.
+     *
+     * @param typeId The {@link blackengine.gameLogic.ComponentType ComponentType}
+     * ID of the component mapping.
+     * @return The component with that mapping, or null if none is present.
+     */
+    public ComponentBase getComponent(int typeId) {
+        int column = this.archetype.columnOf(typeId);
+        return column >= 0 ? this.componentAt(column) : null;
     }
 
     /**
@@ -346,7 +485,7 @@ public class Entity {
      * @return A collection of all the components.
      */
     public Stream<ComponentBase> getAllComponents() {
-        return this.components.values().stream();
+        return Arrays.stream(this.copyComponents());
     }
 
     /**
@@ -360,11 +499,14 @@ public class Entity {
      */
     public void addComponent(ComponentBase component) throws DuplicateComponentTypeException {
         if (component != null) {
-            if (this.containsComponent(component.getMapping())) {
+            if (this.archetype.contains(component.getTypeId())) {
                 throw new DuplicateComponentTypeException();
             } else {
                 component.setParent(this);
-                this.components.put(component.getMapping(), component);
+                Archetype target = this.archetype.with(component.getMapping());
+                ComponentBase[] row = target.convertRow(this.archetype, this.copyComponents());
+                row[target.columnOf(component.getTypeId())] = component;
+                this.moveTo(target, row);
                 if (this.active) {
                     component.activate();
                 }
@@ -373,6 +515,47 @@ public class Entity {
         }
     }
 
+    /**
+     * Adds all provided components to this entity at once, which moves the row
+     * of this entity to another archetype only once instead of once per
+     * component. If a component with the same mapping is already present, or
+     * two of the provided components have the same mapping, a new
+     * DuplicateComponentTypeException will be thrown and none of the
+     * components are added. If the entity is flagged active, the components
+     * will be activated as well.
+     *
+     * @param components The components to be added to this entity.
+     */
+    public void addComponents(ComponentBase... components) throws DuplicateComponentTypeException {
+        Archetype target = this.archetype;
+        for (ComponentBase component : components) {
+            if (component != null) {
+                if (target.contains(component.getTypeId())) {
+                    throw new DuplicateComponentTypeException();
+                }
+                target = target.with(component.getMapping());
+            }
+        }
+        if (target == this.archetype) {
+            return;
+        }
+        ComponentBase[] row = target.convertRow(this.archetype, this.copyComponents());
+        for (ComponentBase component : components) {
+            if (component != null) {
+                component.setParent(this);
+                row[target.columnOf(component.getTypeId())] = component;
+            }
+        }
+        this.moveTo(target, row);
+        if (this.active) {
+            for (ComponentBase component : components) {
+                if (component != null) {
+                    component.activate();
+                }
+            }
+        }
+    }
+
     /**
      * Detaches a component of the specified class from this entity if it is
      * present in this entity.
@@ -383,7 +566,7 @@ public class Entity {
      */
     public <T extends ComponentBase> T detachComponent(Class<T> clazz) {
         T component = this.getComponent(clazz);
-        this.components.remove(clazz);
+        this.removeComponent(clazz);
         component.setParent(null);
         return component;
     }
@@ -403,15 +586,19 @@ public class Entity {
     }
 
     /**
-     * Updates all children entities and components.
+     * Updates all children entities and components of this entity alone.
+     * Entities that are part of a game element are updated together with all
+     * other entities by
+     * {@link blackengine.gameLogic.GameElement#update() GameElement.update()}
+     * instead.
      */
     public void update() {
         Iterator<Class<? extends ComponentBase>> iter = LogicEngine.getInstance().getComponentIterator();
 
         while (iter.hasNext()) {
-            Class<? extends ComponentBase> componentClass = iter.next();
-            if (this.components.containsKey(componentClass)) {
-                this.components.get(componentClass).update();
+            int column = this.archetype.columnOf(iter.next());
+            if (column >= 0) {
+                this.componentAt(column).update();
             }
         }
 
@@ -431,11 +618,12 @@ public class Entity {
 
         while (iter.hasNext()) {
             Class<? extends ComponentBase> componentClass = iter.next();
-            if (this.components.containsKey(componentClass)) {
-                ComponentBase currentComponent = this.components.get(componentClass);
+            int column = this.archetype.columnOf(componentClass);
+            if (column >= 0) {
+                ComponentBase currentComponent = this.componentAt(column);
                 currentComponent.lateUpdate();
                 if (currentComponent.isDestroyed()) {
-                    this.components.remove(currentComponent.getMapping());
+                    this.removeComponent(componentClass);
                 }
             }
         }
@@ -447,30 +635,96 @@ public class Entity {
         this.removeChildrenFlaggedForDestruction();
     }
 
+    /**
+     * Removes a component that was flagged for destruction from this entity,
+     * if it is still the component stored for its mapping.
+     *
+     * @param component The destroyed component.
+     */
+    void removeDestroyedComponent(ComponentBase component) {
+        int column = this.archetype.columnOf(component.getTypeId());
+        if (column >= 0 && this.componentAt(column) == component) {
+            this.removeComponent(component.getMapping());
+        }
+    }
+
+    /**
+     * Sets all components of a new entity at once, without moving through the
+     * archetypes in between. The entity must not contain any components yet,
+     * and must not be stored.
+     *
+     * @param target The archetype of the components.
+     * @param components The components, one per column of the archetype.
+     */
+    void initializeComponents(Archetype target, ComponentBase[] components) {
+        for (ComponentBase component : components) {
+            component.setParent(this);
+        }
+        this.archetype = target;
+        this.looseComponents = components;
+    }
+
+    /**
+     * Destroys all components and children of this entity immediately and
+     * flags it for destruction, without recording any commands. The entity
+     * itself is not removed from its parent or game element.
+     */
+    void tearDown() {
+        this.destroyed = true;
+        this.children.values().forEach(x -> x.tearDown());
+        this.removeChildrenFlaggedForDestruction();
+        for (ComponentBase component : this.copyComponents()) {
+            component.destroy();
+        }
+        this.removeComponentsFlaggedForDestruction();
+        this.transform.destroy();
+    }
+
+    /**
+     * Tears down a child that was destroyed and removes it from this entity,
+     * if it is still a child of this entity.
+     *
+     * @param child The destroyed child.
+     */
+    void removeDestroyedChild(Entity child) {
+        if (this.children.get(child.getName()) == child) {
+            child.tearDown();
+            this.children.remove(child.getName());
+            child.detachFromStore();
+        }
+    }
+
     public void activate() {
         this.children.values().forEach(x -> x.activate());
-        this.components.values().forEach(x -> x.activate());
+        for (ComponentBase component : this.copyComponents()) {
+            component.activate();
+        }
         this.active = true;
     }
 
     public void deactivate() {
         this.children.values().forEach(x -> x.deactivate());
-        this.components.values().forEach(x -> x.deactivate());
+        for (ComponentBase component : this.copyComponents()) {
+            component.deactivate();
+        }
         this.active = false;
     }
 
     /**
-     * Destroys this entity and all its components and children and flags for
-     * destruction.
+     * Flags this entity for destruction. If this entity is part of a game
+     * element, destroying its components and children and removing it from its
+     * parent or game element is recorded in the command buffer of the game
+     * element, so that the entity stays in place until the buffer is applied.
+     * Otherwise this entity is torn down immediately.
      */
     public void destroy() {
-        this.children.values().forEach(x -> x.destroy());
-        this.removeChildrenFlaggedForDestruction();
-        this.components.values().forEach(x -> x.destroy());
-        this.removeComponentsFlaggedForDestruction();
-        this.transform.destroy();
-        this.destroyed = true;
-
+        GameElement element = this.getGameElement();
+        if (element == null) {
+            this.tearDown();
+        } else if (!this.destroyed) {
+            this.destroyed = true;
+            element.getCommandBuffer().removeDestroyed(this);
+        }
     }
     //</editor-fold>
 
@@ -479,14 +733,134 @@ public class Entity {
      * Removes all components from this entity that are flagged for destruction.
      */
     private void removeComponentsFlaggedForDestruction() {
-        this.components.entrySet().removeIf(x -> x.getValue().isDestroyed());
+        // Iterating backwards keeps the columns that are yet to be visited in place.
+        for (int column = this.archetype.getColumnCount() - 1; column >= 0; column--) {
+            if (this.componentAt(column).isDestroyed()) {
+                this.removeComponent(this.archetype.getType(column));
+            }
+        }
     }
 
     /**
      * Removes all children from this entity that are flagged for destruction.
      */
     private void removeChildrenFlaggedForDestruction() {
-        this.children.entrySet().removeIf(x -> x.getValue().isDestroyed());
+        this.children.entrySet().removeIf(x -> {
+            if (x.getValue().isDestroyed()) {
+                x.getValue().detachFromStore();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Retrieves the component in the specified column of the row of this
+     * entity.
+     *
+     * @param column The column index within the archetype of this entity.
+     * @return The component in that column.
+     */
+    private ComponentBase componentAt(int column) {
+        return this.chunk != null ? this.chunk.get(column, this.row) : this.looseComponents[column];
+    }
+
+    /**
+     * Copies the row of this entity to a new array.
+     *
+     * @return An array containing one component per column of the archetype of
+     * this entity.
+     */
+    private ComponentBase[] copyComponents() {
+        return this.chunk != null ? this.chunk.copyRow(this.row) : this.looseComponents.clone();
+    }
+
+    /**
+     * Removes the component with the specified mapping from the row of this
+     * entity.
+     *
+     * @param clazz The mapping of the component.
+     */
+    private void removeComponent(Class<? extends ComponentBase> clazz) {
+        Archetype target = this.archetype.without(clazz);
+        if (target != this.archetype) {
+            this.moveTo(target, target.convertRow(this.archetype, this.copyComponents()));
+        }
+    }
+
+    /**
+     * Changes the archetype of this entity, moving its row to the matching
+     * table if it is stored.
+     *
+     * @param target The new archetype.
+     * @param components The new row, one component per column of the new
+     * archetype.
+     */
+    private void moveTo(Archetype target, ComponentBase[] components) {
+        if (this.store != null) {
+            this.store.remove(this);
+            this.archetype = target;
+            this.store.add(this, components);
+        } else {
+            this.archetype = target;
+            this.looseComponents = components;
+        }
+    }
+
+    /**
+     * Moves the row of this entity and all its children into the provided
+     * store.
+     *
+     * @param componentStore The store to move to.
+     */
+    private void attachToStore(ComponentStore componentStore) {
+        if (this.store == componentStore) {
+            // The entity may have moved within the hierarchy of the store.
+            this.removeFromHierarchy();
+            this.addToHierarchy();
+            return;
+        }
+        this.detachFromStore();
+        this.store = componentStore;
+        this.store.add(this, this.looseComponents);
+        this.store.getTransformHierarchy().add(this.transform);
+        this.store.getTagIndex().add(this);
+        this.looseComponents = null;
+        this.children.values().forEach(x -> x.attachToStore(componentStore));
+    }
+
+    /**
+     * Moves the row of this entity and all its children out of their store into
+     * loose rows.
+     */
+    private void detachFromStore() {
+        if (this.store == null) {
+            return;
+        }
+        this.looseComponents = this.store.remove(this);
+        this.store.getTransformHierarchy().remove(this.transform);
+        this.store.getTagIndex().remove(this);
+        this.store = null;
+        this.chunk = null;
+        this.children.values().forEach(x -> x.detachFromStore());
+    }
+
+    /**
+     * Adds the transform of this entity and all its children to the transform
+     * hierarchy of their store, parents before children.
+     */
+    private void addToHierarchy() {
+        this.store.getTransformHierarchy().add(this.transform);
+        this.children.values().forEach(x -> x.addToHierarchy());
+    }
+
+    /**
+     * Removes the transform of this entity and all its children from the
+     * transform hierarchy of their store.
+     */
+    private void removeFromHierarchy() {
+        this.store.getTransformHierarchy().remove(this.transform);
+        this.children.values().forEach(x -> x.removeFromHierarchy());
     }
     //</editor-fold>
 
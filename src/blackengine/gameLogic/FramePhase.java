@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+/**
+ * The phases of a single iteration of the game loop, of which the
+ * {@link blackengine.gameLogic.FrameTimer FrameTimer} records the durations
+ * separately.
+ *
+ * @author Blackened
+ */
+public enum FramePhase {
+
+    /**
+     * Handling all keyboard and mouse input.
+     */
+    INPUT,
+    /**
+     * Updating the active scene.
+     */
+    SCENE_UPDATE,
+    /**
+     * Updating the active user interface.
+     */
+    UI_UPDATE,
+    /**
+     * Rendering all renderers.
+     */
+    RENDER,
+    /**
+     * Waiting for the frame rate cap and swapping the display buffers.
+     */
+    DISPLAY_SYNC,
+    /**
+     * Running all runnables dispatched to the end of the frame. When the logic
+     * runs on its own thread, this only covers the runnables run on the logic
+     * thread.
+     */
+    DISPATCH,
+    /**
+     * Running the runnables dispatched to the render thread, when the logic
+     * runs on its own thread. Otherwise these are part of {@link #DISPATCH}.
+     */
+    RENDER_DISPATCH
+
+}
@@ -23,15 +23,39 @@
  */
 package blackengine.gameLogic;
 
-import org.lwjgl.Sys;
+import blackengine.toolbox.profiling.RollingHistogram;
 
 /**
+ * An instance of this class measures the duration of every frame, and of every
+ * phase within a frame, using a {@link blackengine.gameLogic.Clock Clock}
+ * which is the nanosecond timer of the JVM by default. The most recent
+ * durations are kept in rolling histograms, from which percentiles can be
+ * read to spot hitches that an average frame rate would hide.
  *
  * @author Blackened
  */
 public class FrameTimer {
 
-    private long lastFrameTime;
+    /**
+     * The amount of most recent durations kept in each histogram.
+     */
+    public static final int HISTOGRAM_WINDOW = 1000;
+
+    /**
+     * The clock providing the time.
+     */
+    private Clock clock = Clock.SYSTEM;
+
+    /**
+     * The timer wheel counting milliseconds of this timer, or null if none
+     * counts them.
+     */
+    private TimerWheel timerWheel;
+
+    /**
+     * The time at which the last frame was registered, in nanoseconds.
+     */
+    private long lastFrameNanoTime;
 
     /**
      * Delta in seconds.
@@ -46,52 +70,235 @@ public class FrameTimer {
 
     private long watchPointStart;
 
+    /**
+     * The durations of the most recent frames in nanoseconds.
+     */
+    private final RollingHistogram frameTimes = new RollingHistogram(HISTOGRAM_WINDOW);
+
+    /**
+     * The durations of the most recent occurrences of every phase in
+     * nanoseconds, indexed by the ordinal of the phase.
+     */
+    private final RollingHistogram[] phaseTimes = new RollingHistogram[FramePhase.values().length];
+
+    /**
+     * The length of a fixed simulation step in seconds, or 0 if the simulation
+     * runs once per frame.
+     */
+    private float fixedDelta = 0;
+
+    /**
+     * How far rendering is in between the last two simulation steps.
+     */
+    private float interpolationAlpha = 1;
+
+    /**
+     * Getter for the clock providing the time.
+     *
+     * @return The clock of this timer.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Setter for the clock providing the time. As times of different clocks
+     * can not be compared, the next frame is measured from the moment the
+     * clock is set, and the timer wheel counting milliseconds of this timer is
+     * rebased onto the new clock, so that its tasks keep their remaining
+     * delay.
+     *
+     * @param clock The new clock.
+     */
+    public void setClock(Clock clock) {
+        long oldTime = this.getCurrentTime();
+        this.clock = clock;
+        this.lastFrameNanoTime = this.getNanoTime();
+        this.watchPointStart = this.lastFrameNanoTime;
+        this.frameCount = 0;
+        if (this.timerWheel != null) {
+            this.timerWheel.rebase(oldTime, this.getCurrentTime());
+        }
+    }
+
+    /**
+     * Setter for the timer wheel counting milliseconds of this timer, which is
+     * rebased whenever the clock is replaced.
+     *
+     * @param timerWheel The timer wheel, or null if none counts the
+     * milliseconds of this timer.
+     */
+    void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
     public long getLastFrameTime() {
-        return lastFrameTime;
+        return this.lastFrameNanoTime / 1000000;
+    }
+
+    /**
+     * Getter for the histogram of the durations of the most recent frames.
+     *
+     * @return The histogram of frame times in nanoseconds.
+     */
+    public RollingHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Getter for the histogram of the durations of the most recent
+     * occurrences of a phase of the game loop.
+     *
+     * @param phase The phase.
+     * @return The histogram of the phase times in nanoseconds.
+     */
+    public RollingHistogram getPhaseTimes(FramePhase phase) {
+        return this.phaseTimes[phase.ordinal()];
     }
 
+    /**
+     * Getter for the time covered by the current simulation step. This is the
+     * length of a fixed step when a fixed step is set, and the duration of the
+     * last frame otherwise.
+     *
+     * @return The delta in seconds.
+     */
     public float getDelta() {
+        return this.fixedDelta > 0 ? this.fixedDelta : this.delta;
+    }
+
+    /**
+     * Getter for the duration of the last frame, regardless of whether a fixed
+     * step is set.
+     *
+     * @return The frame delta in seconds.
+     */
+    public float getFrameDelta() {
         return delta;
     }
 
+    /**
+     * Getter for whether the simulation runs in fixed steps.
+     *
+     * @return True if a fixed step is set, false otherwise.
+     */
+    public boolean isFixedStep() {
+        return this.fixedDelta > 0;
+    }
+
+    /**
+     * Getter for the length of a fixed simulation step.
+     *
+     * @return The length of a step in seconds, or 0 if the simulation runs once
+     * per frame.
+     */
+    public float getFixedDelta() {
+        return fixedDelta;
+    }
+
+    /**
+     * Setter for the length of a fixed simulation step.
+     *
+     * @param fixedDelta The length of a step in seconds, or 0 to run the
+     * simulation once per frame.
+     */
+    public void setFixedDelta(float fixedDelta) {
+        this.fixedDelta = Math.max(0, fixedDelta);
+        if (this.fixedDelta == 0) {
+            this.interpolationAlpha = 1;
+        }
+    }
+
+    /**
+     * Getter for how far rendering is in between the last two simulation
+     * steps, which renderers pass to
+     * {@link blackengine.gameLogic.Transform#getInterpolatedWorldMatrix(float) Transform.getInterpolatedWorldMatrix(float)}.
+     *
+     * @return A value between 0, the state before the last step, and 1, the
+     * state after the last step. Always 1 if no fixed step is set.
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    /**
+     * Setter for how far rendering is in between the last two simulation
+     * steps.
+     *
+     * @param interpolationAlpha A value between 0 and 1.
+     */
+    public void setInterpolationAlpha(float interpolationAlpha) {
+        this.interpolationAlpha = Math.max(0, Math.min(1, interpolationAlpha));
+    }
+
     public float getFps() {
         return fps;
     }
 
     public FrameTimer() {
-        this.lastFrameTime = this.getCurrentTime();
-        this.watchPointStart = this.getCurrentTime();
+        this.lastFrameNanoTime = this.getNanoTime();
+        this.watchPointStart = this.lastFrameNanoTime;
         this.delta = 0;
         this.fps = 0;
         this.fpsResolution = 100;
+        for (int i = 0; i < this.phaseTimes.length; i++) {
+            this.phaseTimes[i] = new RollingHistogram(HISTOGRAM_WINDOW);
+        }
     }
 
     public void registerFrame() {
-        long currentFrameTime = this.getCurrentTime();
-        this.delta = (currentFrameTime - this.lastFrameTime) / 1000f;
-        this.lastFrameTime = currentFrameTime;
+        long currentFrameTime = this.getNanoTime();
+        long frameTime = currentFrameTime - this.lastFrameNanoTime;
+        this.delta = frameTime / 1e9f;
+        this.lastFrameNanoTime = currentFrameTime;
+        this.frameTimes.record(frameTime);
 
         this.calculateFps();
     }
 
+    /**
+     * Records the duration of a phase of the game loop, from the provided
+     * start until now. As the current time is returned, it can be passed as
+     * the start of the next phase.
+     *
+     * @param phase The phase that ended.
+     * @param start The time at which the phase started, in nanoseconds.
+     * @return The current time in nanoseconds.
+     */
+    public long recordPhase(FramePhase phase, long start) {
+        long now = this.getNanoTime();
+        this.phaseTimes[phase.ordinal()].record(now - start);
+        return now;
+    }
+
     /**
      * Gets the current time in milliseconds.
      *
      * @return The current time in milliseconds.
      */
     public final long getCurrentTime() {
-        return Sys.getTime() * 1000 / Sys.getTimerResolution();
+        return this.getNanoTime() / 1000000;
+    }
+
+    /**
+     * Gets the current time in nanoseconds. Only the difference between two
+     * values is meaningful.
+     *
+     * @return The current time in nanoseconds.
+     */
+    public final long getNanoTime() {
+        return this.clock.nanoTime();
     }
 
     private void calculateFps() {
         this.frameCount++;
 
         if (this.frameCount >= this.fpsResolution) {
-            long watchDelta = this.getCurrentTime() - this.watchPointStart;
-            float watchDeltaSeconds = watchDelta / 1000f;
-            this.fps = (int) (this.frameCount / watchDeltaSeconds);
+            long watchDelta = this.getNanoTime() - this.watchPointStart;
+            float watchDeltaSeconds = watchDelta / 1e9f;
+            this.fps = watchDelta > 0 ? (int) (this.frameCount / watchDeltaSeconds) : 0;
 
-            this.watchPointStart = this.lastFrameTime;
+            this.watchPointStart = this.lastFrameNanoTime;
             this.frameCount = 0;
         }
     }
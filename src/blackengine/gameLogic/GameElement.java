@@ -23,10 +23,12 @@
  */
 package blackengine.gameLogic;
 
+import blackengine.gameLogic.components.base.ComponentBase;
 import blackengine.gameLogic.exceptions.DuplicateEntityNameException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -52,6 +54,18 @@ public abstract class GameElement {
      */
     private Map<String, Entity> entities;
 
+    /**
+     * The store containing the components of all entities in this game element
+     * and their children.
+     */
+    private final ComponentStore componentStore;
+
+    /**
+     * The buffer recording structural changes to the entities in this game
+     * element, which are applied at the end of every update.
+     */
+    private final CommandBuffer commandBuffer;
+
     /**
      * Whether this instance is flagged for destruction or not.
      */
@@ -96,8 +110,57 @@ public abstract class GameElement {
         return active;
     }
 
-    public Stream<Entity> getEntitiesByTag(Tag tag) {
-        return this.entities.values().stream().filter(x -> x.getTag().equals(tag));
+    /**
+     * Retrieves all entities in this game element with the specified tag,
+     * including children at any depth. The entities are looked up in an index
+     * that is kept up to date as entities are added, removed or retagged.
+     *
+     * @param tag The tag of the entities.
+     * @return An unmodifiable set of entities, which reflects later changes to
+     * this game element.
+     */
+    public Set<Entity> getEntitiesByTag(Tag tag) {
+        return this.componentStore.getTagIndex().get(tag);
+    }
+
+    /**
+     * Getter for the component store of this game element.
+     *
+     * @return The store containing the components of all entities in this game
+     * element and their children.
+     */
+    public ComponentStore getComponentStore() {
+        return componentStore;
+    }
+
+    /**
+     * Getter for the command buffer of this game element. Structural changes
+     * recorded in this buffer during an update are applied after all
+     * components have been updated.
+     *
+     * @return The command buffer of this game element.
+     */
+    public CommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+
+    /**
+     * Retrieves a query matching all entities in this game element, including
+     * children at any depth, that contain a component of each of the required
+     * mappings. The query is live: it reflects all later changes to the
+     * entities in this game element. Requesting the same mappings again
+     * returns the same query.
+     *
+     * @param required The required component mappings.
+     * @return The query for those mappings.
+     */
+    @SafeVarargs
+    public final Query query(Class<? extends ComponentBase>... required) {
+        Archetype archetype = Archetype.EMPTY;
+        for (Class<? extends ComponentBase> type : required) {
+            archetype = archetype.with(type);
+        }
+        return this.componentStore.query(archetype);
     }
 
     public Stream<Entity> getAllEntities() {
@@ -135,6 +198,8 @@ public abstract class GameElement {
     public GameElement(String name) {
         this.name = name;
         this.entities = new HashMap<>();
+        this.componentStore = new ComponentStore();
+        this.commandBuffer = new CommandBuffer(this);
     }
     //</editor-fold>
 
@@ -202,20 +267,32 @@ public abstract class GameElement {
      */
     public void destroyEntity(String name) {
         if (this.entities.containsKey(name)) {
-            this.entities.get(name).destroy();
+            this.entities.get(name).tearDown();
             this.removeEntitiesFlaggedForDestruction();
         }
     }
 
     /**
-     * Calls the update method for all entities present in this scene, and
-     * destroys all entities flagged for destruction.
+     * Updates all components of all entities present in this scene and their
+     * children, one registered component class at a time. Afterwards, all
+     * structural changes recorded in the command buffer are applied, which
+     * includes removing all entities that were destroyed, and the absolute
+     * values of all transforms that changed are resolved in a single pass.
+     *
+     * When the simulation runs in fixed steps, the absolute values of all
+     * transforms are first stored as their previous state, so that rendering
+     * can interpolate between the states before and after this update.
      */
     public void update() {
-        this.entities.values().forEach(x -> x.update());
-        this.entities.values().forEach(x -> x.lateUpdate());
+        if (LogicEngine.getInstance().getTimer().isFixedStep()) {
+            this.componentStore.getTransformHierarchy().storePreviousState();
+        }
+        LogicEngine.getInstance().update(this.componentStore);
+        LogicEngine.getInstance().lateUpdate(this.componentStore);
 
-        this.removeEntitiesFlaggedForDestruction();
+        this.commandBuffer.apply();
+
+        this.componentStore.getTransformHierarchy().resolve();
     }
 
     /**
@@ -239,13 +316,60 @@ public abstract class GameElement {
      * Destroys this scene and all its entities and flags for destruction.
      */
     public void destroy() {
-        this.entities.values().forEach(x -> x.destroy());
+        this.entities.values().forEach(x -> x.tearDown());
         this.removeEntitiesFlaggedForDestruction();
         this.gameManager = null;
         this.destroyed = true;
     }
     //</editor-fold>
 
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Tears down an entity that was destroyed and removes it from this game
+     * element, if it is still present.
+     *
+     * @param entity The destroyed entity.
+     */
+    void removeDestroyedEntity(Entity entity) {
+        if (this.entities.get(entity.getName()) == entity) {
+            entity.tearDown();
+            this.entities.remove(entity.getName());
+            entity.setGameElement(null);
+        }
+    }
+
+    /**
+     * Destroys the entities of this game element one after the other until
+     * the provided deadline has passed, and flags this game element for
+     * destruction once none are left. At least one entity is destroyed per
+     * call, so that tearing down a large game element can be spread over
+     * several frames.
+     *
+     * @param deadline The value of {@link System#nanoTime()} after which no
+     * more entities are destroyed.
+     * @return True if this game element has been destroyed, false if entities
+     * are left.
+     */
+    boolean destroyUntil(long deadline) {
+        Iterator<Entity> iterator = this.entities.values().iterator();
+        while (iterator.hasNext()) {
+            Entity entity = iterator.next();
+            entity.tearDown();
+            iterator.remove();
+            entity.setGameElement(null);
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        if (!this.entities.isEmpty()) {
+            return false;
+        }
+        this.gameManager = null;
+        this.destroyed = true;
+        return true;
+    }
+    //</editor-fold>
+
     //<editor-fold defaultstate="collapsed" desc="Private Methods">
     /**
      * Removes all entities from this scene that are flagged for destruction.
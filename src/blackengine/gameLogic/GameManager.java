@@ -23,6 +23,9 @@
  */
 package blackengine.gameLogic;
 
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
 /**
  * Engine singleton for managing game elements.
  * @author Blackened
@@ -33,6 +36,29 @@ public class GameManager {
 
     private GameElement activeUserInterface;
 
+    /**
+     * The default time in nanoseconds spent per update on destroying scenes
+     * that were swapped out.
+     */
+    public static final long DEFAULT_TEARDOWN_BUDGET = 2000000;
+
+    /**
+     * The scene being built in the background, which becomes the active scene
+     * once it has been built.
+     */
+    private SceneLoad sceneLoad;
+
+    /**
+     * The scenes that were swapped out and are destroyed a few entities at a
+     * time.
+     */
+    private final ArrayDeque<GameElement> retiredScenes = new ArrayDeque<>();
+
+    /**
+     * The time in nanoseconds spent per update on destroying retired scenes.
+     */
+    private long teardownBudget = DEFAULT_TEARDOWN_BUDGET;
+
     public GameElement getActiveScene() {
         return activeScene;
     }
@@ -48,6 +74,72 @@ public class GameManager {
         
     }
 
+    /**
+     * Starts building a scene in the background, while the active scene keeps
+     * being updated. The factory runs on the
+     * {@link LogicEngine#getAsyncExecutor() async executor}, and can load
+     * assets and construct entities, but must not activate the scene, and must
+     * leave anything touching OpenGL to the render thread. Once the factory
+     * has returned, the built scene replaces the active scene at the start of
+     * the next {@link #updateActiveScene() update}, so that it is updated and
+     * rendered from that frame on. The scene it replaces is deactivated right
+     * away, and destroyed over the following updates.
+     *
+     * If a scene was already being built, that load is cancelled.
+     *
+     * @param factory The factory building the scene.
+     * @return The handle of the load.
+     */
+    public SceneLoad preloadScene(Supplier<? extends GameElement> factory) {
+        if (this.sceneLoad != null) {
+            this.sceneLoad.cancel();
+        }
+        SceneLoad load = new SceneLoad(factory);
+        load.start(LogicEngine.getInstance().getAsyncExecutor());
+        this.sceneLoad = load;
+        return load;
+    }
+
+    /**
+     * Getter for the scene being built in the background.
+     *
+     * @return The handle of the load, or null if no scene is being built.
+     */
+    public SceneLoad getSceneLoad() {
+        return sceneLoad;
+    }
+
+    /**
+     * Getter for the amount of scenes that were swapped out and have not been
+     * destroyed completely yet.
+     *
+     * @return The amount of retired scenes.
+     */
+    public int getRetiredSceneCount() {
+        return this.retiredScenes.size();
+    }
+
+    /**
+     * Getter for the time spent per update on destroying scenes that were
+     * swapped out.
+     *
+     * @return The teardown budget in nanoseconds.
+     */
+    public long getTeardownBudget() {
+        return teardownBudget;
+    }
+
+    /**
+     * Setter for the time spent per update on destroying scenes that were
+     * swapped out. At least one entity is destroyed per update, regardless of
+     * the budget.
+     *
+     * @param teardownBudget The teardown budget in nanoseconds.
+     */
+    public void setTeardownBudget(long teardownBudget) {
+        this.teardownBudget = Math.max(0, teardownBudget);
+    }
+
     public GameElement getActiveUserInterface() {
         return activeUserInterface;
     }
@@ -70,6 +162,13 @@ public class GameManager {
     }
 
     public void destroyGameElements() {
+        if (this.sceneLoad != null) {
+            this.sceneLoad.cancel();
+            this.sceneLoad = null;
+        }
+        while (!this.retiredScenes.isEmpty()) {
+            this.retiredScenes.poll().destroy();
+        }
         if (this.activeScene != null) {
             this.activeScene.destroy();
         }
@@ -83,10 +182,20 @@ public class GameManager {
     public GameManager() {
     }
 
+    /**
+     * Updates the active scene. If a scene that was being built in the
+     * background is done, it is swapped in first. Afterwards, retired scenes
+     * are destroyed within the teardown budget.
+     *
+     * @throws RuntimeException If building the scene in the background has
+     * failed, with the failure as its cause.
+     */
     public void updateActiveScene() {
+        this.swapLoadedScene();
         if (this.activeScene != null) {
             this.activeScene.update();
         }
+        this.tearDownRetiredScenes();
     }
 
     public void updateActiveUI() {
@@ -95,4 +204,48 @@ public class GameManager {
         }
     }
 
+    /**
+     * Replaces the active scene with the scene that was built in the
+     * background, if it is done. The replaced scene is deactivated and
+     * retired.
+     */
+    private void swapLoadedScene() {
+        SceneLoad load = this.sceneLoad;
+        if (load != null && load.isCancelled()) {
+            this.sceneLoad = null;
+            return;
+        }
+        if (load == null || !load.isDone()) {
+            return;
+        }
+        this.sceneLoad = null;
+        if (load.getFailure() != null) {
+            throw new RuntimeException("Building a scene in the background has failed.", load.getFailure());
+        }
+        if (this.activeScene != null) {
+            this.activeScene.deactivate();
+            this.retiredScenes.add(this.activeScene);
+        }
+        this.activeScene = load.getScene();
+        this.activeScene.setGameManager(this);
+        this.activeScene.activate();
+    }
+
+    /**
+     * Destroys the entities of retired scenes until the teardown budget has
+     * been spent.
+     */
+    private void tearDownRetiredScenes() {
+        if (this.retiredScenes.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + this.teardownBudget;
+        while (!this.retiredScenes.isEmpty() && this.retiredScenes.peek().destroyUntil(deadline)) {
+            this.retiredScenes.poll();
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+    }
+
 }
@@ -25,11 +25,21 @@ package blackengine.gameLogic;
 
 import blackengine.gameLogic.components.base.ComponentBase;
 import blackengine.gameLogic.exceptions.LogicEngineNotCreatedException;
+import blackengine.toolbox.profiling.ProfiledCall;
+import blackengine.toolbox.profiling.UpdateProfiler;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Queue;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Contains all static settings for the component-entity system.
@@ -41,6 +51,12 @@ public class LogicEngine {
     //<editor-fold> defaultstate="collapsed" desc"Instance">
     private static LogicEngine INSTANCE;
 
+    /**
+     * The amount of tasks the default async executor queues before it rejects
+     * new ones.
+     */
+    private static final int ASYNC_QUEUE_CAPACITY = 1024;
+
     public static LogicEngine getInstance() {
         if (INSTANCE != null) {
             return INSTANCE;
@@ -49,6 +65,7 @@ public class LogicEngine {
     }
 
     private LogicEngine() {
+        this.timer.setTimerWheel(this.timerWheel);
     }
 
     protected static void create() {
@@ -56,12 +73,23 @@ public class LogicEngine {
     }
 
     protected void destroy() {
+        this.timerWheel.clear();
+        if (this.asyncExecutor != null && this.ownsAsyncExecutor) {
+            this.asyncExecutor.shutdownNow();
+        }
+        this.continuations.clear();
         INSTANCE = null;
     }
 
     //</editor-fold>
     private HashMap<Class<? extends ComponentBase>, Float> priorityMap = new HashMap<>();
 
+    /**
+     * The declared access of the registered component classes. Classes that
+     * are registered without access are updated exclusively.
+     */
+    private final HashMap<Class<? extends ComponentBase>, ComponentAccess> accessMap = new HashMap<>();
+
     private final SortedSet<Class<? extends ComponentBase>> COMPONENT_ORDER = new TreeSet<>(new Comparator<Class<? extends ComponentBase>>() {
 
         @Override
@@ -71,28 +99,338 @@ public class LogicEngine {
         }
     });
 
+    /**
+     * The registered component classes in order of their priority. This is a
+     * copy of the component order that is rebuilt whenever a component class
+     * is registered or unregistered.
+     */
+    @SuppressWarnings("unchecked")
+    private Class<? extends ComponentBase>[] updateOrder = new Class[0];
+
+    /**
+     * A reusable buffer holding the components of a single class while they are
+     * being updated.
+     */
+    private ComponentBase[] updateBuffer = new ComponentBase[64];
+
+    /**
+     * Whether component classes that do not conflict are updated in
+     * parallel.
+     */
+    private boolean parallelUpdateEnabled = false;
+
+    /**
+     * The scheduler used for parallel updates, which is created the first
+     * time parallel updates are enabled.
+     */
+    private UpdateScheduler scheduler;
+
     private FrameTimer timer = new FrameTimer();
 
+    /**
+     * The timer wheel in which behaviours wait until they are due, counting
+     * milliseconds of the frame timer.
+     */
+    private final TimerWheel timerWheel = new TimerWheel(this.timer.getCurrentTime());
+
+    /**
+     * The executor running the tasks of async behaviours, which is created the
+     * first time it is needed unless one was provided.
+     */
+    private ExecutorService asyncExecutor;
+
+    /**
+     * Whether the async executor was created by this logic engine, and has to
+     * be shut down with it.
+     */
+    private boolean ownsAsyncExecutor = false;
+
+    /**
+     * The continuations handed to the logic thread, in the order in which they
+     * were added.
+     */
+    private final Queue<Runnable> continuations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The maximum amount of continuations run per call to
+     * {@link #runContinuations() runContinuations()}.
+     */
+    private int continuationBudget = 256;
+
+    /**
+     * The profiler recording the time spent per component class.
+     */
+    private final UpdateProfiler profiler = UpdateProfiler.getInstance();
+
     public FrameTimer getTimer() {
         return timer;
     }
 
+    /**
+     * Getter for the timer wheel running tasks once the frame timer has passed
+     * their due time in milliseconds. The wheel is advanced at the start of
+     * every {@link #update(blackengine.gameLogic.ComponentStore) update}.
+     *
+     * @return The timer wheel of this logic engine.
+     */
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    /**
+     * Getter for the executor running the tasks of async behaviours. Unless
+     * another executor was set, this is a pool with a thread for every
+     * processor but one and a bounded queue, which rejects tasks when it is
+     * full.
+     *
+     * @return The async executor.
+     */
+    public synchronized ExecutorService getAsyncExecutor() {
+        if (this.asyncExecutor == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY), runnable -> {
+                        Thread thread = new Thread(runnable, "Async-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            this.asyncExecutor = executor;
+            this.ownsAsyncExecutor = true;
+        }
+        return this.asyncExecutor;
+    }
+
+    /**
+     * Setter for the executor running the tasks of async behaviours, such as
+     * an executor starting a virtual thread per task on a JVM that supports
+     * them. An executor that is set is not shut down with this logic engine.
+     *
+     * @param asyncExecutor The async executor, or null to use the default
+     * pool.
+     */
+    public synchronized void setAsyncExecutor(ExecutorService asyncExecutor) {
+        if (this.asyncExecutor != null && this.ownsAsyncExecutor) {
+            this.asyncExecutor.shutdown();
+        }
+        this.asyncExecutor = asyncExecutor;
+        this.ownsAsyncExecutor = false;
+    }
+
+    /**
+     * Getter for the maximum amount of continuations run per frame.
+     *
+     * @return The continuation budget.
+     */
+    public int getContinuationBudget() {
+        return continuationBudget;
+    }
+
+    /**
+     * Setter for the maximum amount of continuations run per frame.
+     * Continuations over the budget are left for the next frame, so that a
+     * burst of finished tasks can not stall a single frame.
+     *
+     * @param continuationBudget The continuation budget, at least 1.
+     */
+    public void setContinuationBudget(int continuationBudget) {
+        this.continuationBudget = Math.max(1, continuationBudget);
+    }
+
+    /**
+     * Hands a continuation to the logic thread, which runs it in the next call
+     * to {@link #runContinuations() runContinuations()} that has budget left.
+     * This may be called from any thread.
+     *
+     * @param continuation The continuation.
+     */
+    public void addContinuation(Runnable continuation) {
+        this.continuations.add(continuation);
+    }
+
+    /**
+     * Runs the continuations handed to the logic thread, in the order in which
+     * they were added, up to the continuation budget. The
+     * {@link blackengine.application.ApplicationManager ApplicationManager}
+     * calls this once per frame on the logic thread, after the runnables
+     * passed to its runLater method.
+     *
+     * @return The amount of continuations that were run.
+     */
+    public int runContinuations() {
+        int count = 0;
+        Runnable continuation;
+        while (count < this.continuationBudget && (continuation = this.continuations.poll()) != null) {
+            count++;
+            continuation.run();
+        }
+        return count;
+    }
+
     public HashMap<Class<? extends ComponentBase>, Float> getPriorityMap() {
         return this.priorityMap;
     }
 
+    /**
+     * Getter for whether component classes that do not conflict are updated
+     * in parallel.
+     *
+     * @return True if parallel updates are enabled, false otherwise.
+     */
+    public boolean isParallelUpdateEnabled() {
+        return parallelUpdateEnabled;
+    }
+
+    /**
+     * Setter for whether component classes that do not conflict are updated
+     * in parallel. When disabled, all components are updated on the calling
+     * thread in order of their priority.
+     *
+     * @param parallelUpdateEnabled True to enable parallel updates.
+     */
+    public void setParallelUpdateEnabled(boolean parallelUpdateEnabled) {
+        this.parallelUpdateEnabled = parallelUpdateEnabled;
+        if (parallelUpdateEnabled && this.scheduler == null) {
+            this.scheduler = new UpdateScheduler();
+            this.rebuildUpdateOrder();
+        }
+    }
+
     public void registerComponent(Class<? extends ComponentBase> clazz, Float priority) {
+        this.registerComponent(clazz, priority, null);
+    }
+
+    /**
+     * Registers a component class with the declared access of its update
+     * methods. When parallel updates are enabled, classes of which the access
+     * does not conflict are updated at the same time.
+     *
+     * @param clazz The component class.
+     * @param priority The priority of the component class.
+     * @param access The access of the update methods of the component class,
+     * or null if the class has to be updated exclusively.
+     */
+    public void registerComponent(Class<? extends ComponentBase> clazz, Float priority, ComponentAccess access) {
+        ComponentType.idOf(clazz);
+        if (priorityMap.containsKey(clazz)) {
+            COMPONENT_ORDER.remove(clazz);
+        }
         priorityMap.put(clazz, priority);
+        accessMap.put(clazz, access);
         COMPONENT_ORDER.add(clazz);
+        this.rebuildUpdateOrder();
     }
 
     public void unregisterComponent(Class<? extends ComponentBase> clazz) {
-        priorityMap.remove(clazz);
         COMPONENT_ORDER.remove(clazz);
+        priorityMap.remove(clazz);
+        accessMap.remove(clazz);
+        this.rebuildUpdateOrder();
     }
 
     public Iterator<Class<? extends ComponentBase>> getComponentIterator() {
         return COMPONENT_ORDER.iterator();
     }
 
+    /**
+     * Calls the {@link blackengine.gameLogic.components.base.ComponentBase#update() update()}
+     * method on all components in the provided store. Components are updated
+     * class by class, in order of the priority of their registered class.
+     * Components that are flagged for destruction are skipped. Before any
+     * component is updated, all tasks in the timer wheel that are due run.
+     *
+     * If the {@link blackengine.toolbox.profiling.UpdateProfiler UpdateProfiler}
+     * is enabled, the time spent per component class is recorded.
+     *
+     * @param store The store containing the components that will be updated.
+     */
+    public void update(ComponentStore store) {
+        this.timerWheel.advance(this.timer.getCurrentTime());
+        boolean profiling = this.profiler.isEnabled();
+        if (this.parallelUpdateEnabled) {
+            this.scheduler.update(store, false, profiling ? this.profiler : null);
+            return;
+        }
+        for (Class<? extends ComponentBase> componentClass : this.updateOrder) {
+            int count = this.collect(store, componentClass);
+            ComponentBase[] components = this.updateBuffer;
+            long start = profiling ? System.nanoTime() : 0;
+            for (int i = 0; i < count; i++) {
+                if (!components[i].isDestroyed()) {
+                    components[i].update();
+                }
+            }
+            if (profiling && count > 0) {
+                this.profiler.record(ProfiledCall.UPDATE, componentClass, count, System.nanoTime() - start);
+            }
+            Arrays.fill(components, 0, count, null);
+        }
+    }
+
+    /**
+     * Calls the {@link blackengine.gameLogic.components.base.ComponentBase#lateUpdate() lateUpdate()}
+     * method on all components in the provided store, in the same order as
+     * {@link #update(blackengine.gameLogic.ComponentStore) update(ComponentStore)}.
+     * Components that are flagged for destruction after their late update are
+     * removed from their entity.
+     *
+     * @param store The store containing the components that will be updated.
+     */
+    public void lateUpdate(ComponentStore store) {
+        boolean profiling = this.profiler.isEnabled();
+        if (this.parallelUpdateEnabled) {
+            this.scheduler.update(store, true, profiling ? this.profiler : null);
+            return;
+        }
+        for (Class<? extends ComponentBase> componentClass : this.updateOrder) {
+            int count = this.collect(store, componentClass);
+            ComponentBase[] components = this.updateBuffer;
+            long start = profiling ? System.nanoTime() : 0;
+            for (int i = 0; i < count; i++) {
+                ComponentBase component = components[i];
+                component.lateUpdate();
+                if (component.isDestroyed() && component.getParent() != null) {
+                    component.getParent().removeDestroyedComponent(component);
+                }
+            }
+            if (profiling && count > 0) {
+                this.profiler.record(ProfiledCall.LATE_UPDATE, componentClass, count, System.nanoTime() - start);
+            }
+            Arrays.fill(components, 0, count, null);
+        }
+    }
+
+    /**
+     * Copies all components of the specified class from the store into the
+     * update buffer, growing the buffer if necessary. Working on a copy allows
+     * components to be added or removed while the class is being updated.
+     *
+     * @param store The store containing the components.
+     * @param componentClass The registered component class.
+     * @return The amount of components in the update buffer.
+     */
+    private int collect(ComponentStore store, Class<? extends ComponentBase> componentClass) {
+        int count = store.count(componentClass);
+        if (count > this.updateBuffer.length) {
+            this.updateBuffer = new ComponentBase[Math.max(count, this.updateBuffer.length * 2)];
+        }
+        return store.copyInto(componentClass, this.updateBuffer);
+    }
+
+    /**
+     * Rebuilds the update order from the component order.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuildUpdateOrder() {
+        this.updateOrder = COMPONENT_ORDER.toArray(new Class[COMPONENT_ORDER.size()]);
+        if (this.scheduler != null) {
+            ComponentAccess[] access = new ComponentAccess[this.updateOrder.length];
+            for (int i = 0; i < access.length; i++) {
+                access[i] = this.accessMap.get(this.updateOrder[i]);
+            }
+            this.scheduler.setOrder(this.updateOrder, access);
+        }
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+/**
+ * A clock of which the time only moves when it is told to. Waiting for a time
+ * moves the clock straight to that time, so a headless application with a
+ * tick rate runs one step after the other without ever sleeping.
+ *
+ * @author Blackened
+ */
+public class ManualClock implements Clock {
+
+    /**
+     * The current time in nanoseconds.
+     */
+    private volatile long time;
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of ManualClock, starting
+     * at 0.
+     */
+    public ManualClock() {
+        this.time = 0;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    @Override
+    public long nanoTime() {
+        return this.time;
+    }
+
+    /**
+     * Moves this clock to the specified time, if it is later than the current
+     * time.
+     *
+     * @param nanoTime The time in nanoseconds.
+     */
+    @Override
+    public synchronized void sleepUntil(long nanoTime) {
+        if (nanoTime > this.time) {
+            this.time = nanoTime;
+        }
+    }
+
+    /**
+     * Moves this clock forward.
+     *
+     * @param nanos The amount of nanoseconds to move forward.
+     */
+    public synchronized void advance(long nanos) {
+        this.time += Math.max(0, nanos);
+    }
+    //</editor-fold>
+
+}
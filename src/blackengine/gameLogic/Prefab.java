@@ -0,0 +1,330 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import blackengine.gameLogic.exceptions.DuplicateComponentTypeException;
+import blackengine.gameLogic.exceptions.NotAPrefabInstanceException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * An instance of this class is a frozen template of an entity, its components
+ * and its children, from which any amount of entities can be instantiated at
+ * once. Instantiating reserves storage for all instances in the
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore} up front, and
+ * activates them together after all of them were added.
+ *
+ * Instances that are no longer needed can be returned to the recycle pool of
+ * their prefab using {@link #recycle(blackengine.gameLogic.Entity) recycle(Entity)},
+ * from which they are reused by later instantiations. Components are notified
+ * of this through
+ * {@link blackengine.gameLogic.components.base.ComponentBase#onRecycle() onRecycle()}.
+ *
+ * An instance of this class can be created using
+ * {@link #as(java.lang.String) Prefab.as(String)}.
+ *
+ * @author Blackened
+ */
+public class Prefab {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The name of the instances. Top-level instances get a unique suffix.
+     */
+    private final String name;
+
+    private final Vector3f position;
+
+    private final Vector3f rotation;
+
+    private final Vector3f scale;
+
+    private final Tag tag;
+
+    /**
+     * The factories creating the components of every instance.
+     */
+    private final List<Supplier<? extends ComponentBase>> components;
+
+    /**
+     * The prefabs of the children of every instance.
+     */
+    private final List<Prefab> children;
+
+    /**
+     * The archetype of the instances, which is known after the first
+     * instance was created.
+     */
+    private Archetype archetype;
+
+    /**
+     * The instances that have been recycled and can be reused.
+     */
+    private final Deque<Entity> pool = new ArrayDeque<>();
+
+    /**
+     * The amount of top-level instances created so far.
+     */
+    private long instanceCount = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the name of this prefab.
+     *
+     * @return The name of the instances of this prefab.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the prefabs of the children of the instances.
+     *
+     * @return An unmodifiable list of prefabs.
+     */
+    public List<Prefab> getChildren() {
+        return Collections.unmodifiableList(this.children);
+    }
+
+    /**
+     * Getter for the amount of recycled instances that can be reused.
+     *
+     * @return The size of the recycle pool.
+     */
+    public int getPoolSize() {
+        return this.pool.size();
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of Prefab.
+     *
+     * @param name The name of the instances.
+     * @param position The position of the instances.
+     * @param rotation The Euler rotation of the instances.
+     * @param scale The scale of the instances.
+     * @param tag The tag of the instances.
+     * @param components The factories creating the components of every
+     * instance.
+     * @param children The prefabs of the children of every instance.
+     */
+    protected Prefab(String name, Vector3f position, Vector3f rotation, Vector3f scale, Tag tag,
+            List<Supplier<? extends ComponentBase>> components, List<Prefab> children) {
+        this.name = name;
+        this.position = new Vector3f(position);
+        this.rotation = new Vector3f(rotation);
+        this.scale = new Vector3f(scale);
+        this.tag = tag;
+        this.components = new ArrayList<>(components);
+        this.children = new ArrayList<>(children);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Instantiates a single entity from this prefab and activates it, without
+     * adding it to a game element.
+     *
+     * @return The new instance.
+     */
+    public Entity instantiate() {
+        Entity entity = this.obtain();
+        entity.activate();
+        return entity;
+    }
+
+    /**
+     * Instantiates a single entity from this prefab, adds it to the game
+     * element and activates it.
+     *
+     * @param gameElement The game element the instance is added to.
+     * @return The new instance.
+     */
+    public Entity instantiate(GameElement gameElement) {
+        return this.instantiate(1, gameElement).get(0);
+    }
+
+    /**
+     * Instantiates the specified amount of entities from this prefab, adds
+     * them to the game element and activates them. Storage for all instances
+     * is reserved before the first one is added, and the instances are only
+     * activated after all of them have been added.
+     *
+     * @param count The amount of instances.
+     * @param gameElement The game element the instances are added to.
+     * @return A list containing the new instances.
+     */
+    public List<Entity> instantiate(int count, GameElement gameElement) {
+        List<Entity> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(this.obtain());
+            if (i == 0) {
+                this.reserve(gameElement.getComponentStore(), count);
+            }
+        }
+        for (Entity instance : instances) {
+            gameElement.addEntity(instance);
+        }
+        for (Entity instance : instances) {
+            instance.activate();
+        }
+        return instances;
+    }
+
+    /**
+     * Returns an instance of this prefab to the recycle pool. The instance is
+     * deactivated, detached from its parent or game element, reset to the
+     * values of this prefab, and its components are notified through
+     * {@link blackengine.gameLogic.components.base.ComponentBase#onRecycle() onRecycle()}.
+     * Instances that were destroyed, or of which components were added or
+     * removed, are not reused.
+     *
+     * During an update, recycling should be recorded in the
+     * {@link blackengine.gameLogic.CommandBuffer CommandBuffer} instead.
+     *
+     * @param entity The instance to recycle.
+     */
+    public void recycle(Entity entity) {
+        if (entity.getPrefab() != this) {
+            throw new NotAPrefabInstanceException();
+        }
+        entity.deactivate();
+        if (entity.getParent() != null) {
+            entity.getParent().detachChild(entity.getName());
+        } else if (entity.getGameElement() != null) {
+            entity.getGameElement().detachEntity(entity.getName());
+        }
+        if (!entity.isDestroyed() && this.reset(entity)) {
+            this.pool.push(entity);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Takes an instance from the recycle pool, or creates a new one if the
+     * pool is empty.
+     *
+     * @return An instance that is not part of any game element.
+     */
+    private Entity obtain() {
+        Entity entity = this.pool.poll();
+        return entity != null ? entity : this.create(this.name + "#" + this.instanceCount++);
+    }
+
+    /**
+     * Creates a new instance and its children.
+     *
+     * @param instanceName The name of the instance.
+     * @return The new instance.
+     */
+    private Entity create(String instanceName) {
+        Entity entity = new Entity(instanceName, this.position, this.rotation, this.scale);
+        entity.setTag(this.tag);
+
+        ComponentBase[] created = new ComponentBase[this.components.size()];
+        Archetype target = Archetype.EMPTY;
+        for (int i = 0; i < created.length; i++) {
+            created[i] = this.components.get(i).get();
+            target = target.with(created[i].getMapping());
+        }
+        ComponentBase[] row = new ComponentBase[target.getColumnCount()];
+        for (ComponentBase component : created) {
+            int column = target.columnOf(component.getTypeId());
+            if (row[column] != null) {
+                throw new DuplicateComponentTypeException();
+            }
+            row[column] = component;
+        }
+        entity.initializeComponents(target, row);
+        entity.setPrefab(this);
+        this.archetype = target;
+
+        for (Prefab child : this.children) {
+            entity.addChild(child.create(child.name));
+        }
+        return entity;
+    }
+
+    /**
+     * Reserves storage for the specified amount of instances of this prefab
+     * and their children.
+     *
+     * @param store The store the instances will be added to.
+     * @param count The amount of instances.
+     */
+    private void reserve(ComponentStore store, int count) {
+        if (this.archetype != null) {
+            store.reserve(this.archetype, count);
+        }
+        this.children.forEach(x -> x.reserve(store, count));
+    }
+
+    /**
+     * Resets an instance and its children to the values of this prefab.
+     *
+     * @param entity The instance.
+     * @return True if the instance can be reused, false otherwise.
+     */
+    private boolean reset(Entity entity) {
+        if (entity.getArchetype() != this.archetype) {
+            return false;
+        }
+        entity.getTransform().setRelativePosition(this.position);
+        entity.getTransform().setRelativeEulerRotation(this.rotation);
+        entity.getTransform().setRelativeScale(this.scale);
+        entity.setTag(this.tag);
+        entity.getAllComponents().forEach(x -> x.onRecycle());
+        for (Prefab child : this.children) {
+            Entity instance = entity.getChild(child.name);
+            if (instance == null || instance.isDestroyed() || !child.reset(instance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Static Methods">
+    /**
+     * Creates a builder for a new prefab.
+     *
+     * @param name The name of the instances of the prefab.
+     * @return A new instance of
+     * {@link blackengine.gameLogic.PrefabBuilder PrefabBuilder}.
+     */
+    public static PrefabBuilder as(String name) {
+        return new PrefabBuilder(name);
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * A builder for creating an instance of
+ * {@link blackengine.gameLogic.Prefab Prefab}. An instance of this class can
+ * be obtained by calling
+ * {@link blackengine.gameLogic.Prefab#as(java.lang.String) Prefab.as(String)}.
+ *
+ * @author Blackened
+ */
+public class PrefabBuilder {
+
+    /**
+     * The name that will be passed to the prefab when built.
+     */
+    private final String name;
+
+    /**
+     * The position that will be passed to the prefab when built.
+     */
+    private final Vector3f position = new Vector3f();
+
+    /**
+     * The Euler rotation that will be passed to the prefab when built.
+     */
+    private final Vector3f rotation = new Vector3f();
+
+    /**
+     * The scale that will be passed to the prefab when built.
+     */
+    private final Vector3f scale = new Vector3f(1, 1, 1);
+
+    /**
+     * The tag that will be passed to the prefab when built.
+     */
+    private Tag tag = DefaultTag.NONE;
+
+    /**
+     * The component factories that will be passed to the prefab when built.
+     */
+    private final List<Supplier<? extends ComponentBase>> components = new ArrayList<>();
+
+    /**
+     * The child prefabs that will be passed to the prefab when built.
+     */
+    private final List<Prefab> children = new ArrayList<>();
+
+    /**
+     * Default protected constructor for creating a new instance of
+     * PrefabBuilder.
+     *
+     * @param name The name of the prefab when built.
+     */
+    protected PrefabBuilder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Specify the position of the instances. If not specified, the position
+     * will be 0.
+     *
+     * @param position The position relative to the parent of an instance.
+     * @return this.
+     */
+    public PrefabBuilder at(Vector3f position) {
+        this.position.set(position);
+        return this;
+    }
+
+    /**
+     * Specify the Euler rotation of the instances. If not specified, the
+     * rotation will be 0.
+     *
+     * @param rotation The Euler rotation in degrees.
+     * @return this.
+     */
+    public PrefabBuilder rotated(Vector3f rotation) {
+        this.rotation.set(rotation);
+        return this;
+    }
+
+    /**
+     * Specify the scale of the instances. If not specified, the scale will be
+     * 1.
+     *
+     * @param scale The scale.
+     * @return this.
+     */
+    public PrefabBuilder scaled(Vector3f scale) {
+        this.scale.set(scale);
+        return this;
+    }
+
+    /**
+     * Specify the tag of the instances.
+     *
+     * @param tag The tag.
+     * @return this.
+     */
+    public PrefabBuilder tagged(Tag tag) {
+        this.tag = tag;
+        return this;
+    }
+
+    /**
+     * Specify a component of the instances. The factory is called once for
+     * every instance, and should return a new, configured component every
+     * time.
+     *
+     * @param component The factory creating the component.
+     * @return this.
+     */
+    public PrefabBuilder with(Supplier<? extends ComponentBase> component) {
+        this.components.add(component);
+        return this;
+    }
+
+    /**
+     * Specify a child of the instances. The child is instantiated together
+     * with every instance, under the name of the child prefab.
+     *
+     * @param child The prefab of the child.
+     * @return this.
+     */
+    public PrefabBuilder withChild(Prefab child) {
+        this.children.add(child);
+        return this;
+    }
+
+    /**
+     * Builds the prefab given all previously called method parameters.
+     *
+     * @return A new instance of {@link blackengine.gameLogic.Prefab Prefab}.
+     */
+    public Prefab build() {
+        return new Prefab(this.name, this.position, this.rotation, this.scale, this.tag, this.components, this.children);
+    }
+
+}
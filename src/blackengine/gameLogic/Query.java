@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An instance of this class matches all entities in a
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore} that contain at
+ * least a required set of component mappings. A query keeps a list of all
+ * {@link blackengine.gameLogic.ArchetypeTable ArchetypeTables} whose
+ * archetype contains the required mappings, which is extended whenever the
+ * store creates a new table. Since entities move between tables as components
+ * are added or removed, and as they are attached or detached, iterating a
+ * query always visits exactly the entities that currently match.
+ *
+ * Queries are created and cached by
+ * {@link blackengine.gameLogic.GameElement#query(java.lang.Class...) GameElement.query(Class...)},
+ * so that repeating the same query does not cost anything to set up.
+ *
+ * @author Blackened
+ */
+public class Query {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The archetype containing exactly the required mappings.
+     */
+    private final Archetype required;
+
+    /**
+     * All tables of which the archetype contains the required mappings.
+     */
+    private final List<ArchetypeTable> tables = new ArrayList<>();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the archetype containing exactly the required mappings of
+     * this query.
+     *
+     * @return The required archetype.
+     */
+    public Archetype getRequired() {
+        return required;
+    }
+
+    /**
+     * Getter for the amount of tables matching this query.
+     *
+     * @return The amount of matching tables.
+     */
+    public int getTableCount() {
+        return this.tables.size();
+    }
+
+    /**
+     * Retrieves a table matching this query. Together with
+     * {@link #getTableCount() getTableCount()}, this allows iterating the
+     * chunks of all matching tables directly.
+     *
+     * @param index The index of the table.
+     * @return The matching table at the specified index.
+     */
+    public ArchetypeTable getTable(int index) {
+        return this.tables.get(index);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of Query.
+     *
+     * @param required The archetype containing exactly the required mappings.
+     */
+    Query(Archetype required) {
+        this.required = required;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Counts the entities matching this query.
+     *
+     * @return The amount of matching entities.
+     */
+    public int size() {
+        int size = 0;
+        for (int t = 0; t < this.tables.size(); t++) {
+            size += this.tables.get(t).size();
+        }
+        return size;
+    }
+
+    /**
+     * Calls the provided action for every entity matching this query.
+     *
+     * @param action The action to perform on each entity.
+     */
+    public void forEach(Consumer<? super Entity> action) {
+        for (int t = 0; t < this.tables.size(); t++) {
+            ArchetypeTable table = this.tables.get(t);
+            for (int c = 0; c < table.getChunkCount(); c++) {
+                ArchetypeChunk chunk = table.getChunk(c);
+                for (int r = 0; r < chunk.size(); r++) {
+                    action.accept(chunk.getEntity(r));
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the provided action for the component of the specified mapping of
+     * every entity matching this query.
+     *
+     * @param <T> The type of the components.
+     * @param type The component mapping, which must be one of the required
+     * mappings of this query.
+     * @param action The action to perform on each component.
+     */
+    public <T extends ComponentBase> void forEach(Class<T> type, Consumer<? super T> action) {
+        int typeId = ComponentType.idOf(type);
+        for (int t = 0; t < this.tables.size(); t++) {
+            ArchetypeTable table = this.tables.get(t);
+            int column = table.getArchetype().columnOf(typeId);
+            for (int c = 0; c < table.getChunkCount(); c++) {
+                ArchetypeChunk chunk = table.getChunk(c);
+                ComponentBase[] components = chunk.getColumn(column);
+                for (int r = 0; r < chunk.size(); r++) {
+                    action.accept(type.cast(components[r]));
+                }
+            }
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Adds the table to this query if its archetype contains the required
+     * mappings.
+     *
+     * @param table The table to match.
+     */
+    void match(ArchetypeTable table) {
+        if (table.getArchetype().containsAll(this.required)) {
+            this.tables.add(table);
+        }
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,190 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * An instance of this class is a handle to a game element that is being built
+ * in the background by
+ * {@link GameManager#preloadScene(java.util.function.Supplier) GameManager.preloadScene(Supplier)}.
+ * Once it has been built, the game manager swaps it in as the active scene at
+ * the start of its next update.
+ *
+ * @author Blackened
+ */
+public class SceneLoad {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The factory building the game element.
+     */
+    private final Supplier<? extends GameElement> factory;
+
+    /**
+     * The future of the task building the game element.
+     */
+    private Future<?> future;
+
+    /**
+     * The game element that was built, or null if it has not been built yet.
+     */
+    private volatile GameElement scene;
+
+    /**
+     * The exception thrown while building the game element, if any.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Whether the factory has returned or thrown, or this load has been
+     * cancelled.
+     */
+    private volatile boolean done = false;
+
+    /**
+     * Whether this load has been cancelled.
+     */
+    private volatile boolean cancelled = false;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of SceneLoad.
+     *
+     * @param factory The factory building the game element.
+     */
+    SceneLoad(Supplier<? extends GameElement> factory) {
+        this.factory = factory;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for whether the game element has been built, building it has
+     * failed, or this load has been cancelled.
+     *
+     * @return True if the factory has returned or thrown, or this load has
+     * been cancelled, false otherwise.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Getter for whether this load has been cancelled.
+     *
+     * @return True if this load has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Getter for the game element that was built.
+     *
+     * @return The game element, or null if it has not been built yet,
+     * building it has failed, or this load has been cancelled.
+     */
+    public GameElement getScene() {
+        return scene;
+    }
+
+    /**
+     * Getter for the exception thrown while building the game element.
+     *
+     * @return The exception, or null if none was thrown.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Cancels this load, interrupting the factory if it is still running. A
+     * game element that has already been built, or that the factory still
+     * returns afterwards, is destroyed instead of activated. This load is done
+     * right away, as the factory may never run at all.
+     */
+    public void cancel() {
+        GameElement built;
+        synchronized (this) {
+            this.cancelled = true;
+            built = this.scene;
+            this.scene = null;
+        }
+        if (this.future != null) {
+            this.future.cancel(true);
+        }
+        this.done = true;
+        if (built != null) {
+            built.destroy();
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Starts building the game element on the provided executor.
+     *
+     * @param executor The executor running the factory.
+     */
+    void start(ExecutorService executor) {
+        this.future = executor.submit(this::load);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Builds the game element, and records the result. If this load was
+     * cancelled while the factory ran, the game element is destroyed.
+     */
+    private void load() {
+        try {
+            GameElement element = this.factory.get();
+            if (element == null) {
+                throw new NullPointerException("The factory of a scene load returned null.");
+            }
+            boolean discard;
+            synchronized (this) {
+                discard = this.cancelled;
+                if (!discard) {
+                    this.scene = element;
+                }
+            }
+            if (discard) {
+                element.destroy();
+            }
+        } catch (Throwable ex) {
+            this.failure = ex;
+        } finally {
+            this.done = true;
+        }
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An instance of this class indexes all entities in a
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore} by their
+ * {@link blackengine.gameLogic.Tag Tag}. The index is kept up to date when
+ * entities join or leave the store and when their tag changes, so that
+ * looking up all entities with a tag does not require visiting any other
+ * entity.
+ *
+ * @author Blackened
+ */
+public class TagIndex {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * All indexed entities, mapped to their tag.
+     */
+    private final Map<Tag, Set<Entity>> entitiesByTag = new HashMap<>();
+
+    /**
+     * An unmodifiable view of every set of entities, mapped to their tag.
+     */
+    private final Map<Tag, Set<Entity>> views = new HashMap<>();
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Retrieves all indexed entities with the specified tag.
+     *
+     * @param tag The tag.
+     * @return An unmodifiable set of entities, which reflects later changes
+     * to the index.
+     */
+    public Set<Entity> get(Tag tag) {
+        Set<Entity> view = this.views.get(tag);
+        if (view == null) {
+            view = Collections.unmodifiableSet(this.getOrCreate(tag));
+            this.views.put(tag, view);
+        }
+        return view;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Adds an entity to this index under its current tag.
+     *
+     * @param entity The entity to add.
+     */
+    void add(Entity entity) {
+        this.getOrCreate(entity.getTag()).add(entity);
+    }
+
+    /**
+     * Removes an entity from this index.
+     *
+     * @param entity The entity to remove.
+     */
+    void remove(Entity entity) {
+        this.remove(entity, entity.getTag());
+    }
+
+    /**
+     * Moves an entity that has changed its tag to its new tag.
+     *
+     * @param entity The entity of which the tag changed.
+     * @param previousTag The tag the entity was indexed under.
+     */
+    void retag(Entity entity, Tag previousTag) {
+        this.remove(entity, previousTag);
+        this.add(entity);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    private void remove(Entity entity, Tag tag) {
+        Set<Entity> entities = this.entitiesByTag.get(tag);
+        if (entities != null) {
+            entities.remove(entity);
+        }
+    }
+
+    private Set<Entity> getOrCreate(Tag tag) {
+        Set<Entity> entities = this.entitiesByTag.get(tag);
+        if (entities == null) {
+            entities = new LinkedHashSet<>();
+            this.entitiesByTag.put(tag, entities);
+        }
+        return entities;
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,372 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An instance of this class runs tasks once a clock has passed their due
+ * time. Tasks are kept in a hierarchical timer wheel: the first level has a
+ * slot for each of the next 256 ticks, and every further level has 64 slots
+ * each covering a whole turn of the level below it. Scheduling and cancelling
+ * a task takes constant time, and advancing the clock only looks at the slots
+ * of the ticks that passed, so tasks that are not due yet cost nothing.
+ *
+ * A tick is a single unit of the time passed to
+ * {@link #advance(long) advance(long)}, which is a millisecond for the wheel of
+ * the {@link blackengine.gameLogic.LogicEngine LogicEngine}. All methods may
+ * be called from any thread.
+ *
+ * @author Blackened
+ */
+public class TimerWheel {
+
+    /**
+     * The amount of bits of a tick used to select a slot in the first level.
+     */
+    private static final int FIRST_LEVEL_BITS = 8;
+
+    /**
+     * The amount of bits of a tick used to select a slot in every further
+     * level.
+     */
+    private static final int LEVEL_BITS = 6;
+
+    /**
+     * The amount of levels.
+     */
+    private static final int LEVEL_COUNT = 4;
+
+    /**
+     * The amount of ticks covered by all levels together. Tasks that are due
+     * later are kept in the last slot of the last level, and moved closer each
+     * time that slot is reached.
+     */
+    private static final long MAX_DELTA = 1L << (FIRST_LEVEL_BITS + LEVEL_BITS * (LEVEL_COUNT - 1));
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The slots of every level.
+     */
+    private final Slot[][] levels = new Slot[LEVEL_COUNT][];
+
+    /**
+     * The next tick that will be processed.
+     */
+    private long currentTick;
+
+    /**
+     * The amount of scheduled tasks.
+     */
+    private int size = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the amount of tasks that are scheduled and have not run or
+     * been cancelled yet.
+     *
+     * @return The amount of scheduled tasks.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the next tick that will be processed.
+     *
+     * @return The tick after the last one passed to
+     * {@link #advance(long) advance(long)}.
+     */
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of TimerWheel.
+     *
+     * @param startTick The first tick that will be processed.
+     */
+    public TimerWheel(long startTick) {
+        this.currentTick = startTick;
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            this.levels[level] = new Slot[1 << (level == 0 ? FIRST_LEVEL_BITS : LEVEL_BITS)];
+            for (int i = 0; i < this.levels[level].length; i++) {
+                this.levels[level][i] = new Slot();
+            }
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Schedules a task to run once the wheel is advanced to or past its due
+     * tick. Tasks that are already due run on the next advance.
+     *
+     * @param dueTick The tick at which the task is due.
+     * @param task The task to run.
+     * @return The timeout, which can be used to cancel the task.
+     */
+    public synchronized Timeout schedule(long dueTick, Runnable task) {
+        Timeout timeout = new Timeout(Math.max(dueTick, this.currentTick), task);
+        this.place(timeout);
+        this.size++;
+        return timeout;
+    }
+
+    /**
+     * Runs all tasks that are due at or before the specified tick, in order
+     * of their due tick. Tasks that are scheduled while advancing run in the
+     * same advance if they are due.
+     *
+     * If no tasks are scheduled, the wheel jumps straight to the specified
+     * tick, which is allowed to be earlier than the current tick. To move the
+     * wheel while tasks are scheduled, use {@link #rebase(long, long) rebase(long, long)}.
+     *
+     * @param tick The tick to advance to.
+     */
+    public synchronized void advance(long tick) {
+        if (this.size == 0) {
+            this.currentTick = tick + 1;
+            return;
+        }
+        while (this.currentTick <= tick) {
+            if (this.size == 0) {
+                this.currentTick = tick + 1;
+                return;
+            }
+            this.cascade();
+            Slot slot = this.levels[0][(int) (this.currentTick & (this.levels[0].length - 1))];
+            Timeout timeout;
+            while ((timeout = slot.head) != null) {
+                timeout.unlink();
+                this.size--;
+                timeout.task.run();
+            }
+            this.currentTick++;
+        }
+    }
+
+    /**
+     * Moves the wheel and all scheduled tasks onto ticks counting from another
+     * origin, for example after the clock of the frame timer was replaced.
+     * The tick that was the current time on the old origin becomes the
+     * provided tick on the new one, so every task still has to wait the same
+     * amount of ticks from that moment on, and tasks that were already due
+     * stay due.
+     *
+     * @param oldTick The current time on the old origin.
+     * @param newTick The same moment on the new origin.
+     */
+    public synchronized void rebase(long oldTick, long newTick) {
+        long offset = newTick - oldTick;
+        List<Timeout> timeouts = new ArrayList<>(this.size);
+        for (Slot[] level : this.levels) {
+            for (Slot slot : level) {
+                while (slot.head != null) {
+                    timeouts.add(slot.head);
+                    slot.head.unlink();
+                }
+            }
+        }
+        this.currentTick += offset;
+        for (Timeout timeout : timeouts) {
+            timeout.dueTick += offset;
+            this.place(timeout);
+        }
+    }
+
+    /**
+     * Cancels all scheduled tasks.
+     */
+    public synchronized void clear() {
+        for (Slot[] level : this.levels) {
+            for (Slot slot : level) {
+                while (slot.head != null) {
+                    slot.head.unlink();
+                }
+            }
+        }
+        this.size = 0;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Puts a timeout in the slot of the lowest level that covers its due
+     * tick.
+     *
+     * @param timeout The timeout, which is not in any slot.
+     */
+    private void place(Timeout timeout) {
+        long delta = Math.min(timeout.dueTick - this.currentTick, MAX_DELTA - 1);
+        long tick = this.currentTick + delta;
+        int shift = 0;
+        int bits = FIRST_LEVEL_BITS;
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            if (delta < 1L << (shift + bits) || level == LEVEL_COUNT - 1) {
+                this.levels[level][(int) ((tick >>> shift) & ((1 << bits) - 1))].add(timeout);
+                return;
+            }
+            shift += bits;
+            bits = LEVEL_BITS;
+        }
+    }
+
+    /**
+     * At the start of every turn of a level, moves the timeouts in the slot
+     * of the level above that covers this turn down to where they belong now.
+     */
+    private void cascade() {
+        int shift = 0;
+        int bits = FIRST_LEVEL_BITS;
+        for (int level = 1; level < LEVEL_COUNT; level++) {
+            if ((this.currentTick & ((1L << (shift + bits)) - 1)) != 0) {
+                return;
+            }
+            shift += bits;
+            bits = LEVEL_BITS;
+            Slot slot = this.levels[level][(int) ((this.currentTick >>> shift) & ((1 << bits) - 1))];
+            Timeout timeout = slot.head;
+            slot.head = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.slot = null;
+                timeout.previous = null;
+                timeout.next = null;
+                this.place(timeout);
+                timeout = next;
+            }
+        }
+    }
+    //</editor-fold>
+
+    /**
+     * A task scheduled in a timer wheel.
+     */
+    public class Timeout {
+
+        /**
+         * The tick at which the task is due.
+         */
+        private long dueTick;
+
+        /**
+         * The task to run.
+         */
+        private final Runnable task;
+
+        /**
+         * The slot containing this timeout, or null if it is not scheduled.
+         */
+        private Slot slot;
+
+        private Timeout previous;
+
+        private Timeout next;
+
+        /**
+         * Getter for the tick at which the task is due.
+         *
+         * @return The due tick.
+         */
+        public long getDueTick() {
+            return dueTick;
+        }
+
+        /**
+         * Getter for whether the task is still waiting to run.
+         *
+         * @return True if the task has not run or been cancelled yet, false
+         * otherwise.
+         */
+        public boolean isScheduled() {
+            synchronized (TimerWheel.this) {
+                return this.slot != null;
+            }
+        }
+
+        private Timeout(long dueTick, Runnable task) {
+            this.dueTick = dueTick;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the task, if it has not run yet.
+         *
+         * @return True if the task was cancelled, false if it already ran or
+         * was cancelled before.
+         */
+        public boolean cancel() {
+            synchronized (TimerWheel.this) {
+                if (this.slot == null) {
+                    return false;
+                }
+                this.unlink();
+                size--;
+                return true;
+            }
+        }
+
+        /**
+         * Removes this timeout from its slot.
+         */
+        private void unlink() {
+            if (this.previous != null) {
+                this.previous.next = this.next;
+            } else {
+                this.slot.head = this.next;
+            }
+            if (this.next != null) {
+                this.next.previous = this.previous;
+            }
+            this.slot = null;
+            this.previous = null;
+            this.next = null;
+        }
+
+    }
+
+    /**
+     * A slot of a level, holding a linked list of timeouts.
+     */
+    private static class Slot {
+
+        private Timeout head;
+
+        private void add(Timeout timeout) {
+            timeout.slot = this;
+            timeout.next = this.head;
+            if (this.head != null) {
+                this.head.previous = timeout;
+            }
+            this.head = timeout;
+        }
+
+    }
+
+}
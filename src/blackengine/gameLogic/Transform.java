@@ -23,55 +23,368 @@
  */
 package blackengine.gameLogic;
 
-import blackengine.toolbox.math.VectorMath;
+import blackengine.rendering.SnapshotBuffer;
+import blackengine.toolbox.math.QuaternionMath;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.subjects.PublishSubject;
+import org.lwjgl.util.vector.Matrix3f;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Quaternion;
 import org.lwjgl.util.vector.Vector3f;
 
 /**
+ * An instance of this class holds the position, rotation and scale of an
+ * entity, both relative to its parent transform and absolute in the world.
+ *
+ * Only the relative values are stored when they change. The absolute values
+ * are recalculated lazily, the first time they are read after this transform
+ * or any of its parent transforms changed. This is tracked with version
+ * counters, so that moving a parent does not touch any of its children until
+ * their absolute values are actually needed.
+ *
+ * Rotations are stored as quaternions, and combined with the rotation of the
+ * parent transform by multiplication. The Euler rotation getters and setters
+ * convert from and to these quaternions. Euler rotations rotate around the x,
+ * y and z axis in that order, and an absolute Euler rotation may be returned
+ * as a different but equivalent set of angles than the one that was set.
+ *
+ * Listeners that need to be notified of every change can subscribe to the
+ * {@link #getObservable() observable}, which is only created on request.
  *
  * @author Blackened
  */
 public class Transform {
 
     private Transform parentTransform;
-    private final PublishSubject<Transform> transformSubject = PublishSubject.create();
+    private PublishSubject<Transform> transformSubject;
     private Disposable transformSubscription;
 
     // Both position vectors.
-    private Vector3f relativePosition;
-    private Vector3f absolutePosition;
+    private final Vector3f relativePosition = new Vector3f();
+    private final Vector3f absolutePosition = new Vector3f();
 
-    // Both rotation vectors.
-    private Vector3f relativeEulerRotation;
-    private Vector3f absoluteEulerRotation;
+    // Both rotations, and their Euler facades.
+    private final Quaternion relativeRotation = new Quaternion();
+    private final Quaternion absoluteRotation = new Quaternion();
+    private final Vector3f relativeEulerRotation = new Vector3f();
+    private final Vector3f absoluteEulerRotation = new Vector3f();
+
+    /**
+     * The rotation matrix of the absolute rotation.
+     */
+    private final Matrix3f absoluteRotationMatrix = new Matrix3f();
+
+    /**
+     * The version from which the absolute Euler rotation was last converted,
+     * or -1 if it has not been converted yet.
+     */
+    private int absoluteEulerVersion = -1;
+
+    /**
+     * A reusable quaternion for calculating relative rotations.
+     */
+    private final Quaternion inverseParentRotation = new Quaternion();
 
     // Both scale vectores.
-    private Vector3f relativeScale;
-    private Vector3f absoluteScale;
+    private final Vector3f relativeScale = new Vector3f();
+    private final Vector3f absoluteScale = new Vector3f();
+
+    /**
+     * Incremented whenever the relative values of this transform change.
+     */
+    private int localVersion;
+
+    /**
+     * Incremented whenever the absolute values of this transform are
+     * recalculated.
+     */
+    private int version;
+
+    /**
+     * The local version from which the absolute values were last calculated,
+     * or -1 if they have to be recalculated.
+     */
+    private int resolvedLocalVersion = -1;
+
+    /**
+     * The version of the parent transform from which the absolute values were
+     * last calculated.
+     */
+    private int resolvedParentVersion;
+
+    /**
+     * The parent transform from which the absolute values were last
+     * calculated.
+     */
+    private Transform resolvedParentTransform;
+
+    /**
+     * The hierarchy containing this transform, or null if it is not part of
+     * one.
+     */
+    TransformHierarchy hierarchy;
+
+    /**
+     * The depth of this transform within its hierarchy.
+     */
+    int hierarchyDepth;
+
+    /**
+     * The index of this transform within its level of the hierarchy.
+     */
+    int hierarchyIndex;
+
+    /**
+     * The local-to-world matrix built from the absolute values.
+     */
+    private final Matrix4f worldMatrix = new Matrix4f();
+
+    /**
+     * The version from which the world matrix was last built, or -1 if it has
+     * not been built yet.
+     */
+    private int worldMatrixVersion = -1;
+
+    /**
+     * The inverse of the world matrix, which is created on request.
+     */
+    private Matrix4f inverseWorldMatrix;
+
+    /**
+     * The version from which the inverse world matrix was last calculated.
+     */
+    private int inverseWorldMatrixVersion = -1;
+
+    /**
+     * The absolute position at the start of the last simulation step.
+     */
+    private final Vector3f previousPosition = new Vector3f();
+
+    /**
+     * The absolute rotation at the start of the last simulation step.
+     */
+    private final Quaternion previousRotation = new Quaternion();
+
+    /**
+     * The absolute scale at the start of the last simulation step.
+     */
+    private final Vector3f previousScale = new Vector3f();
+
+    /**
+     * The version of this transform when the previous state was stored, or -1
+     * if no previous state was stored yet.
+     */
+    private int previousVersion = -1;
+
+    /**
+     * The world matrix interpolated between the previous state and the current
+     * absolute values, which is created on request.
+     */
+    private Matrix4f interpolatedMatrix;
+
+    /**
+     * The interpolated absolute values used to build the interpolated matrix.
+     */
+    private Vector3f interpolatedPosition;
+    private Quaternion interpolatedRotation;
+    private Matrix3f interpolatedRotationMatrix;
+    private Vector3f interpolatedScale;
+
+    /**
+     * The world matrices stored for the render thread, one per slot of a
+     * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}, which are
+     * created on the first snapshot.
+     */
+    private Matrix4f[] snapshotMatrices;
+
+    /**
+     * The numbers of the logic frames of the stored world matrices.
+     */
+    private long[] snapshotFrames;
 
     //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for an observable that emits this transform whenever it or any of
+     * its parent transforms changes. The observable is created on the first
+     * call, after which this transform and its parent transforms will push
+     * every change to it.
+     *
+     * @return An observable of this transform.
+     */
     public Observable<Transform> getObservable() {
+        if (this.transformSubject == null) {
+            this.transformSubject = PublishSubject.create();
+            if (this.parentTransform != null) {
+                this.transformSubscription = this.subscribeToParentTransform();
+            }
+        }
         return this.transformSubject;
     }
 
+    /**
+     * Getter for the version of the absolute values of this transform. The
+     * version changes whenever the absolute values of this transform have
+     * changed, which can be used to cache values derived from them.
+     *
+     * @return The current version of this transform.
+     */
+    public int getVersion() {
+        this.resolve();
+        return this.version;
+    }
+
+    /**
+     * Getter for the local-to-world matrix of this transform, containing its
+     * absolute position, rotation and scale. The matrix is only rebuilt when
+     * this transform or any of its parent transforms changed since the last
+     * call. The returned instance is updated in place and should not be
+     * modified.
+     *
+     * @return The world matrix of this transform.
+     */
+    public Matrix4f getWorldMatrix() {
+        this.resolve();
+        if (this.worldMatrixVersion != this.version) {
+            this.buildWorldMatrix();
+            this.worldMatrixVersion = this.version;
+        }
+        return this.worldMatrix;
+    }
+
+    /**
+     * Getter for the inverse of the local-to-world matrix of this transform.
+     * The inverse is calculated on request, and only when the world matrix
+     * changed since the last call. The returned instance is updated in place
+     * and should not be modified.
+     *
+     * @return The inverse world matrix of this transform.
+     */
+    public Matrix4f getInverseWorldMatrix() {
+        Matrix4f matrix = this.getWorldMatrix();
+        if (this.inverseWorldMatrix == null) {
+            this.inverseWorldMatrix = new Matrix4f();
+        }
+        if (this.inverseWorldMatrixVersion != this.version) {
+            Matrix4f.invert(matrix, this.inverseWorldMatrix);
+            this.inverseWorldMatrixVersion = this.version;
+        }
+        return this.inverseWorldMatrix;
+    }
+
+    /**
+     * Getter for the world matrix of this transform interpolated between its
+     * absolute values at the start of the last simulation step and its current
+     * absolute values. This is used to render smoothly in between fixed
+     * simulation steps. If no previous state was stored, or nothing changed
+     * during the last step, the world matrix itself is returned. The returned
+     * instance is updated in place and should not be modified.
+     *
+     * @param alpha The interpolation factor, where 0 is the previous state and
+     * 1 the current state.
+     * @return The interpolated world matrix of this transform.
+     */
+    public Matrix4f getInterpolatedWorldMatrix(float alpha) {
+        Matrix4f matrix = this.getWorldMatrix();
+        if (alpha >= 1 || this.previousVersion == -1 || this.previousVersion == this.version) {
+            return matrix;
+        }
+        if (this.interpolatedMatrix == null) {
+            this.interpolatedMatrix = new Matrix4f();
+            this.interpolatedPosition = new Vector3f();
+            this.interpolatedRotation = new Quaternion();
+            this.interpolatedRotationMatrix = new Matrix3f();
+            this.interpolatedScale = new Vector3f();
+        }
+        lerp(this.previousPosition, this.absolutePosition, alpha, this.interpolatedPosition);
+        lerp(this.previousScale, this.absoluteScale, alpha, this.interpolatedScale);
+        QuaternionMath.nlerp(this.previousRotation, this.absoluteRotation, alpha, this.interpolatedRotation);
+        QuaternionMath.toRotationMatrix(this.interpolatedRotation, this.interpolatedRotationMatrix);
+        buildMatrix(this.interpolatedPosition, this.interpolatedRotationMatrix, this.interpolatedScale, this.interpolatedMatrix);
+        return this.interpolatedMatrix;
+    }
+
+    /**
+     * Getter for the world matrix stored for the render thread in a slot of a
+     * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}.
+     *
+     * @param slot The slot of the snapshot.
+     * @param frame The number of the logic frame of the snapshot.
+     * @return The stored world matrix, or null if this transform was not part
+     * of that frame.
+     */
+    public Matrix4f getSnapshotMatrix(int slot, long frame) {
+        long[] frames = this.snapshotFrames;
+        if (frames == null || frames[slot] != frame) {
+            return null;
+        }
+        return this.snapshotMatrices[slot];
+    }
+
+    /**
+     * Getter for the parent transform.
+     *
+     * @return The transform this transform is relative to, or null if it has
+     * no parent transform.
+     */
+    public Transform getParentTransform() {
+        return parentTransform;
+    }
+
     //<editor-fold defaultstate="collapsed" desc="Position">
     public Vector3f getRelativePosition() {
         return relativePosition;
     }
 
     public Vector3f getAbsolutePosition() {
+        this.resolve();
         return absolutePosition;
     }
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Rotation">
+    /**
+     * Getter for the rotation relative to the parent transform. The returned
+     * instance should not be modified.
+     *
+     * @return The relative rotation as a unit quaternion.
+     */
+    public Quaternion getRelativeRotation() {
+        return relativeRotation;
+    }
+
+    /**
+     * Getter for the absolute rotation. The returned instance is updated in
+     * place and should not be modified.
+     *
+     * @return The absolute rotation as a unit quaternion.
+     */
+    public Quaternion getAbsoluteRotation() {
+        this.resolve();
+        return absoluteRotation;
+    }
+
+    /**
+     * Getter for the rotation matrix of the absolute rotation. The returned
+     * instance is updated in place and should not be modified.
+     *
+     * @return The absolute rotation matrix.
+     */
+    public Matrix3f getAbsoluteRotationMatrix() {
+        this.resolve();
+        return absoluteRotationMatrix;
+    }
+
     public Vector3f getRelativeEulerRotation() {
         return relativeEulerRotation;
     }
 
     public Vector3f getAbsoluteEulerRotation() {
+        this.resolve();
+        if (this.absoluteEulerVersion != this.version) {
+            QuaternionMath.toEuler(this.absoluteRotationMatrix, this.absoluteEulerRotation);
+            this.absoluteEulerVersion = this.version;
+        }
         return absoluteEulerRotation;
     }
     //</editor-fold>
@@ -82,6 +395,7 @@ public class Transform {
     }
 
     public Vector3f getAbsoluteScale() {
+        this.resolve();
         return absoluteScale;
     }
     //</editor-fold>
@@ -96,13 +410,8 @@ public class Transform {
      * @param newRelativePosition
      */
     public void setRelativePosition(Vector3f newRelativePosition) {
-        this.relativePosition = new Vector3f(newRelativePosition);
-        if (this.parentTransform != null) {
-            this.absolutePosition = this.calculateAbsolutePosition(this.parentTransform.getAbsolutePosition(), this.parentTransform.getAbsoluteEulerRotation(), this.relativePosition);
-        } else {
-            this.absolutePosition = this.relativePosition;
-        }
-        this.transformSubject.onNext(this);
+        this.relativePosition.set(newRelativePosition);
+        this.changed();
     }
 
     /**
@@ -112,13 +421,12 @@ public class Transform {
      * @param newAbsolutePosition
      */
     public void setAbsolutePosition(Vector3f newAbsolutePosition) {
-        this.absolutePosition = new Vector3f(newAbsolutePosition);
         if (this.parentTransform != null) {
-            this.relativePosition = this.calculateRelativePosition(this.parentTransform.getAbsolutePosition(), this.parentTransform.getAbsoluteEulerRotation(), this.absolutePosition);
+            this.calculateRelativePosition(this.parentTransform, newAbsolutePosition);
         } else {
-            this.relativePosition = this.absolutePosition;
+            this.relativePosition.set(newAbsolutePosition);
         }
-        this.transformSubject.onNext(this);
+        this.changed();
     }
     //</editor-fold>
 
@@ -130,29 +438,54 @@ public class Transform {
      * @param newRelativeRotation
      */
     public void setRelativeEulerRotation(Vector3f newRelativeRotation) {
-        this.relativeEulerRotation = new Vector3f(newRelativeRotation);
+        this.relativeEulerRotation.set(newRelativeRotation);
+        QuaternionMath.fromEuler(this.relativeEulerRotation, this.relativeRotation);
+        this.changed();
+    }
+
+    /**
+     * Changes this transforms relative rotation, and therefore its absolute
+     * rotation.
+     *
+     * @param newRelativeRotation The new relative rotation as a quaternion.
+     */
+    public void setRelativeRotation(Quaternion newRelativeRotation) {
+        this.relativeRotation.set(newRelativeRotation);
+        this.relativeRotation.normalise();
+        this.updateRelativeEulerRotation();
+        this.changed();
+    }
+
+    /**
+     * Changes this transforms absolute rotation, and therefore its relative
+     * rotation.
+     *
+     * @param newAbsoluteRotation
+     */
+    public void setAbsoluteEulerRotation(Vector3f newAbsoluteRotation) {
         if (this.parentTransform != null) {
-            this.absoluteEulerRotation = this.calculateAbsoluteRotation(this.parentTransform.getAbsoluteEulerRotation(), this.relativeEulerRotation);
+            this.setAbsoluteRotation(QuaternionMath.fromEuler(newAbsoluteRotation, new Quaternion()));
         } else {
-            this.absoluteEulerRotation = this.relativeEulerRotation;
+            this.setRelativeEulerRotation(newAbsoluteRotation);
         }
-        this.transformSubject.onNext(this);
     }
 
     /**
      * Changes this transforms absolute rotation, and therefore its relative
      * rotation.
      *
-     * @param newAbsoluteRotation
+     * @param newAbsoluteRotation The new absolute rotation as a quaternion.
      */
-    public void setAbsoluteEulerRotation(Vector3f newAbsoluteRotation) {
-        this.absoluteEulerRotation = new Vector3f(newAbsoluteRotation);
+    public void setAbsoluteRotation(Quaternion newAbsoluteRotation) {
         if (this.parentTransform != null) {
-            this.relativeEulerRotation = this.calculateRelativeRotation(this.parentTransform.getAbsoluteEulerRotation(), this.absoluteEulerRotation);
+            Quaternion.negate(this.parentTransform.getAbsoluteRotation(), this.inverseParentRotation);
+            Quaternion.mul(this.inverseParentRotation, newAbsoluteRotation, this.relativeRotation);
         } else {
-            this.relativeEulerRotation = this.absoluteEulerRotation;
+            this.relativeRotation.set(newAbsoluteRotation);
         }
-        this.transformSubject.onNext(this);
+        this.relativeRotation.normalise();
+        this.updateRelativeEulerRotation();
+        this.changed();
     }
     //</editor-fold>
 
@@ -163,14 +496,8 @@ public class Transform {
      * @param newRelativeScale
      */
     public void setRelativeScale(Vector3f newRelativeScale) {
-        this.relativeScale = new Vector3f(newRelativeScale);
-
-        if (this.parentTransform != null) {
-            this.absoluteScale = this.calculateAbsoluteScale(this.parentTransform.getAbsoluteScale(), this.relativeScale);
-        } else {
-            this.absoluteScale = this.relativeScale;
-        }
-        this.transformSubject.onNext(this);
+        this.relativeScale.set(newRelativeScale);
+        this.changed();
     }
 
     /**
@@ -179,14 +506,15 @@ public class Transform {
      * @param newAbsoluteScale
      */
     public void setAbsoluteScale(Vector3f newAbsoluteScale) {
-        this.absoluteScale = new Vector3f(newAbsoluteScale);
-
         if (this.parentTransform != null) {
-            this.relativeScale = this.calculateRelativeScale(this.parentTransform.getAbsoluteScale(), this.absoluteScale);
+            Vector3f parentsAbsoluteScale = this.parentTransform.getAbsoluteScale();
+            this.relativeScale.set(newAbsoluteScale.getX() / parentsAbsoluteScale.getX(),
+                    newAbsoluteScale.getY() / parentsAbsoluteScale.getY(),
+                    newAbsoluteScale.getZ() / parentsAbsoluteScale.getZ());
         } else {
-            this.relativeScale = this.absoluteScale;
+            this.relativeScale.set(newAbsoluteScale);
         }
-        this.transformSubject.onNext(this);
+        this.changed();
     }
     //</editor-fold>
     //</editor-fold>
@@ -194,29 +522,27 @@ public class Transform {
     /**
      * Default constructor for creating a new instance of Transform.
      *
-     * @param position The euler rotation in degrees.
-     * @param eulerRotation
-     * @param scale
+     * @param position The position.
+     * @param eulerRotation The euler rotation in degrees.
+     * @param scale The scale.
      */
     public Transform(Vector3f position, Vector3f eulerRotation, Vector3f scale) {
-        this.relativePosition = position;
-        this.absolutePosition = position;
-
-        this.relativeEulerRotation = eulerRotation;
-        this.absoluteEulerRotation = eulerRotation;
-
-        this.relativeScale = scale;
-        this.absoluteScale = scale;
+        this.relativePosition.set(position);
+        this.relativeEulerRotation.set(eulerRotation);
+        QuaternionMath.fromEuler(eulerRotation, this.relativeRotation);
+        this.relativeScale.set(scale);
     }
 
     public void destroy() {
         this.stopListening();
-        this.transformSubject.onComplete();
+        if (this.transformSubject != null) {
+            this.transformSubject.onComplete();
+        }
     }
 
     /**
-     * Disposes of any subscriptions to previous parents, and subscribes to the
-     * new parent transform.
+     * Sets the parent transform of this transform. The absolute values of this
+     * transform will be relative to the new parent transform from now on.
      *
      * @param transform
      */
@@ -226,16 +552,12 @@ public class Transform {
 
         this.parentTransform = transform;
 
-        // set the absolute properties for this transform.
-        this.absoluteScale = this.calculateAbsoluteScale(this.parentTransform.getAbsoluteScale(), this.relativeScale);
-        this.absoluteEulerRotation = this.calculateAbsoluteRotation(this.parentTransform.getAbsoluteEulerRotation(), this.relativeEulerRotation);
-        this.absolutePosition = this.calculateAbsolutePosition(this.parentTransform.getAbsolutePosition(), this.parentTransform.getAbsoluteEulerRotation(), this.relativePosition);
-
-        // notify listeners of changes
-        this.transformSubject.onNext(this);
+        // Only push changes of the parent when someone is listening.
+        if (this.transformSubject != null) {
+            this.transformSubscription = this.subscribeToParentTransform();
+        }
 
-        // Subscribe to all changes in the parent transform.
-        this.transformSubscription = this.subscribeToParentTransform();
+        this.changed();
     }
 
     public void stopListening() {
@@ -245,57 +567,178 @@ public class Transform {
             this.transformSubscription = null;
         }
 
-        this.absolutePosition = this.relativePosition;
-        this.absoluteEulerRotation = this.relativeEulerRotation;
-        this.absoluteScale = this.relativeScale;
+        this.changed();
+    }
+
+    /**
+     * Stores the current absolute values of this transform as the previous
+     * state, from which
+     * {@link #getInterpolatedWorldMatrix(float) getInterpolatedWorldMatrix(float)}
+     * interpolates. This is called at the start of every fixed simulation
+     * step.
+     */
+    public void storePreviousState() {
+        this.resolve();
+        this.previousPosition.set(this.absolutePosition);
+        this.previousRotation.set(this.absoluteRotation);
+        this.previousScale.set(this.absoluteScale);
+        this.previousVersion = this.version;
+    }
+
+    /**
+     * Stores the interpolated world matrix of this transform in a slot of a
+     * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}, from which
+     * the render thread reads it while the logic thread continues.
+     *
+     * @param slot The slot of the snapshot.
+     * @param frame The number of the logic frame of the snapshot.
+     * @param alpha The interpolation factor of the logic frame.
+     */
+    public void storeSnapshot(int slot, long frame, float alpha) {
+        if (this.snapshotMatrices == null) {
+            Matrix4f[] matrices = new Matrix4f[SnapshotBuffer.SLOT_COUNT];
+            for (int i = 0; i < matrices.length; i++) {
+                matrices[i] = new Matrix4f();
+            }
+            this.snapshotMatrices = matrices;
+            this.snapshotFrames = new long[SnapshotBuffer.SLOT_COUNT];
+        }
+        this.snapshotMatrices[slot].load(this.getInterpolatedWorldMatrix(alpha));
+        this.snapshotFrames[slot] = frame;
+    }
 
-        this.transformSubject.onNext(this);
+    /**
+     * Marks the absolute values of this transform as outdated, and notifies
+     * listeners if there are any.
+     */
+    private void changed() {
+        this.localVersion++;
+        if (this.transformSubject != null) {
+            this.transformSubject.onNext(this);
+        }
     }
 
-    private Vector3f calculateAbsoluteScale(Vector3f parentsAbsoluteScale, Vector3f ownRelativeScale) {
-        return new Vector3f(parentsAbsoluteScale.getX() * ownRelativeScale.getX(),
-                parentsAbsoluteScale.getY() * ownRelativeScale.getY(),
-                parentsAbsoluteScale.getZ() * ownRelativeScale.getZ());
+    /**
+     * Recalculates the absolute values of this transform if this transform or
+     * any of its parent transforms changed since they were last calculated.
+     */
+    private void resolve() {
+        if (this.parentTransform != null) {
+            this.parentTransform.resolve();
+        }
+        this.resolveLocal();
     }
 
-    private Vector3f calculateRelativeScale(Vector3f parentsAbsoluteScale, Vector3f ownAbsoluteScale) {
-        return new Vector3f(ownAbsoluteScale.getX() / parentsAbsoluteScale.getX(),
-                ownAbsoluteScale.getY() / parentsAbsoluteScale.getY(),
-                ownAbsoluteScale.getZ() / parentsAbsoluteScale.getZ());
+    /**
+     * Recalculates the absolute values of this transform if it or its parent
+     * transform changed since they were last calculated. The absolute values
+     * of the parent transform must already be up to date.
+     */
+    void resolveLocal() {
+        Transform parent = this.parentTransform;
+        if (parent != null) {
+            if (this.resolvedLocalVersion == this.localVersion
+                    && this.resolvedParentTransform == parent
+                    && this.resolvedParentVersion == parent.version) {
+                return;
+            }
+            this.calculateAbsoluteScale(parent.absoluteScale);
+            Quaternion.mul(parent.absoluteRotation, this.relativeRotation, this.absoluteRotation);
+            QuaternionMath.rotate(parent.absoluteRotationMatrix, this.relativePosition, this.absolutePosition);
+            Vector3f.add(this.absolutePosition, parent.absolutePosition, this.absolutePosition);
+            this.resolvedParentVersion = parent.version;
+        } else {
+            if (this.resolvedLocalVersion == this.localVersion && this.resolvedParentTransform == null) {
+                return;
+            }
+            this.absoluteScale.set(this.relativeScale);
+            this.absoluteRotation.set(this.relativeRotation);
+            this.absolutePosition.set(this.relativePosition);
+        }
+        QuaternionMath.toRotationMatrix(this.absoluteRotation, this.absoluteRotationMatrix);
+        this.resolvedParentTransform = parent;
+        this.resolvedLocalVersion = this.localVersion;
+        this.version++;
     }
 
-    private Vector3f calculateAbsoluteRotation(Vector3f parentsAbsoluteRotation, Vector3f ownRelativeRotation) {
-        return Vector3f.add(ownRelativeRotation, parentsAbsoluteRotation, null);
+    /**
+     * Builds the world matrix in place from the absolute position, the cached
+     * absolute rotation matrix and the absolute scale.
+     */
+    private void buildWorldMatrix() {
+        buildMatrix(this.absolutePosition, this.absoluteRotationMatrix, this.absoluteScale, this.worldMatrix);
     }
 
-    private Vector3f calculateRelativeRotation(Vector3f parentsAbsoluteRotation, Vector3f ownAbsoluteRotation) {
-        return Vector3f.sub(ownAbsoluteRotation, parentsAbsoluteRotation, null);
+    /**
+     * Builds a local-to-world matrix in place from a position, rotation matrix
+     * and scale.
+     *
+     * @param position The position.
+     * @param r The rotation matrix.
+     * @param scale The scale.
+     * @param m The matrix that will hold the result.
+     */
+    private static void buildMatrix(Vector3f position, Matrix3f r, Vector3f scale, Matrix4f m) {
+        m.m00 = r.m00 * scale.x;
+        m.m01 = r.m01 * scale.x;
+        m.m02 = r.m02 * scale.x;
+        m.m03 = 0;
+
+        m.m10 = r.m10 * scale.y;
+        m.m11 = r.m11 * scale.y;
+        m.m12 = r.m12 * scale.y;
+        m.m13 = 0;
+
+        m.m20 = r.m20 * scale.z;
+        m.m21 = r.m21 * scale.z;
+        m.m22 = r.m22 * scale.z;
+        m.m23 = 0;
+
+        m.m30 = position.x;
+        m.m31 = position.y;
+        m.m32 = position.z;
+        m.m33 = 1;
     }
 
     /**
-     * This is subject to the parents absolute position AND absolute rotation
-     * and its own relative position.
+     * Linearly interpolates between two vectors.
      *
-     * @param parentsAbsolutePosition
-     * @return
+     * @param from The vector at an alpha of 0.
+     * @param to The vector at an alpha of 1.
+     * @param alpha The interpolation factor.
+     * @param dest The vector that will hold the result.
+     */
+    private static void lerp(Vector3f from, Vector3f to, float alpha, Vector3f dest) {
+        dest.set(from.x + (to.x - from.x) * alpha,
+                from.y + (to.y - from.y) * alpha,
+                from.z + (to.z - from.z) * alpha);
+    }
+
+    /**
+     * Converts the relative rotation to the relative Euler rotation.
      */
-    private Vector3f calculateAbsolutePosition(Vector3f parentsAbsolutePosition, Vector3f parentsAbsoluteRotation, Vector3f ownRelativePosition) {
-        Vector3f rotatedRelativePosition = VectorMath.rotateEuler(ownRelativePosition, parentsAbsoluteRotation);
-        return Vector3f.add(rotatedRelativePosition, parentsAbsolutePosition, null);
+    private void updateRelativeEulerRotation() {
+        QuaternionMath.toEuler(QuaternionMath.toRotationMatrix(this.relativeRotation, new Matrix3f()), this.relativeEulerRotation);
+    }
+
+    private void calculateAbsoluteScale(Vector3f parentsAbsoluteScale) {
+        this.absoluteScale.set(parentsAbsoluteScale.getX() * this.relativeScale.getX(),
+                parentsAbsoluteScale.getY() * this.relativeScale.getY(),
+                parentsAbsoluteScale.getZ() * this.relativeScale.getZ());
     }
 
-    private Vector3f calculateRelativePosition(Vector3f parentsAbsolutePosition, Vector3f parentsAbsoluteRotation, Vector3f ownAbsolutePosition) {
-        Vector3f inverseRotatedAbsolutePosition = VectorMath.rotateEuler(ownAbsolutePosition, parentsAbsolutePosition.negate(null));
-        return Vector3f.sub(parentsAbsolutePosition, inverseRotatedAbsolutePosition, null);
+    /**
+     * Calculates the relative position from an absolute position by undoing
+     * the parents translation and rotation.
+     */
+    private void calculateRelativePosition(Transform parent, Vector3f ownAbsolutePosition) {
+        Vector3f.sub(ownAbsolutePosition, parent.getAbsolutePosition(), this.relativePosition);
+        QuaternionMath.inverseRotate(parent.getAbsoluteRotationMatrix(), this.relativePosition, this.relativePosition);
     }
 
     private Disposable subscribeToParentTransform() {
         return this.parentTransform.getObservable().subscribe(
                 x -> {
-                    this.parentTransform = x;
-                    this.absoluteScale = this.calculateAbsoluteScale(x.getAbsoluteScale(), this.relativeScale);
-                    this.absoluteEulerRotation = this.calculateAbsoluteRotation(x.getAbsoluteEulerRotation(), this.relativeEulerRotation);
-                    this.absolutePosition = this.calculateAbsolutePosition(x.getAbsolutePosition(), x.getAbsoluteEulerRotation(), this.relativePosition);
                     this.transformSubject.onNext(this);
                 },
                 x -> {
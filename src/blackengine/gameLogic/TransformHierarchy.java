@@ -0,0 +1,259 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.jobs.JobSystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An instance of this class keeps the transforms of all entities in a
+ * {@link blackengine.gameLogic.ComponentStore ComponentStore} in flat arrays,
+ * one per depth in the entity hierarchy. A transform is always stored one
+ * level deeper than its parent transform, which allows all absolute values to
+ * be resolved in a single linear pass from the top level down, without any
+ * recursion.
+ *
+ * Removed transforms leave an empty slot behind, which is reclaimed once more
+ * than half of the slots of a level are empty.
+ *
+ * @author Blackened
+ */
+public class TransformHierarchy {
+
+    /**
+     * The minimal amount of transforms in a level before it is resolved in
+     * parallel, if parallel resolving is enabled.
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * The amount of transforms in a chunk of a level that is resolved in
+     * parallel.
+     */
+    private static final int PARALLEL_GRAIN = 256;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The transforms of every depth in the hierarchy.
+     */
+    private final List<Level> levels = new ArrayList<>();
+
+    /**
+     * The amount of transforms in this hierarchy.
+     */
+    private int size = 0;
+
+    /**
+     * Whether large levels are resolved in parallel.
+     */
+    private boolean parallelEnabled = false;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters & Setters">
+    /**
+     * Getter for the amount of transforms in this hierarchy.
+     *
+     * @return The amount of transforms.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the amount of levels in this hierarchy, which is the depth of
+     * the deepest transform plus one.
+     *
+     * @return The amount of levels.
+     */
+    public int getLevelCount() {
+        return this.levels.size();
+    }
+
+    /**
+     * Getter for whether large levels are resolved in parallel.
+     *
+     * @return True if parallel resolving is enabled, false otherwise.
+     */
+    public boolean isParallelEnabled() {
+        return parallelEnabled;
+    }
+
+    /**
+     * Setter for whether large levels are resolved in parallel. Transforms on
+     * the same level never depend on each other, so they can be resolved at
+     * the same time once the level above has been resolved.
+     *
+     * @param parallelEnabled True to enable parallel resolving.
+     */
+    public void setParallelEnabled(boolean parallelEnabled) {
+        this.parallelEnabled = parallelEnabled;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Recalculates the absolute values of all transforms in this hierarchy
+     * that changed, or of which a parent transform changed, since they were
+     * last calculated.
+     */
+    public void resolve() {
+        for (Level level : this.levels) {
+            Transform[] transforms = level.transforms;
+            if (this.parallelEnabled && level.size >= PARALLEL_THRESHOLD) {
+                JobSystem.getInstance().parallelFor(0, level.size, PARALLEL_GRAIN, i -> {
+                    if (transforms[i] != null) {
+                        transforms[i].resolveLocal();
+                    }
+                }).await();
+            } else {
+                for (int i = 0; i < level.size; i++) {
+                    if (transforms[i] != null) {
+                        transforms[i].resolveLocal();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the current absolute values of all transforms in this hierarchy
+     * as their previous state, so that rendering can interpolate between them
+     * and the absolute values after the next simulation step.
+     */
+    public void storePreviousState() {
+        for (Level level : this.levels) {
+            Transform[] transforms = level.transforms;
+            for (int i = 0; i < level.size; i++) {
+                if (transforms[i] != null) {
+                    transforms[i].storePreviousState();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the interpolated world matrices of all transforms in this
+     * hierarchy in a slot of a
+     * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}.
+     *
+     * @param slot The slot of the snapshot.
+     * @param frame The number of the logic frame of the snapshot.
+     * @param alpha The interpolation factor of the logic frame.
+     */
+    public void storeSnapshot(int slot, long frame, float alpha) {
+        for (Level level : this.levels) {
+            Transform[] transforms = level.transforms;
+            for (int i = 0; i < level.size; i++) {
+                if (transforms[i] != null) {
+                    transforms[i].storeSnapshot(slot, frame, alpha);
+                }
+            }
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Adds a transform to this hierarchy, one level below its parent
+     * transform. If the parent transform is not in this hierarchy, the
+     * transform is added to the top level.
+     *
+     * @param transform The transform to add, of which the parent transform
+     * must already have been added.
+     */
+    void add(Transform transform) {
+        Transform parent = transform.getParentTransform();
+        int depth = parent != null && parent.hierarchy == this ? parent.hierarchyDepth + 1 : 0;
+        while (this.levels.size() <= depth) {
+            this.levels.add(new Level());
+        }
+        Level level = this.levels.get(depth);
+        if (level.size == level.transforms.length) {
+            level.transforms = Arrays.copyOf(level.transforms, level.size * 2);
+        }
+        transform.hierarchy = this;
+        transform.hierarchyDepth = depth;
+        transform.hierarchyIndex = level.size;
+        level.transforms[level.size++] = transform;
+        this.size++;
+    }
+
+    /**
+     * Removes a transform from this hierarchy.
+     *
+     * @param transform The transform to remove.
+     */
+    void remove(Transform transform) {
+        if (transform.hierarchy != this) {
+            return;
+        }
+        Level level = this.levels.get(transform.hierarchyDepth);
+        level.transforms[transform.hierarchyIndex] = null;
+        level.removed++;
+        transform.hierarchy = null;
+        this.size--;
+        if (level.removed * 2 > level.size) {
+            level.compact();
+        }
+        while (!this.levels.isEmpty() && this.levels.get(this.levels.size() - 1).size == 0) {
+            this.levels.remove(this.levels.size() - 1);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Level">
+    /**
+     * The transforms at a single depth in the hierarchy.
+     */
+    private static class Level {
+
+        private Transform[] transforms = new Transform[16];
+
+        private int size = 0;
+
+        private int removed = 0;
+
+        /**
+         * Moves all transforms to the front of the level, keeping their
+         * order.
+         */
+        private void compact() {
+            int target = 0;
+            for (int i = 0; i < this.size; i++) {
+                Transform transform = this.transforms[i];
+                if (transform != null) {
+                    transform.hierarchyIndex = target;
+                    this.transforms[target++] = transform;
+                }
+            }
+            Arrays.fill(this.transforms, target, this.size, null);
+            this.size = target;
+            this.removed = 0;
+        }
+    }
+    //</editor-fold>
+
+}
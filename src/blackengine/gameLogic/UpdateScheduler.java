@@ -0,0 +1,286 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic;
+
+import blackengine.gameLogic.components.base.ComponentBase;
+import blackengine.jobs.JobSystem;
+import blackengine.toolbox.profiling.ProfiledCall;
+import blackengine.toolbox.profiling.UpdateProfiler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An instance of this class updates the components of a store in parallel.
+ * Every frame it builds a dependency graph over all registered component
+ * classes that have components in the store: a class depends on every class
+ * with a higher priority it conflicts with, as declared by their
+ * {@link blackengine.gameLogic.ComponentAccess ComponentAccess}. Classes are
+ * then updated in stages, where every stage contains all classes of which the
+ * dependencies have been updated in earlier stages. The classes within a stage
+ * are updated at the same time on the workers of the
+ * {@link blackengine.jobs.JobSystem JobSystem}.
+ *
+ * @author Blackened
+ */
+class UpdateScheduler {
+
+    /**
+     * The minimal amount of components of an entity local class that is
+     * updated by a single task before the work is split.
+     */
+    private static final int SPLIT_THRESHOLD = 256;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The registered component classes in order of their priority.
+     */
+    private Class<? extends ComponentBase>[] order;
+
+    /**
+     * The access of each registered component class, or null for classes that
+     * did not declare their access.
+     */
+    private ComponentAccess[] access;
+
+    /**
+     * Whether two registered component classes conflict, indexed by their
+     * position in the order.
+     */
+    private boolean[][] conflicts;
+
+    /**
+     * A reusable buffer per registered component class, holding its
+     * components while they are being updated.
+     */
+    private ComponentBase[][] buffers;
+
+    /**
+     * The amount of components in each buffer.
+     */
+    private int[] counts;
+
+    /**
+     * The stage in which each registered component class is updated this
+     * frame, or -1 if it has no components.
+     */
+    private int[] stages;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of UpdateScheduler.
+     */
+    @SuppressWarnings("unchecked")
+    UpdateScheduler() {
+        this.setOrder(new Class[0], new ComponentAccess[0]);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Sets the registered component classes and their access, and
+     * precomputes which of them conflict.
+     *
+     * @param order The registered component classes in order of their
+     * priority.
+     * @param access The access of each registered component class.
+     */
+    final void setOrder(Class<? extends ComponentBase>[] order, ComponentAccess[] access) {
+        int n = order.length;
+        this.order = order;
+        this.access = access;
+        this.conflicts = new boolean[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                this.conflicts[i][j] = i != j && (access[i] == null || access[i].conflictsWith(order[i], access[j], order[j]));
+            }
+        }
+        this.buffers = new ComponentBase[n][];
+        Arrays.fill(this.buffers, new ComponentBase[0]);
+        this.counts = new int[n];
+        this.stages = new int[n];
+    }
+
+    /**
+     * Updates all components in the provided store.
+     *
+     * @param store The store containing the components.
+     * @param late True to call the late update methods, false to call the
+     * update methods.
+     * @param profiler The profiler recording the time spent per component
+     * class, or null if profiling is disabled. The time of a class that is
+     * split over several tasks is the sum of the time of each task.
+     */
+    void update(ComponentStore store, boolean late, UpdateProfiler profiler) {
+        int stageCount = this.plan(store);
+        List<UpdateTask> tasks = new ArrayList<>();
+        ProfiledCall call = late ? ProfiledCall.LATE_UPDATE : ProfiledCall.UPDATE;
+        for (int stage = 0; stage < stageCount; stage++) {
+            tasks.clear();
+            for (int i = 0; i < this.order.length; i++) {
+                if (this.stages[i] == stage) {
+                    boolean split = this.access[i] != null && this.access[i].isSplittable();
+                    UpdateProfiler.Counter counter = profiler != null ? profiler.getCounter(call, this.order[i]) : null;
+                    tasks.add(new UpdateTask(this.buffers[i], 0, this.counts[i], late, split, counter));
+                }
+            }
+            if (tasks.size() == 1 && !tasks.get(0).split) {
+                tasks.get(0).compute();
+            } else {
+                JobSystem.getInstance().invoke(new StageTask(tasks));
+            }
+            if (late) {
+                this.removeDestroyedComponents(stage);
+            }
+        }
+        for (int i = 0; i < this.order.length; i++) {
+            Arrays.fill(this.buffers[i], 0, this.counts[i], null);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Collects the components of every registered class from the store, and
+     * assigns every class that has components to a stage.
+     *
+     * @param store The store containing the components.
+     * @return The amount of stages.
+     */
+    private int plan(ComponentStore store) {
+        int stageCount = 0;
+        for (int j = 0; j < this.order.length; j++) {
+            int count = store.count(this.order[j]);
+            if (count > this.buffers[j].length) {
+                this.buffers[j] = new ComponentBase[Math.max(count, this.buffers[j].length * 2)];
+            }
+            this.counts[j] = store.copyInto(this.order[j], this.buffers[j]);
+            if (this.counts[j] == 0) {
+                this.stages[j] = -1;
+                continue;
+            }
+            int stage = 0;
+            for (int i = 0; i < j; i++) {
+                if (this.stages[i] >= stage && this.conflicts[i][j]) {
+                    stage = this.stages[i] + 1;
+                }
+            }
+            this.stages[j] = stage;
+            stageCount = Math.max(stageCount, stage + 1);
+        }
+        return stageCount;
+    }
+
+    /**
+     * Removes all components of the classes in the specified stage that were
+     * flagged for destruction from their entity.
+     *
+     * @param stage The stage that has been late updated.
+     */
+    private void removeDestroyedComponents(int stage) {
+        for (int i = 0; i < this.order.length; i++) {
+            if (this.stages[i] == stage) {
+                ComponentBase[] components = this.buffers[i];
+                for (int c = 0; c < this.counts[i]; c++) {
+                    if (components[c].isDestroyed() && components[c].getParent() != null) {
+                        components[c].getParent().removeDestroyedComponent(components[c]);
+                    }
+                }
+            }
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Tasks">
+    /**
+     * A task updating all classes of a single stage at the same time.
+     */
+    private static class StageTask extends RecursiveAction {
+
+        private final List<UpdateTask> tasks;
+
+        StageTask(List<UpdateTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(this.tasks);
+        }
+    }
+
+    /**
+     * A task updating a range of the components of a single class.
+     */
+    private static class UpdateTask extends RecursiveAction {
+
+        private final ComponentBase[] components;
+
+        private final int from;
+
+        private final int to;
+
+        private final boolean late;
+
+        private final boolean split;
+
+        private final UpdateProfiler.Counter counter;
+
+        UpdateTask(ComponentBase[] components, int from, int to, boolean late, boolean split, UpdateProfiler.Counter counter) {
+            this.components = components;
+            this.from = from;
+            this.to = to;
+            this.late = late;
+            this.split = split;
+            this.counter = counter;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.split && this.to - this.from > SPLIT_THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                ForkJoinTask.invokeAll(
+                        new UpdateTask(this.components, this.from, middle, this.late, true, this.counter),
+                        new UpdateTask(this.components, middle, this.to, this.late, true, this.counter));
+                return;
+            }
+            long start = this.counter != null ? System.nanoTime() : 0;
+            for (int i = this.from; i < this.to; i++) {
+                if (this.late) {
+                    this.components[i].lateUpdate();
+                } else if (!this.components[i].isDestroyed()) {
+                    this.components[i].update();
+                }
+            }
+            if (this.counter != null) {
+                this.counter.add(this.to - this.from, System.nanoTime() - start);
+            }
+        }
+    }
+    //</editor-fold>
+
+}
@@ -23,6 +23,7 @@
  */
 package blackengine.gameLogic.components.base;
 
+import blackengine.gameLogic.ComponentType;
 import blackengine.gameLogic.Entity;
 
 /**
@@ -31,8 +32,9 @@ import blackengine.gameLogic.Entity;
  * {@link blackengine.gameLogic.LogicEngine#registerComponent(java.lang.Class, java.lang.Float) registerComponent(Class, Float)}
  * method, the component will be 'Active'. Active components will be updated
  * using their {@link #update() update()} and {@link #lateUpdate() lateUpdate()}
- * methods in order of their priority every frame by their parent
- * {@link blackengine.gameLogic.Entity Entity}. Passive components will not be
+ * methods every frame. All active components of the same class are updated
+ * together by the {@link blackengine.gameLogic.LogicEngine LogicEngine}, in
+ * order of the priority of their class. Passive components will not be
  * updated using their {@link #update() update()} or
  * {@link #lateUpdate() lateUpdate()} methods.
  *
@@ -55,6 +57,12 @@ public abstract class ComponentBase {
      */
     private boolean active = false;
 
+    /**
+     * The {@link blackengine.gameLogic.ComponentType ComponentType} ID of the
+     * mapping of this component, or -1 if it was not retrieved yet.
+     */
+    private int typeId = -1;
+
     /**
      * Getter for whether this component is flagged for destruction or not.
      *
@@ -153,6 +161,16 @@ public abstract class ComponentBase {
 
     }
 
+    /**
+     * Gets called whenever the entity of this component is returned to the
+     * recycle pool of its {@link blackengine.gameLogic.Prefab Prefab}, after
+     * it was deactivated. Implementations should reset any state that should
+     * not carry over to the next use of the entity.
+     */
+    public void onRecycle() {
+
+    }
+
     /**
      * Retrieves the Class that will be used to map update priority in the
      * {@link blackengine.gameLogic.LogicEngine LogicEngine}.
@@ -163,4 +181,18 @@ public abstract class ComponentBase {
         return this.getClass();
     }
 
+    /**
+     * Retrieves the {@link blackengine.gameLogic.ComponentType ComponentType}
+     * ID of the mapping of this component. The ID is retrieved once, and
+     * cached afterwards.
+     *
+     * @return The ID of the mapping of this component.
+     */
+    public final int getTypeId() {
+        if (this.typeId < 0) {
+            this.typeId = ComponentType.idOf(this.getMapping());
+        }
+        return this.typeId;
+    }
+
 }
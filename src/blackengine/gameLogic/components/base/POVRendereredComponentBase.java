@@ -23,6 +23,7 @@
  */
 package blackengine.gameLogic.components.base;
 
+import blackengine.rendering.RenderEngine;
 import blackengine.rendering.renderers.TargetPOVRenderer;
 
 /**
@@ -47,4 +48,15 @@ public abstract class POVRendereredComponentBase<T extends TargetPOVRenderer> ex
     }
     
     public abstract boolean isRendered();
+
+    /**
+     * Checks whether this component can be rendered, which requires a
+     * renderer and a created render engine. In a headless application this is
+     * never the case, and the component does nothing.
+     *
+     * @return True if this component can be rendered, false otherwise.
+     */
+    protected boolean isRenderable() {
+        return this.renderer != null && RenderEngine.isCreated();
+    }
 }
@@ -23,12 +23,10 @@
  */
 package blackengine.gameLogic.components.prefab;
 
-import blackengine.gameLogic.Entity;
 import blackengine.gameLogic.Transform;
 import blackengine.gameLogic.components.base.ComponentBase;
 import blackengine.rendering.Camera;
 import blackengine.rendering.RenderEngine;
-import io.reactivex.disposables.Disposable;
 import org.lwjgl.util.vector.Matrix4f;
 import org.lwjgl.util.vector.Vector3f;
 
@@ -42,6 +40,10 @@ import org.lwjgl.util.vector.Vector3f;
  * This means this component should be registered with a low priority to the
  * {@link blackengine.gameLogic.LogicEngine LogicEngine}.
  *
+ * The position, rotation and view matrix of this camera are derived lazily
+ * from the transform of its parent entity, whenever they are requested after
+ * that transform changed.
+ *
  * On {@link #activate() activate()}, this implementation of CameraComponent
  * will be set as the main camera from which the POV renderers will render.
  *
@@ -53,7 +55,17 @@ import org.lwjgl.util.vector.Vector3f;
  */
 public class CameraComponent extends ComponentBase implements Camera {
 
-    private Disposable parentTransformSubscription;
+    /**
+     * The version of the parent transform from which the view matrix was last
+     * calculated.
+     */
+    private int viewVersion;
+
+    /**
+     * Whether the view matrix has to be recalculated regardless of the
+     * version of the parent transform.
+     */
+    private boolean viewOutdated = true;
 
     private float pitch;
 
@@ -68,7 +80,15 @@ public class CameraComponent extends ComponentBase implements Camera {
     /**
      * The view matrix of this camera.
      */
-    protected Matrix4f viewMatrix = new Matrix4f();
+    protected final Matrix4f viewMatrix = new Matrix4f();
+
+    private final Vector3f xAxis = new Vector3f(1, 0, 0);
+
+    private final Vector3f yAxis = new Vector3f(0, 1, 0);
+
+    private final Vector3f zAxis = new Vector3f(0, 0, 1);
+
+    private final Vector3f negativePosition = new Vector3f();
 
     public Vector3f getOffset() {
         return offset;
@@ -76,6 +96,7 @@ public class CameraComponent extends ComponentBase implements Camera {
 
     public void setOffset(Vector3f offset) {
         this.offset = offset;
+        this.viewOutdated = true;
     }
 
     /**
@@ -85,6 +106,7 @@ public class CameraComponent extends ComponentBase implements Camera {
      */
     @Override
     public double getPitch() {
+        this.refresh();
         return this.pitch;
     }
 
@@ -95,6 +117,7 @@ public class CameraComponent extends ComponentBase implements Camera {
      */
     @Override
     public double getYaw() {
+        this.refresh();
         return this.yaw;
     }
 
@@ -105,6 +128,7 @@ public class CameraComponent extends ComponentBase implements Camera {
      */
     @Override
     public double getRoll() {
+        this.refresh();
         return this.roll;
     }
 
@@ -117,20 +141,9 @@ public class CameraComponent extends ComponentBase implements Camera {
      */
     @Override
     public boolean isActive() {
-        return RenderEngine.getInstance().getMasterRenderer().getMainCamera() == this;
+        return RenderEngine.isCreated() && RenderEngine.getInstance().getMasterRenderer().getMainCamera() == this;
     }
     
-    @Override
-    public void setParent(Entity parent){
-        if(parent != null){
-            this.position = Vector3f.add(this.offset, parent.getTransform().getAbsolutePosition(), null);
-            this.pitch = -parent.getTransform().getAbsoluteEulerRotation().getX();
-            this.yaw = -parent.getTransform().getAbsoluteEulerRotation().getY();
-            this.roll = -parent.getTransform().getAbsoluteEulerRotation().getZ();
-        }
-        super.setParent(parent);
-    }
-
     /**
      * Activates this camera component by setting the main camera in the
      * {@link blackengine.rendering.MasterRenderer MasterRenderer} to this and
@@ -138,30 +151,39 @@ public class CameraComponent extends ComponentBase implements Camera {
      */
     @Override
     public void onActivate() {
-        this.parentTransformSubscription = this.getParent().getTransform().getObservable()
-                .subscribe(x -> this.onParentTransformChanged(x));
-        this.updateViewMatrix();
-        RenderEngine.getInstance().getMasterRenderer().setMainCamera(this);
+        this.viewOutdated = true;
+        if (RenderEngine.isCreated()) {
+            RenderEngine.getInstance().getMasterRenderer().setMainCamera(this);
+        }
     }
 
-    public void onParentTransformChanged(Transform parentTransform) {
+    /**
+     * Recalculates the position, rotation and view matrix of this camera if
+     * the transform of its parent changed since they were last calculated.
+     */
+    private void refresh() {
+        if (this.getParent() == null) {
+            return;
+        }
+        Transform parentTransform = this.getParent().getTransform();
+        int version = parentTransform.getVersion();
+        if (!this.viewOutdated && this.viewVersion == version) {
+            return;
+        }
         this.updateRotation(parentTransform.getAbsoluteEulerRotation());
-        this.updatePosition(parentTransform.getAbsolutePosition());
+        Vector3f.add(this.offset, parentTransform.getAbsolutePosition(), this.position);
         this.updateViewMatrix();
+        this.viewVersion = version;
+        this.viewOutdated = false;
     }
 
     private void updateViewMatrix() {
-        this.viewMatrix = new Matrix4f();
         this.viewMatrix.setIdentity();
-        Matrix4f.rotate((float) Math.toRadians(this.getPitch()), new Vector3f(1, 0, 0), this.viewMatrix, this.viewMatrix);
-        Matrix4f.rotate((float) Math.toRadians(this.getYaw()), new Vector3f(0, 1, 0), this.viewMatrix, this.viewMatrix);
-        Matrix4f.rotate((float) Math.toRadians(this.getRoll()), new Vector3f(0, 0, 1), this.viewMatrix, this.viewMatrix);
-        Vector3f negativeCameraPos = this.getPosition().negate(null);
-        Matrix4f.translate(negativeCameraPos, this.viewMatrix, this.viewMatrix);
-    }
-
-    private void updatePosition(Vector3f parentPosition) {
-        this.position = Vector3f.add(this.offset, parentPosition, null);
+        Matrix4f.rotate((float) Math.toRadians(this.pitch), this.xAxis, this.viewMatrix, this.viewMatrix);
+        Matrix4f.rotate((float) Math.toRadians(this.yaw), this.yAxis, this.viewMatrix, this.viewMatrix);
+        Matrix4f.rotate((float) Math.toRadians(this.roll), this.zAxis, this.viewMatrix, this.viewMatrix);
+        this.position.negate(this.negativePosition);
+        Matrix4f.translate(this.negativePosition, this.viewMatrix, this.viewMatrix);
     }
 
     private void updateRotation(Vector3f eulerRotation) {
@@ -179,8 +201,6 @@ public class CameraComponent extends ComponentBase implements Camera {
     @Override
     public void onDeactivate() {
         if (this.isActive()) {
-            this.parentTransformSubscription.dispose();
-            this.parentTransformSubscription = null;
             RenderEngine.getInstance().getMasterRenderer().setMainCamera(null);
         }
     }
@@ -188,16 +208,18 @@ public class CameraComponent extends ComponentBase implements Camera {
     /**
      * Retrieves the view matrix from this camera.
      *
-     * @return An instance of {@link org.lwjgl.util.vector.Matrix4f Matrix4f} as
-     * a new view matrix.
+     * @return The instance of {@link org.lwjgl.util.vector.Matrix4f Matrix4f}
+     * holding the view matrix, which is updated in place.
      */
     @Override
     public Matrix4f getViewMatrix() {
+        this.refresh();
         return this.viewMatrix;
     }
 
     @Override
     public Vector3f getPosition() {
+        this.refresh();
         return this.position;
     }
 }
@@ -77,11 +77,15 @@ public class PointLightComponent extends ComponentBase implements PointLight {
     
     @Override
     public void onActivate(){
-        RenderEngine.getInstance().addLight(this);
+        if (RenderEngine.isCreated()) {
+            RenderEngine.getInstance().addLight(this);
+        }
     }
     
     @Override
     public void onDeactivate(){
-        RenderEngine.getInstance().removeLight(this);
+        if (RenderEngine.isCreated()) {
+            RenderEngine.getInstance().removeLight(this);
+        }
     }
 }
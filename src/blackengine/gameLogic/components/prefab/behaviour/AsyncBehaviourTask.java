@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.gameLogic.components.prefab.behaviour;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.LogicEngine;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An instance of this class is the consumer of an asynchronous behaviour,
+ * built through
+ * {@link blackengine.gameLogic.components.prefab.behaviour.Behaviour#async(java.lang.String, java.util.function.Function, java.util.function.BiConsumer) Behaviour.async(name, task, continuation)}.
+ * Every successful tick of the behaviour runs the task on the
+ * {@link blackengine.gameLogic.LogicEngine#getAsyncExecutor() async executor}
+ * of the logic engine, after which its result is passed to the continuation on
+ * the logic thread, as one of the
+ * {@link blackengine.gameLogic.LogicEngine#runContinuations() continuations}
+ * of a later frame.
+ *
+ * Only one run of the task is in flight at a time: ticks while the task is
+ * running, or while its continuation has not been applied yet, are skipped.
+ * Destroying the behaviour, or the entity containing it, interrupts the task
+ * and drops its continuation.
+ *
+ * @author Blackened
+ * @param <T> The type of the result of the task.
+ */
+public class AsyncBehaviourTask<T> implements Consumer<Entity> {
+
+    /**
+     * The task, which runs off the logic thread and must not change the
+     * entity or anything else that is updated on the logic thread.
+     */
+    private final Function<Entity, T> task;
+
+    /**
+     * The continuation, which runs on the logic thread.
+     */
+    private final BiConsumer<Entity, T> continuation;
+
+    /**
+     * The run of the task that is in flight, or null if there is none.
+     */
+    private Future<?> running;
+
+    /**
+     * Whether this task has been cancelled for good.
+     */
+    private volatile boolean cancelled = false;
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for whether a run of the task is in flight.
+     *
+     * @return True if the task is running or its continuation has not been
+     * applied yet, false otherwise.
+     */
+    public boolean isRunning() {
+        return this.running != null;
+    }
+
+    /**
+     * Getter for whether this task has been cancelled.
+     *
+     * @return True if this task was cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of AsyncBehaviourTask.
+     *
+     * @param task The task, which runs off the logic thread.
+     * @param continuation The continuation receiving the result of the task,
+     * which runs on the logic thread.
+     */
+    public AsyncBehaviourTask(Function<Entity, T> task, BiConsumer<Entity, T> continuation) {
+        this.task = task;
+        this.continuation = continuation;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Starts a run of the task for the provided entity, unless one is already
+     * in flight or the executor is saturated, in which case this tick is
+     * skipped.
+     *
+     * @param entity The entity of the behaviour.
+     */
+    @Override
+    public void accept(Entity entity) {
+        if (this.cancelled || this.running != null || entity == null) {
+            return;
+        }
+        LogicEngine engine = LogicEngine.getInstance();
+        try {
+            this.running = engine.getAsyncExecutor().submit(() -> this.run(engine, entity));
+        } catch (RejectedExecutionException ex) {
+            this.running = null;
+        }
+    }
+
+    /**
+     * Cancels this task for good, interrupting the run that is in flight and
+     * dropping its continuation.
+     */
+    public void cancel() {
+        this.cancelled = true;
+        if (this.running != null) {
+            this.running.cancel(true);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Runs the task off the logic thread, and hands its result or failure to
+     * the logic thread as a continuation. A failure of the task is rethrown
+     * on the logic thread.
+     *
+     * @param engine The logic engine running the continuation.
+     * @param entity The entity of the behaviour.
+     */
+    private void run(LogicEngine engine, Entity entity) {
+        T result = null;
+        Throwable failure = null;
+        if (!this.cancelled && !entity.isDestroyed()) {
+            try {
+                result = this.task.apply(entity);
+            } catch (Throwable ex) {
+                failure = ex;
+            }
+        }
+        T finalResult = result;
+        Throwable finalFailure = failure;
+        engine.addContinuation(() -> this.complete(entity, finalResult, finalFailure));
+    }
+
+    /**
+     * Completes a run of the task on the logic thread.
+     *
+     * @param entity The entity of the behaviour.
+     * @param result The result of the task.
+     * @param failure The failure of the task, or null if it succeeded.
+     */
+    private void complete(Entity entity, T result, Throwable failure) {
+        this.running = null;
+        if (this.cancelled || entity.isDestroyed()) {
+            return;
+        }
+        if (failure != null) {
+            throw new RuntimeException("The task of an async behaviour has failed.", failure);
+        }
+        this.continuation.accept(entity, result);
+    }
+    //</editor-fold>
+
+}
@@ -7,7 +7,10 @@ package blackengine.gameLogic.components.prefab.behaviour;
 
 import blackengine.gameLogic.Entity;
 import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.TimerWheel;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * An instance of this class represents a behavioural function that will be
@@ -66,6 +69,13 @@ public class Behaviour {
      */
     private boolean destroyed = false;
 
+    /**
+     * The timeout waking this behaviour up in its parent
+     * {@link blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent BehaviourComponent},
+     * or null if it is not asleep.
+     */
+    private TimerWheel.Timeout wakeUp;
+
     /**
      * Flags this behaviour for destruction. It will be removed from the parent
      * {@link blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent BehaviourComponent}
@@ -73,6 +83,9 @@ public class Behaviour {
      */
     public void destroy() {
         this.destroyed = true;
+        if (this.consumer instanceof AsyncBehaviourTask) {
+            ((AsyncBehaviourTask<?>) this.consumer).cancel();
+        }
     }
 
     /**
@@ -118,6 +131,37 @@ public class Behaviour {
         return priority;
     }
 
+    /**
+     * Getter for the earliest time at which a tick can call the consumer.
+     * Until then, the parent
+     * {@link blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent BehaviourComponent}
+     * does not tick this behaviour.
+     *
+     * @return The time in milliseconds, or Long.MIN_VALUE if the next tick
+     * can call the consumer.
+     */
+    public long getNextTickTime() {
+        return this.delayPassed ? Long.MIN_VALUE : this.timeAfterDelay + 1;
+    }
+
+    /**
+     * Getter for the timeout waking this behaviour up.
+     *
+     * @return The timeout, or null if this behaviour is not asleep.
+     */
+    TimerWheel.Timeout getWakeUp() {
+        return wakeUp;
+    }
+
+    /**
+     * Setter for the timeout waking this behaviour up.
+     *
+     * @param wakeUp The timeout, or null if this behaviour is not asleep.
+     */
+    void setWakeUp(TimerWheel.Timeout wakeUp) {
+        this.wakeUp = wakeUp;
+    }
+
     /**
      * Default protected constructor for creating a new instance of Behaviour.
      *
@@ -141,13 +185,29 @@ public class Behaviour {
      * Will call the consumer if the delay has passed. Will return true if the
      * consumer was called, false otherwise.
      *
+     * The parent
+     * {@link blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent BehaviourComponent}
+     * calls {@link #tick(long) tick(long)} instead, with the time read once per
+     * update, so subclasses should override that method rather than this one.
+     *
      * @return A boolean representing whether the consumer was called.
      */
     public boolean tick() {
+        return this.tick(LogicEngine.getInstance().getTimer().getCurrentTime());
+    }
+
+    /**
+     * Will call the consumer if the delay has passed at the provided time.
+     * Will return true if the consumer was called, false otherwise.
+     *
+     * @param currentTime The current time in milliseconds.
+     * @return A boolean representing whether the consumer was called.
+     */
+    public boolean tick(long currentTime) {
         if (this.delayPassed) {
             this.consumer.accept(this.entity);
             return true;
-        } else if (LogicEngine.getInstance().getTimer().getCurrentTime() > this.timeAfterDelay) {
+        } else if (currentTime > this.timeAfterDelay) {
             this.consumer.accept(this.entity);
             this.delayPassed = true;
             return true;
@@ -172,4 +232,25 @@ public class Behaviour {
         return new BehaviourBuilder(name, consumer);
     }
 
+    /**
+     * Creates a new behaviour builder for a behaviour of which the work runs
+     * off the logic thread. Each successful tick runs the task on the
+     * {@link blackengine.gameLogic.LogicEngine#getAsyncExecutor() async executor}
+     * of the logic engine, unless the previous run is still in flight, and
+     * passes its result to the continuation on the logic thread afterwards.
+     * All other parameters can be specified as with
+     * {@link #as(java.lang.String, java.util.function.Consumer) as(name, consumer)}.
+     *
+     * @param <T> The type of the result of the task.
+     * @param name The name of the behaviour that will be built.
+     * @param task The task, which must not change the entity or anything else
+     * that is updated on the logic thread.
+     * @param continuation The continuation receiving the result of the task,
+     * which is not called if the behaviour or its entity has been destroyed.
+     * @return
+     */
+    public static <T> BehaviourBuilder async(String name, Function<Entity, T> task, BiConsumer<Entity, T> continuation) {
+        return new BehaviourBuilder(name, new AsyncBehaviourTask<>(task, continuation));
+    }
+
 }
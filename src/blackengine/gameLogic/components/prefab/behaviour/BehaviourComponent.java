@@ -23,6 +23,8 @@
  */
 package blackengine.gameLogic.components.prefab.behaviour;
 
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.TimerWheel;
 import blackengine.gameLogic.components.base.ComponentBase;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,20 +33,52 @@ import java.util.Arrays;
  * An instance of this component class executes behaviours that have been added
  * to it in order of their priority.
  *
+ * Behaviours that can not call their consumer until a later time, because
+ * their delay or interval has not passed yet, are put to sleep in the
+ * {@link blackengine.gameLogic.TimerWheel TimerWheel} of the
+ * {@link blackengine.gameLogic.LogicEngine LogicEngine}, and are not ticked
+ * until they are woken up at that time.
+ *
  * @author Blackened
  */
 public class BehaviourComponent extends ComponentBase {
 
     /**
-     * A list of all behaviours that will be called.
+     * A list of all behaviours in this component, including the ones that are
+     * asleep.
      */
     private ArrayList<Behaviour> behaviours;
 
+    /**
+     * The behaviours that will be ticked on the next update, in order of their
+     * priority.
+     */
+    private final ArrayList<Behaviour> awake;
+
+    /**
+     * Whether the behaviours that are awake are being ticked, during which the
+     * awake list is not changed directly.
+     */
+    private boolean updating = false;
+
+    /**
+     * The behaviours woken up while updating, which are added to the awake
+     * list once the update is done.
+     */
+    private final ArrayList<Behaviour> wokenWhileUpdating = new ArrayList<>();
+
+    /**
+     * The behaviours removed while updating, which are not ticked anymore and
+     * are removed from the awake list once the update is done.
+     */
+    private final ArrayList<Behaviour> removedWhileUpdating = new ArrayList<>();
+
     /**
      * Default constructor for creating a new instance of BehaviourComponent.
      */
     public BehaviourComponent() {
         this.behaviours = new ArrayList<>();
+        this.awake = new ArrayList<>();
     }
 
     /**
@@ -70,7 +104,7 @@ public class BehaviourComponent extends ComponentBase {
     public void addBehaviour(Behaviour behaviour) {
         behaviour.setEntity(this.getParent());
         this.behaviours.add(behaviour);
-        this.behaviours.sort((x, y) -> Float.compare(x.getPriority(), y.getPriority()));
+        this.wake(behaviour);
     }
 
     /**
@@ -82,8 +116,9 @@ public class BehaviourComponent extends ComponentBase {
      * that will be removed.
      */
     public void removeBehaviour(Behaviour behaviour) {
-        behaviour.setEntity(null);
-        this.behaviours.remove(behaviour);
+        if (this.behaviours.remove(behaviour)) {
+            this.forget(behaviour);
+        }
     }
 
     /**
@@ -97,7 +132,7 @@ public class BehaviourComponent extends ComponentBase {
     public void removeBehaviour(String behaviourName) {
         this.behaviours.removeIf(x -> {
             if (x.getName().equals(behaviourName)) {
-                x.setEntity(null);
+                this.forget(x);
                 return true;
             }
             return false;
@@ -113,16 +148,145 @@ public class BehaviourComponent extends ComponentBase {
         this.behaviours.forEach(x -> x.setEntity(this.getParent()));
     }
 
+    /**
+     * Wakes up all behaviours that are asleep, so that the timer wheel does
+     * not keep any behaviours of an inactive component.
+     */
+    @Override
+    public void onDeactivate() {
+        this.behaviours.forEach(x -> {
+            if (x.getWakeUp() != null) {
+                x.getWakeUp().cancel();
+                this.wake(x);
+            }
+        });
+    }
+
+    /**
+     * Destroys this component and all its behaviours, which cancels the tasks
+     * of async behaviours that are still in flight.
+     */
+    @Override
+    public void destroy() {
+        super.destroy();
+        this.behaviours.forEach(x -> x.destroy());
+    }
+
     /**
      * Removes all behaviours that have been flagged for destruction and calls
      * the
-     * {@link blackengine.gameLogic.components.prefab.behaviour.Behaviour#tick()  tick()}
-     * method on all behaviours that are present in this component.
+     * {@link blackengine.gameLogic.components.prefab.behaviour.Behaviour#tick(long)  tick(long)}
+     * method on all behaviours in this component that are awake. Afterwards,
+     * behaviours that can not call their consumer before a later time are put
+     * to sleep until then.
+     *
+     * Behaviours that are added or removed by a consumer during the update
+     * are added to or removed from the awake behaviours once all of them have
+     * been ticked. Removed behaviours are not ticked anymore in this update,
+     * added behaviours are ticked from the next update on.
      */
     @Override
     public void update() {
-        this.behaviours.removeIf(x -> x.isDestroyed());
-        this.behaviours.forEach(x -> x.tick());
+        long currentTime = LogicEngine.getInstance().getTimer().getCurrentTime();
+        boolean destroyed = false;
+        int kept = 0;
+        this.updating = true;
+        try {
+            for (int i = 0; i < this.awake.size(); i++) {
+                Behaviour behaviour = this.awake.get(i);
+                if (this.removedWhileUpdating.contains(behaviour)) {
+                    continue;
+                }
+                if (!behaviour.isDestroyed()) {
+                    behaviour.tick(currentTime);
+                }
+                if (behaviour.isDestroyed()) {
+                    destroyed = true;
+                    continue;
+                }
+                long nextTickTime = behaviour.getNextTickTime();
+                if (nextTickTime > currentTime) {
+                    behaviour.setWakeUp(LogicEngine.getInstance().getTimerWheel().schedule(nextTickTime, () -> this.wake(behaviour)));
+                    continue;
+                }
+                this.awake.set(kept++, behaviour);
+            }
+            this.awake.subList(kept, this.awake.size()).clear();
+        } finally {
+            this.updating = false;
+        }
+        this.applyChangesWhileUpdating();
+        if (destroyed) {
+            this.behaviours.removeIf(x -> {
+                if (x.isDestroyed()) {
+                    this.forget(x);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Removes the behaviours that were removed while updating from the awake
+     * behaviours, and adds the behaviours that were woken up while updating.
+     */
+    private void applyChangesWhileUpdating() {
+        if (!this.removedWhileUpdating.isEmpty()) {
+            this.awake.removeAll(this.removedWhileUpdating);
+            this.removedWhileUpdating.clear();
+        }
+        for (int i = 0; i < this.wokenWhileUpdating.size(); i++) {
+            this.wake(this.wokenWhileUpdating.get(i));
+        }
+        this.wokenWhileUpdating.clear();
+    }
+
+    /**
+     * Adds a behaviour to the behaviours that are awake, behind all awake
+     * behaviours with the same or a lower priority. While updating, the
+     * behaviour is only added once the update is done.
+     *
+     * @param behaviour The behaviour, which is not awake.
+     */
+    private void wake(Behaviour behaviour) {
+        behaviour.setWakeUp(null);
+        if (this.updating) {
+            this.wokenWhileUpdating.add(behaviour);
+            return;
+        }
+        int low = 0;
+        int high = this.awake.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.awake.get(middle).getPriority() <= behaviour.getPriority()) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        this.awake.add(low, behaviour);
+    }
+
+    /**
+     * Cancels the wake up of a behaviour that was removed from this component,
+     * or removes it from the behaviours that are awake. While updating, the
+     * behaviour is only removed from the awake behaviours once the update is
+     * done.
+     *
+     * @param behaviour The removed behaviour.
+     */
+    private void forget(Behaviour behaviour) {
+        behaviour.setEntity(null);
+        TimerWheel.Timeout wakeUp = behaviour.getWakeUp();
+        if (wakeUp != null) {
+            wakeUp.cancel();
+            behaviour.setWakeUp(null);
+        } else if (!this.updating) {
+            this.awake.remove(behaviour);
+        } else if (!this.wokenWhileUpdating.remove(behaviour)) {
+            this.removedWhileUpdating.add(behaviour);
+        }
     }
 
 }
@@ -6,7 +6,6 @@
 package blackengine.gameLogic.components.prefab.behaviour;
 
 import blackengine.gameLogic.Entity;
-import blackengine.gameLogic.LogicEngine;
 import java.util.function.Consumer;
 
 /**
@@ -19,21 +18,34 @@ public class IntervalBehaviour extends Behaviour {
 
     private long lastTick;
 
+    /**
+     * Whether the consumer has been called before.
+     */
+    private boolean ticked;
+
     protected IntervalBehaviour(String name, Consumer<Entity> consumer, long delay, long interval, float priority) {
         super(name, consumer, delay, priority);
         this.interval = interval;
         this.lastTick = 0;
+        this.ticked = false;
     }
 
     @Override
-    public boolean tick() {
-        if (LogicEngine.getInstance().getTimer().getCurrentTime() > this.lastTick + this.interval) {
-            if (super.tick()) {
-                this.lastTick = LogicEngine.getInstance().getTimer().getCurrentTime();
+    public boolean tick(long currentTime) {
+        if (!this.ticked || currentTime > this.lastTick + this.interval) {
+            if (super.tick(currentTime)) {
+                this.lastTick = currentTime;
+                this.ticked = true;
                 return true;
             }
         }
         return false;
     }
 
+    @Override
+    public long getNextTickTime() {
+        long nextTickTime = super.getNextTickTime();
+        return this.ticked ? Math.max(nextTickTime, this.lastTick + this.interval + 1) : nextTickTime;
+    }
+
 }
@@ -25,9 +25,9 @@ public class RepeatingIntervalBehaviour extends IntervalBehaviour {
     }
 
     @Override
-    public boolean tick() {
+    public boolean tick(long currentTime) {
         if (this.timesPassed < this.times) {
-            if (super.tick()) {
+            if (super.tick(currentTime)) {
                 this.timesPassed++;
                 return true;
             }
@@ -38,4 +38,9 @@ public class RepeatingIntervalBehaviour extends IntervalBehaviour {
         return false;
     }
 
+    @Override
+    public long getNextTickTime() {
+        return this.timesPassed < this.times ? super.getNextTickTime() : Long.MIN_VALUE;
+    }
+
 }
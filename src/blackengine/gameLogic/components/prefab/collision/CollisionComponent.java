@@ -26,9 +26,9 @@ package blackengine.gameLogic.components.prefab.collision;
 import blackengine.gameLogic.Entity;
 import blackengine.gameLogic.Transform;
 import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
 import org.lwjgl.util.vector.Vector3f;
 
 /**
@@ -39,6 +39,18 @@ public abstract class CollisionComponent extends ComponentBase {
 
     private Transform transform;
 
+    /**
+     * The entities found colliding during the last update, which is reused
+     * every update.
+     */
+    private final List<Entity> collidingEntities = new ArrayList<>();
+
+    /**
+     * The action checking a single other collision component, which is
+     * created once so that checking for collisions does not allocate.
+     */
+    private final Consumer<CollisionComponent> collisionCheck = this::checkCollision;
+
     public Transform getTransform() {
         return transform;
     }
@@ -53,21 +65,28 @@ public abstract class CollisionComponent extends ComponentBase {
     }
 
     private List<Entity> calculateCollisions() {
-        return this.getParent().getGameElement().flattened()
-                .filter(x -> !x.equals(this.getParent()))
-                .filter(x -> x.containsComponent(CollisionComponent.class))
-                .filter(x -> {
-                    if (this instanceof SphereCollisionComponent) {
-                        return x.getComponent(CollisionComponent.class).isColliding((SphereCollisionComponent) this);
-                    } else if (this instanceof BoxCollisionComponent) {
-                        return x.getComponent(CollisionComponent.class).isColliding((BoxCollisionComponent) this);
-                    } else if (this instanceof PlaneCollisionComponent) {
-                        return x.getComponent(CollisionComponent.class).isColliding((PlaneCollisionComponent) this);
-                    } else {
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
+        this.collidingEntities.clear();
+        this.getParent().getGameElement().query(CollisionComponent.class).forEach(CollisionComponent.class, this.collisionCheck);
+        return this.collidingEntities;
+    }
+
+    private void checkCollision(CollisionComponent other) {
+        if (other.getParent() == this.getParent()) {
+            return;
+        }
+        boolean colliding;
+        if (this instanceof SphereCollisionComponent) {
+            colliding = other.isColliding((SphereCollisionComponent) this);
+        } else if (this instanceof BoxCollisionComponent) {
+            colliding = other.isColliding((BoxCollisionComponent) this);
+        } else if (this instanceof PlaneCollisionComponent) {
+            colliding = other.isColliding((PlaneCollisionComponent) this);
+        } else {
+            colliding = false;
+        }
+        if (colliding) {
+            this.collidingEntities.add(other.getParent());
+        }
     }
 
     public abstract boolean isColliding(SphereCollisionComponent sphereCollisionComponent);
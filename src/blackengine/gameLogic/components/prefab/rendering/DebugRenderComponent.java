@@ -71,20 +71,21 @@ public class DebugRenderComponent extends POVRendereredComponentBase<DebugRender
 
     @Override
     public boolean isRendered() {
-        if(super.getRenderer() != null){
-            super.getRenderer().containsRenderTarget(this);
-        }
-        return false;
+        return this.isRenderable() && super.getRenderer().containsRenderTarget(this);
     }
 
     @Override
     public void onActivate() {
-        super.getRenderer().addRenderTarget(this);
+        if (this.isRenderable()) {
+            super.getRenderer().addRenderTarget(this);
+        }
     }
 
     @Override
     public void onDeactivate() {
-        super.getRenderer().removeRenderTarget(this);
+        if (this.isRenderable()) {
+            super.getRenderer().removeRenderTarget(this);
+        }
     }
 
     
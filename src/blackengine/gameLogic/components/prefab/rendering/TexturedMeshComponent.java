@@ -54,17 +54,21 @@ public class TexturedMeshComponent extends POVRendereredComponentBase<TexturedMe
 
     @Override
     public void onActivate() {
-        super.getRenderer().addRenderTarget(this);
+        if (this.isRenderable()) {
+            super.getRenderer().addRenderTarget(this);
+        }
     }
 
     @Override
     public void onDeactivate() {
-        super.getRenderer().removeRenderTarget(this);
+        if (this.isRenderable()) {
+            super.getRenderer().removeRenderTarget(this);
+        }
     }
 
     @Override
     public boolean isRendered() {
-        return super.getRenderer().containsRenderTarget(this);
+        return this.isRenderable() && super.getRenderer().containsRenderTarget(this);
     }
     
 }
@@ -0,0 +1,390 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * An instance of this class is a handle to a unit of work run by the
+ * {@link JobSystem JobSystem}. A job only starts once all jobs it depends on
+ * are done, and can itself be used as a dependency of other jobs. If a
+ * dependency fails, the job does not run, and fails with the same cause.
+ *
+ * @author Blackened
+ */
+public final class Job {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The job system running this job.
+     */
+    private final JobSystem system;
+
+    /**
+     * The work of this job, or null if it has none or runs over a range.
+     */
+    private final Runnable work;
+
+    /**
+     * The range of indices this job runs over, or null if it runs its work
+     * once.
+     */
+    private final Range range;
+
+    /**
+     * The amount of dependencies that are not done yet, plus one until all
+     * dependencies have been registered.
+     */
+    private final AtomicInteger pending;
+
+    /**
+     * The jobs waiting for this job, or null once this job is done.
+     */
+    private List<Job> dependents = new ArrayList<>(1);
+
+    /**
+     * The amount of threads blocked until this job is done.
+     */
+    private int waiters = 0;
+
+    /**
+     * Whether this job is done.
+     */
+    private volatile boolean done = false;
+
+    /**
+     * The cause of the failure of this job or of one of its dependencies, if
+     * any.
+     */
+    private volatile Throwable failure;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of Job.
+     *
+     * @param system The job system running this job.
+     * @param work The work of this job, or null if it has none or runs over a
+     * range.
+     * @param range The range of indices this job runs over, or null if it
+     * runs its work once.
+     * @param dependencies The jobs that have to be done before this job
+     * starts.
+     */
+    Job(JobSystem system, Runnable work, Range range, Job[] dependencies) {
+        this.system = system;
+        this.work = work;
+        this.range = range;
+        if (range != null) {
+            range.job = this;
+        }
+        this.pending = new AtomicInteger(dependencies.length + 1);
+        for (Job dependency : dependencies) {
+            if (!dependency.addDependent(this)) {
+                this.dependencyDone(dependency);
+            }
+        }
+        this.dependencyDone(null);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for whether this job is done, either because it has run or
+     * because it has failed.
+     *
+     * @return True if this job is done, false otherwise.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Getter for whether this job or one of its dependencies has failed.
+     *
+     * @return True if this job is done and has failed, false otherwise.
+     */
+    public boolean isFailed() {
+        return done && failure != null;
+    }
+
+    /**
+     * Getter for the cause of the failure of this job.
+     *
+     * @return The exception thrown by this job or one of its dependencies, or
+     * null if it has not failed.
+     */
+    public Throwable getFailure() {
+        return done ? failure : null;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Creates a continuation of this job, which runs the provided work once
+     * this job is done.
+     *
+     * @param work The work of the continuation.
+     * @return The job running the continuation.
+     */
+    public Job then(Runnable work) {
+        return this.system.submit(work, this);
+    }
+
+    /**
+     * Waits until this job is done. While waiting, the calling thread runs
+     * other jobs instead of blocking, so that waiting from inside a job or on
+     * the main thread does not keep any work from progressing.
+     *
+     * @throws RuntimeException If this job or one of its dependencies has
+     * failed, with the failure as its cause.
+     */
+    public void await() {
+        this.system.helpUntilDone(this);
+        if (this.failure != null) {
+            throw new RuntimeException("A job has failed.", this.failure);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Blocks the calling thread until this job is done, or until a short
+     * while has passed.
+     *
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    void block() throws InterruptedException {
+        synchronized (this) {
+            if (!this.done) {
+                this.waiters++;
+                try {
+                    this.wait(1);
+                } finally {
+                    this.waiters--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the work of this job, or the next chunks of its range, on the
+     * calling thread.
+     */
+    void run() {
+        if (this.range != null) {
+            this.range.run();
+            return;
+        }
+        try {
+            if (this.work != null) {
+                this.work.run();
+            }
+            this.complete(null);
+        } catch (Throwable ex) {
+            this.complete(ex);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Registers a job that waits for this job.
+     *
+     * @param dependent The job waiting for this job.
+     * @return False if this job is already done, true otherwise.
+     */
+    private boolean addDependent(Job dependent) {
+        synchronized (this) {
+            if (this.dependents != null) {
+                this.dependents.add(dependent);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notifies this job that one of its dependencies is done, and starts it
+     * if it was the last one.
+     *
+     * @param dependency The dependency that is done, or null once all
+     * dependencies have been registered.
+     */
+    private void dependencyDone(Job dependency) {
+        if (dependency != null && dependency.failure != null && this.failure == null) {
+            this.failure = dependency.failure;
+        }
+        if (this.pending.decrementAndGet() == 0) {
+            if (this.failure != null) {
+                this.complete(this.failure);
+            } else if (this.range != null) {
+                this.range.start();
+            } else {
+                this.system.schedule(new Task(this));
+            }
+        }
+    }
+
+    /**
+     * Marks this job as done, and notifies the jobs and threads waiting for
+     * it.
+     *
+     * @param failure The cause of the failure of this job, or null if it has
+     * succeeded.
+     */
+    private void complete(Throwable failure) {
+        this.failure = failure;
+        List<Job> waiting;
+        synchronized (this) {
+            this.done = true;
+            waiting = this.dependents;
+            this.dependents = null;
+            if (this.waiters > 0) {
+                this.notifyAll();
+            }
+        }
+        for (Job dependent : waiting) {
+            dependent.dependencyDone(this);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Range">
+    /**
+     * A range of indices that a job runs over in chunks. Once the job starts,
+     * it is run by several tasks at the same time, each taking the next chunk
+     * until none are left, so that threads that finish early take over the
+     * chunks of slower ones.
+     */
+    static class Range {
+
+        private final int from;
+
+        private final int to;
+
+        private final int grain;
+
+        private final IntConsumer body;
+
+        private final AtomicInteger nextChunk = new AtomicInteger();
+
+        private final AtomicInteger unfinishedChunks;
+
+        private volatile Throwable failure;
+
+        private Job job;
+
+        Range(int from, int to, int grain, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+            this.unfinishedChunks = new AtomicInteger(this.getChunkCount());
+        }
+
+        private int getChunkCount() {
+            return this.to <= this.from ? 0 : (int) (((long) this.to - this.from + this.grain - 1) / this.grain);
+        }
+
+        private void start() {
+            int chunks = this.getChunkCount();
+            if (chunks == 0) {
+                this.job.complete(null);
+                return;
+            }
+            int tasks = Math.min(chunks, this.job.system.getParallelism());
+            for (int i = 0; i < tasks; i++) {
+                this.job.system.schedule(new Task(this.job));
+            }
+        }
+
+        private void run() {
+            int chunks = this.getChunkCount();
+            int chunk;
+            while ((chunk = this.nextChunk.getAndIncrement()) < chunks) {
+                if (this.failure == null) {
+                    int start = this.from + chunk * this.grain;
+                    int end = (int) Math.min((long) start + this.grain, this.to);
+                    try {
+                        for (int i = start; i < end; i++) {
+                            this.body.accept(i);
+                        }
+                    } catch (Throwable ex) {
+                        this.failure = ex;
+                    }
+                }
+                if (this.unfinishedChunks.decrementAndGet() == 0) {
+                    this.job.complete(this.failure);
+                }
+            }
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Task">
+    /**
+     * The task running a job on the workers of the job system. Failures are
+     * recorded in the job, so the task itself always completes normally.
+     */
+    static final class Task extends ForkJoinTask<Void> {
+
+        private final Job job;
+
+        Task(Job job) {
+            this.job = job;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+        }
+
+        @Override
+        protected boolean exec() {
+            this.job.run();
+            return true;
+        }
+
+        /**
+         * Unschedules the next task queued by the calling worker thread, or
+         * one stolen from another worker if there is none.
+         *
+         * @return The task, or null if there is none.
+         */
+        static ForkJoinTask<?> pollWorkerTask() {
+            return ForkJoinTask.pollTask();
+        }
+    }
+    //</editor-fold>
+
+}
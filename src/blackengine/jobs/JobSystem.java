@@ -0,0 +1,297 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.jobs;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.IntConsumer;
+
+/**
+ * The job system runs {@link Job jobs} on a pool of work stealing worker
+ * threads. It is shared by the engine and the game, so that parallel work of
+ * every subsystem runs on the same workers instead of each using its own
+ * threads. Jobs are meant for short work within a frame; work that blocks,
+ * such as reading files, belongs in an async behaviour instead.
+ *
+ * Jobs scheduled from a worker are queued on that worker, and are stolen by
+ * idle workers. Waiting for a job, either from a worker or from any other
+ * thread, runs other jobs in the meantime.
+ *
+ * The workers are created the first time a job is scheduled, and stop when
+ * the job system is {@link #shutdown() shut down}, which the
+ * {@link blackengine.application.ApplicationManager ApplicationManager} does
+ * after the application has ended.
+ *
+ * @author Blackened
+ */
+public class JobSystem {
+
+    //<editor-fold defaultstate="collapsed" desc="Singleton">
+    private static final JobSystem INSTANCE = new JobSystem();
+
+    /**
+     * Getter for the job system shared by the engine and the game.
+     *
+     * @return The instance of the job system.
+     */
+    public static JobSystem getInstance() {
+        return INSTANCE;
+    }
+
+    private JobSystem() {
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The amount of worker threads.
+     */
+    private volatile int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The pool of worker threads, or null if it has not been created yet.
+     */
+    private volatile JobPool pool;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters and Setters">
+    /**
+     * Getter for the amount of worker threads.
+     *
+     * @return The amount of worker threads.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Setter for the amount of worker threads. This takes effect the next time
+     * the workers are created, so after the job system has been shut down.
+     *
+     * @param parallelism The amount of worker threads, at least 1.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Schedules a job running the provided work once all provided
+     * dependencies are done.
+     *
+     * @param work The work of the job.
+     * @param dependencies The jobs that have to be done before the job
+     * starts.
+     * @return The handle of the job.
+     */
+    public Job submit(Runnable work, Job... dependencies) {
+        return new Job(this, work, null, dependencies);
+    }
+
+    /**
+     * Creates a job that is done once all provided jobs are done, without any
+     * work of its own.
+     *
+     * @param jobs The jobs to combine.
+     * @return The handle of the job.
+     */
+    public Job whenAll(Job... jobs) {
+        return new Job(this, null, null, jobs);
+    }
+
+    /**
+     * Schedules a job running the provided body for every index in the
+     * provided range once all provided dependencies are done. The range is
+     * split in chunks of the provided size, which are taken by the workers one
+     * after the other.
+     *
+     * @param from The first index, inclusive.
+     * @param to The last index, exclusive.
+     * @param grain The amount of indices in a chunk, at least 1.
+     * @param body The body run for every index.
+     * @param dependencies The jobs that have to be done before the job
+     * starts.
+     * @return The handle of the job.
+     */
+    public Job parallelFor(int from, int to, int grain, IntConsumer body, Job... dependencies) {
+        return new Job(this, null, new Job.Range(from, to, Math.max(1, grain), body), dependencies);
+    }
+
+    /**
+     * Schedules a job running the provided body for every index in the
+     * provided range, split in about four chunks per worker.
+     *
+     * @param from The first index, inclusive.
+     * @param to The last index, exclusive.
+     * @param body The body run for every index.
+     * @return The handle of the job.
+     */
+    public Job parallelFor(int from, int to, IntConsumer body) {
+        long count = (long) to - from;
+        return this.parallelFor(from, to, (int) Math.max(1, count / (this.parallelism * 4L)), body);
+    }
+
+    /**
+     * Waits until all provided jobs are done, running other jobs in the
+     * meantime.
+     *
+     * @param jobs The jobs to wait for.
+     * @throws RuntimeException If one of the jobs has failed, with the failure
+     * as its cause.
+     */
+    public void awaitAll(Job... jobs) {
+        for (Job job : jobs) {
+            job.await();
+        }
+    }
+
+    /**
+     * Runs the provided fork join task on the workers and waits for its
+     * result. Called from a worker, the task runs on that worker like any
+     * forked task.
+     *
+     * @param <T> The type of the result.
+     * @param task The task to run.
+     * @return The result of the task.
+     */
+    public <T> T invoke(ForkJoinTask<T> task) {
+        ForkJoinPool jobPool = this.getPool();
+        if (ForkJoinTask.getPool() == jobPool) {
+            return task.invoke();
+        }
+        return jobPool.invoke(task);
+    }
+
+    /**
+     * Stops the workers once the jobs that were already scheduled are done.
+     * Jobs scheduled afterwards run on new workers.
+     */
+    public synchronized void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Schedules the provided task. On a worker, the task is queued on that
+     * worker, so that it runs next unless another worker steals it.
+     *
+     * @param task The task to schedule.
+     */
+    void schedule(ForkJoinTask<?> task) {
+        ForkJoinPool jobPool = this.getPool();
+        if (ForkJoinTask.getPool() == jobPool) {
+            task.fork();
+        } else {
+            jobPool.execute(task);
+        }
+    }
+
+    /**
+     * Runs other jobs on the calling thread until the provided job is done,
+     * and only blocks when there are no jobs to run. A thread that is not a
+     * worker only runs jobs that were scheduled from outside the workers, and
+     * leaves other fork join tasks to the workers.
+     *
+     * @param job The job to wait for.
+     */
+    void helpUntilDone(Job job) {
+        boolean interrupted = false;
+        while (!job.isDone()) {
+            JobPool jobPool = this.getPool();
+            ForkJoinTask<?> task;
+            if (ForkJoinTask.getPool() == jobPool) {
+                task = Job.Task.pollWorkerTask();
+            } else {
+                task = jobPool.pollSubmission();
+                if (task != null && !(task instanceof Job.Task)) {
+                    jobPool.execute(task);
+                    task = null;
+                }
+            }
+            if (task != null) {
+                task.quietlyInvoke();
+                continue;
+            }
+            try {
+                job.block();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Getter for the pool of worker threads, which is created if there is
+     * none.
+     *
+     * @return The pool of worker threads.
+     */
+    private JobPool getPool() {
+        JobPool jobPool = this.pool;
+        if (jobPool == null) {
+            synchronized (this) {
+                if (this.pool == null) {
+                    this.pool = new JobPool(this.parallelism);
+                }
+                jobPool = this.pool;
+            }
+        }
+        return jobPool;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="JobPool">
+    /**
+     * The pool of worker threads, which lets threads that wait for a job take
+     * tasks that were scheduled from outside the workers.
+     */
+    private static class JobPool extends ForkJoinPool {
+
+        JobPool(int parallelism) {
+            super(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Job-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+
+        @Override
+        protected ForkJoinTask<?> pollSubmission() {
+            return super.pollSubmission();
+        }
+    }
+    //</editor-fold>
+
+}
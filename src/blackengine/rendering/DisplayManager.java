@@ -48,11 +48,23 @@ public class DisplayManager {
 
     public void render() {
 
-        RenderEngine.getInstance().getMasterRenderer().render();
+        this.renderFrame();
 
         this.updateDisplay();
     }
 
+    /**
+     * Renders a frame with the master renderer, without showing it on the
+     * display.
+     */
+    public void renderFrame() {
+        RenderEngine.getInstance().getMasterRenderer().render();
+    }
+
+    /**
+     * Waits for the frame rate cap, and shows the rendered frame on the
+     * display.
+     */
     public void updateDisplay() {
 
         Display.sync(this.fpsCap);
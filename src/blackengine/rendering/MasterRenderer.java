@@ -25,6 +25,8 @@ package blackengine.rendering;
 
 import blackengine.rendering.renderers.POVRendererBase;
 import blackengine.rendering.renderers.FlatRendererBase;
+import blackengine.toolbox.profiling.ProfiledCall;
+import blackengine.toolbox.profiling.UpdateProfiler;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -56,6 +58,17 @@ public class MasterRenderer {
      * The camera that will be used to render the elements of the scene.
      */
     private Camera mainCamera;
+
+    /**
+     * The buffer from which is rendered when the logic runs on its own thread,
+     * or null if it runs on the render thread.
+     */
+    private volatile SnapshotBuffer snapshotBuffer;
+
+    /**
+     * The profiler recording the time spent per renderer class.
+     */
+    private final UpdateProfiler profiler = UpdateProfiler.getInstance();
     
     private float width = 0;
     
@@ -134,6 +147,30 @@ public class MasterRenderer {
         this.mainCamera = camera;
     }
 
+    /**
+     * Getter for the buffer from which is rendered when the logic runs on its
+     * own thread.
+     *
+     * @return The snapshot buffer, or null if the logic runs on the render
+     * thread.
+     */
+    public SnapshotBuffer getSnapshotBuffer() {
+        return snapshotBuffer;
+    }
+
+    /**
+     * Setter for the buffer from which is rendered when the logic runs on its
+     * own thread. While it is set, the main camera, all lights and all world
+     * matrices are read from the snapshot that was acquired last, instead of
+     * from the game state itself.
+     *
+     * @param snapshotBuffer The snapshot buffer, or null to render from the
+     * game state itself.
+     */
+    public void setSnapshotBuffer(SnapshotBuffer snapshotBuffer) {
+        this.snapshotBuffer = snapshotBuffer;
+    }
+
     /**
      * Default constructor for creating a new instance of MasterRenderer.
      */
@@ -237,16 +274,26 @@ public class MasterRenderer {
     /**
      * Calls the render method on all of the registered POV renderers present in
      * this instance of MasterRenderer, in the order provided by the
-     * RenderEngine.
+     * RenderEngine. If the
+     * {@link blackengine.toolbox.profiling.UpdateProfiler UpdateProfiler} is
+     * enabled, the time spent per renderer class is recorded, which is the
+     * time spent submitting work to OpenGL rather than the time the GPU takes.
      */
     private void renderPOV() {
-        if (this.mainCamera != null) {
+        SnapshotBuffer snapshots = this.snapshotBuffer;
+        Camera camera = snapshots != null ? snapshots.getReadSnapshot().getCamera() : this.mainCamera;
+        if (camera != null) {
+            boolean profiling = this.profiler.isEnabled();
             Iterator<Class<? extends POVRendererBase>> iter = RenderEngine.getInstance().getPOVRendererIterator();
 
             while (iter.hasNext()) {
                 Class<? extends POVRendererBase> rendererClass = iter.next();
                 if (this.containsPOVRendererByClass(rendererClass)) {
-                    this.getPOVRenderer(rendererClass).render(this.mainCamera);
+                    long start = profiling ? System.nanoTime() : 0;
+                    this.getPOVRenderer(rendererClass).render(camera);
+                    if (profiling) {
+                        this.profiler.record(ProfiledCall.RENDER, rendererClass, 1, System.nanoTime() - start);
+                    }
                 }
             }
         }
@@ -258,12 +305,17 @@ public class MasterRenderer {
      * RenderEngine.
      */
     private void renderFlat() {
+        boolean profiling = this.profiler.isEnabled();
         Iterator<Class<? extends FlatRendererBase>> iter = RenderEngine.getInstance().getFlatRendererIterator();
 
         while (iter.hasNext()) {
             Class<? extends FlatRendererBase> rendererClass = iter.next();
             if (this.containsFlatRendererByClass(rendererClass)) {
+                long start = profiling ? System.nanoTime() : 0;
                 this.getFlatRenderer(rendererClass).render();
+                if (profiling) {
+                    this.profiler.record(ProfiledCall.RENDER, rendererClass, 1, System.nanoTime() - start);
+                }
             }
         }
     }
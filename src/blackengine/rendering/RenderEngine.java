@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Stream;
@@ -52,6 +53,17 @@ public class RenderEngine {
         throw new RenderEngineNotCreatedException();
     }
 
+    /**
+     * Checks whether the render engine has been created. It is not created in
+     * a headless application, in which case all rendered components do
+     * nothing.
+     *
+     * @return True if the render engine has been created, false otherwise.
+     */
+    public static boolean isCreated() {
+        return INSTANCE != null;
+    }
+
     protected static void create() {
         INSTANCE = new RenderEngine();
     }
@@ -150,14 +162,30 @@ public class RenderEngine {
     private final ArrayList<Light> lights;
 
     /**
-     * Retrieves a stream of all lights that can be used for rendering.
+     * Retrieves a stream of all lights that can be used for rendering. While
+     * the master renderer renders from a
+     * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}, these are
+     * the copies of the lights stored in the snapshot being rendered.
      *
      * @return
      */
     public Stream<Light> getLightStream() {
+        SnapshotBuffer snapshotBuffer = this.masterRenderer.getSnapshotBuffer();
+        if (snapshotBuffer != null) {
+            return snapshotBuffer.getReadSnapshot().getLights().stream();
+        }
         return lights.stream();
     }
 
+    /**
+     * Getter for the list of all lights that can be used for rendering.
+     *
+     * @return The list of lights.
+     */
+    List<Light> getLights() {
+        return lights;
+    }
+
     /**
      * Adds a light to the render engine.
      *
@@ -0,0 +1,236 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.rendering;
+
+import blackengine.rendering.lighting.Light;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * An instance of this class holds a copy of the render state of a single
+ * logic frame that is not stored in transforms: the main camera and all
+ * lights. It is written on the logic thread and read on the render thread,
+ * which never happens at the same time as it is handed over by a
+ * {@link blackengine.rendering.SnapshotBuffer SnapshotBuffer}.
+ *
+ * @author Blackened
+ */
+public class RenderSnapshot {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The slot of this snapshot in its buffer.
+     */
+    private final int slot;
+
+    /**
+     * The number of the logic frame stored in this snapshot, or 0 if no frame
+     * was stored yet.
+     */
+    private long frame = 0;
+
+    /**
+     * The copy of the main camera.
+     */
+    private final CameraCopy camera = new CameraCopy();
+
+    /**
+     * Whether a main camera was present when this snapshot was stored.
+     */
+    private boolean cameraPresent = false;
+
+    /**
+     * The copies of all lights, of which only the first lightCount are in use.
+     */
+    private final List<LightCopy> lightCopies = new ArrayList<>();
+
+    /**
+     * The amount of lights stored in this snapshot.
+     */
+    private int lightCount = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the slot of this snapshot in its buffer.
+     *
+     * @return The index of the slot.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Getter for the number of the logic frame stored in this snapshot.
+     *
+     * @return The frame number, or 0 if no frame was stored yet.
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * Getter for the copy of the main camera.
+     *
+     * @return The camera as it was at the end of the stored frame, or null if
+     * there was no main camera.
+     */
+    public Camera getCamera() {
+        return this.cameraPresent ? this.camera : null;
+    }
+
+    /**
+     * Getter for the copies of all lights.
+     *
+     * @return An unmodifiable list of the lights as they were at the end of the
+     * stored frame.
+     */
+    public List<Light> getLights() {
+        return Collections.unmodifiableList(this.lightCopies.subList(0, this.lightCount));
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of RenderSnapshot.
+     *
+     * @param slot The slot of the snapshot in its buffer.
+     */
+    RenderSnapshot(int slot) {
+        this.slot = slot;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Package Private Methods">
+    /**
+     * Copies the main camera and all lights into this snapshot.
+     *
+     * @param frame The number of the logic frame.
+     * @param mainCamera The main camera, or null if there is none.
+     * @param lights All lights.
+     */
+    void store(long frame, Camera mainCamera, List<Light> lights) {
+        this.frame = frame;
+        this.cameraPresent = mainCamera != null;
+        if (mainCamera != null) {
+            this.camera.set(mainCamera);
+        }
+        while (this.lightCopies.size() < lights.size()) {
+            this.lightCopies.add(new LightCopy());
+        }
+        for (int i = 0; i < lights.size(); i++) {
+            this.lightCopies.get(i).set(lights.get(i));
+        }
+        this.lightCount = lights.size();
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Copies">
+    /**
+     * A copy of the values of a camera.
+     */
+    private static class CameraCopy implements Camera {
+
+        private final Matrix4f viewMatrix = new Matrix4f();
+
+        private final Vector3f position = new Vector3f();
+
+        private double pitch;
+
+        private double yaw;
+
+        private double roll;
+
+        private void set(Camera camera) {
+            this.viewMatrix.load(camera.getViewMatrix());
+            this.position.set(camera.getPosition());
+            this.pitch = camera.getPitch();
+            this.yaw = camera.getYaw();
+            this.roll = camera.getRoll();
+        }
+
+        @Override
+        public Matrix4f getViewMatrix() {
+            return this.viewMatrix;
+        }
+
+        @Override
+        public Vector3f getPosition() {
+            return this.position;
+        }
+
+        @Override
+        public double getYaw() {
+            return this.yaw;
+        }
+
+        @Override
+        public double getRoll() {
+            return this.roll;
+        }
+
+        @Override
+        public double getPitch() {
+            return this.pitch;
+        }
+    }
+
+    /**
+     * A copy of the values of a light.
+     */
+    private static class LightCopy implements Light {
+
+        private final Vector3f attenuation = new Vector3f();
+
+        private final Vector3f position = new Vector3f();
+
+        private final Vector3f colour = new Vector3f();
+
+        private void set(Light light) {
+            this.attenuation.set(light.getAttenuation());
+            this.position.set(light.getPosition());
+            this.colour.set(light.getColour());
+        }
+
+        @Override
+        public Vector3f getAttenuation() {
+            return this.attenuation;
+        }
+
+        @Override
+        public Vector3f getPosition() {
+            return this.position;
+        }
+
+        @Override
+        public Vector3f getColour() {
+            return this.colour;
+        }
+    }
+    //</editor-fold>
+
+}
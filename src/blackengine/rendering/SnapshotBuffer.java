@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.rendering;
+
+import blackengine.gameLogic.GameElement;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An instance of this class hands the render state of finished logic frames
+ * from the logic thread to the render thread without either thread waiting
+ * for the other. It keeps three snapshots: one being written by the logic
+ * thread, one being read by the render thread, and the most recently
+ * published one in between, which the two threads swap with their own.
+ *
+ * The world matrices of all transforms are stored in the transforms
+ * themselves, one per slot, and can be retrieved with
+ * {@link blackengine.gameLogic.Transform#getSnapshotMatrix(int, long) Transform.getSnapshotMatrix(int, long)}.
+ *
+ * @author Blackened
+ */
+public class SnapshotBuffer {
+
+    /**
+     * The amount of snapshots in a buffer.
+     */
+    public static final int SLOT_COUNT = 3;
+
+    /**
+     * The bit flagging that the published slot has not been read yet.
+     */
+    private static final int FRESH = 1 << 2;
+
+    /**
+     * The bits containing the index of the published slot.
+     */
+    private static final int SLOT_MASK = FRESH - 1;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * All snapshots, indexed by their slot.
+     */
+    private final RenderSnapshot[] snapshots = new RenderSnapshot[SLOT_COUNT];
+
+    /**
+     * The slot of the most recently published snapshot, combined with the
+     * fresh flag.
+     */
+    private final AtomicInteger published = new AtomicInteger(1);
+
+    /**
+     * The slot being written by the logic thread.
+     */
+    private int writeSlot = 0;
+
+    /**
+     * The slot being read by the render thread.
+     */
+    private int readSlot = 2;
+
+    /**
+     * The number of the last logic frame that was published.
+     */
+    private long frameCount = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the snapshot currently being read by the render thread.
+     *
+     * @return The snapshot that was acquired last.
+     */
+    public RenderSnapshot getReadSnapshot() {
+        return this.snapshots[this.readSlot];
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of SnapshotBuffer.
+     */
+    public SnapshotBuffer() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            this.snapshots[i] = new RenderSnapshot(i);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Stores the render state of the active scene and user interface of the
+     * game manager, and publishes it to the render thread. This must only be
+     * called from the logic thread, after the frame has been updated.
+     *
+     * @param gameManager The game manager of which the state is stored, or
+     * null to only store the camera and lights.
+     */
+    public void publish(GameManager gameManager) {
+        long frame = ++this.frameCount;
+        int slot = this.writeSlot;
+        float alpha = LogicEngine.getInstance().getTimer().getInterpolationAlpha();
+
+        if (gameManager != null) {
+            this.store(gameManager.getActiveScene(), slot, frame, alpha);
+            this.store(gameManager.getActiveUserInterface(), slot, frame, alpha);
+        }
+        RenderEngine engine = RenderEngine.getInstance();
+        this.snapshots[slot].store(frame, engine.getMasterRenderer().getMainCamera(), engine.getLights());
+
+        this.writeSlot = this.published.getAndSet(slot | FRESH) & SLOT_MASK;
+    }
+
+    /**
+     * Makes the most recently published snapshot the one being read, if it
+     * was not read before. This must only be called from the render thread,
+     * before a frame is rendered.
+     *
+     * @return True if a new snapshot was acquired, false if the previous one
+     * is still the most recent.
+     */
+    public boolean acquire() {
+        if ((this.published.get() & FRESH) == 0) {
+            return false;
+        }
+        this.readSlot = this.published.getAndSet(this.readSlot) & SLOT_MASK;
+        return true;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Stores the world matrices of all transforms of a game element.
+     */
+    private void store(GameElement element, int slot, long frame, float alpha) {
+        if (element != null) {
+            element.getComponentStore().getTransformHierarchy().storeSnapshot(slot, frame, alpha);
+        }
+    }
+    //</editor-fold>
+
+}
@@ -40,11 +40,11 @@ import blackengine.openGL.vao.Vao;
 import blackengine.openGL.vao.VaoLoader;
 import static blackengine.openGL.vao.vbo.AttributeType.*;
 import blackengine.rendering.Camera;
+import blackengine.rendering.RenderEngine;
 import blackengine.rendering.renderers.TargetPOVRenderer;
-import blackengine.toolbox.math.MatrixMath;
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.lwjgl.opengl.GL11;
 import static org.lwjgl.opengl.GL11.GL_FILL;
 import static org.lwjgl.opengl.GL11.GL_FRONT_AND_BACK;
@@ -99,7 +99,7 @@ public class DebugRenderer extends TargetPOVRenderer<DebugRenderComponent> {
     protected DebugRenderer(GameManager gameManager) {
 
         this.gameManager = gameManager;
-        this.renderTargets = new HashSet<>();
+        this.renderTargets = ConcurrentHashMap.newKeySet();
     }
 
     @Override
@@ -113,11 +113,18 @@ public class DebugRenderer extends TargetPOVRenderer<DebugRenderComponent> {
             this.renderGrid(cameraDistance);
         }
 
-        if (this.renderCollidersEnabled) {
+        // The colliders are read from the game state itself, which is only
+        // safe while the logic runs on the render thread.
+        if (this.renderCollidersEnabled && RenderEngine.getInstance().getMasterRenderer().getSnapshotBuffer() == null) {
             this.renderColliders();
         }
 
         this.renderTargets.forEach(x -> {
+            Entity parent = x.getParent();
+            Matrix4f transformationMatrix = parent != null ? this.getTransformationMatrix(parent.getTransform()) : null;
+            if (transformationMatrix == null) {
+                return;
+            }
             x.getVao().bind();
 
             boolean unbindTexture = false;
@@ -133,7 +140,6 @@ public class DebugRenderer extends TargetPOVRenderer<DebugRenderComponent> {
                 this.loadUniformVector3f("colour", new Vector3f(1,1,1));
             }
 
-            Matrix4f transformationMatrix = MatrixMath.createTransformationMatrix(x.getParent().getTransform().getAbsolutePosition(), x.getParent().getTransform().getAbsoluteEulerRotation(), x.getParent().getTransform().getAbsoluteScale());
             this.loadUniformMatrix("transformationMatrix", transformationMatrix);
 
             GL11.glDrawElements(GL11.GL_TRIANGLES, x.getVao().getVertexCount(), GL11.GL_UNSIGNED_INT, 0);
@@ -163,11 +169,7 @@ public class DebugRenderer extends TargetPOVRenderer<DebugRenderComponent> {
             this.loadUniformVector3f("colour", new Vector3f(1,1,1));
         }
 
-        Matrix4f transformationMatrix = MatrixMath.createTransformationMatrix(
-                this.grid.getTransform().getAbsolutePosition(),
-                this.grid.getTransform().getAbsoluteEulerRotation(),
-                this.grid.getTransform().getAbsoluteScale());
-        this.loadUniformMatrix("transformationMatrix", transformationMatrix);
+        this.loadUniformMatrix("transformationMatrix", this.grid.getTransform().getWorldMatrix());
 
         GL11.glDrawElements(GL11.GL_TRIANGLES, meshComp.getVao().getVertexCount(), GL11.GL_UNSIGNED_INT, 0);
         if (unbindTexture) {
@@ -182,10 +184,9 @@ public class DebugRenderer extends TargetPOVRenderer<DebugRenderComponent> {
         GL11.glPolygonMode(GL_FRONT_AND_BACK, GL_LINE);
         this.loadUniformBool("textured", false);
         this.loadUniformVector3f("colour", new Vector3f(0,1,0));
-        activeScene.flattened().filter(x -> x.containsComponent(CollisionComponent.class)).map(x -> x.getComponent(CollisionComponent.class)).forEach(x -> {
+        activeScene.query(CollisionComponent.class).forEach(CollisionComponent.class, x -> {
             if (x instanceof BoxCollisionComponent) {
-                Matrix4f transformationMatrix = MatrixMath.createTransformationMatrix(x.getTransform().getAbsolutePosition(), x.getTransform().getAbsoluteEulerRotation(), x.getTransform().getAbsoluteScale());
-                this.loadUniformMatrix("transformationMatrix", transformationMatrix);
+                this.loadUniformMatrix("transformationMatrix", x.getTransform().getWorldMatrix());
                 GL11.glDrawElements(GL11.GL_TRIANGLES, unitCube.getVertexCount(), GL11.GL_UNSIGNED_INT, 0);
             }
         });
@@ -227,7 +228,7 @@ public class DebugRenderer extends TargetPOVRenderer<DebugRenderComponent> {
         this.renderTargets.forEach(x -> {
             x.setRenderer(null);
         });
-        this.renderTargets = new HashSet<>();
+        this.renderTargets = ConcurrentHashMap.newKeySet();
         super.destroy();
     }
 
@@ -24,6 +24,7 @@
 package blackengine.rendering.prefab.texturedRendering;
 
 import blackengine.dataAccess.tools.PlainTextLoader;
+import blackengine.gameLogic.Entity;
 import blackengine.gameLogic.components.prefab.rendering.TexturedMeshComponent;
 import static blackengine.openGL.vao.vbo.AttributeType.NORMAL_VECTORS;
 import static blackengine.openGL.vao.vbo.AttributeType.TEXTURE_COORDS;
@@ -32,12 +33,11 @@ import blackengine.rendering.Camera;
 import blackengine.rendering.RenderEngine;
 import blackengine.rendering.lighting.Light;
 import blackengine.rendering.renderers.TargetPOVRenderer;
-import blackengine.toolbox.math.MatrixMath;
 import blackengine.toolbox.math.VectorMath;
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
@@ -55,7 +55,7 @@ public class TexturedMeshRenderer extends TargetPOVRenderer<TexturedMeshComponen
     protected int maxLights = 6;
 
     protected TexturedMeshRenderer() {
-        this.targets = new HashSet<>();
+        this.targets = ConcurrentHashMap.newKeySet();
     }
 
     @Override
@@ -78,9 +78,13 @@ public class TexturedMeshRenderer extends TargetPOVRenderer<TexturedMeshComponen
         Matrix4f viewMatrix = camera.getViewMatrix();
         this.initializeRendering(viewMatrix);
         this.targets.forEach(x -> {
+            Entity parent = x.getParent();
+            Matrix4f transformationMatrix = parent != null ? this.getTransformationMatrix(parent.getTransform()) : null;
+            if (transformationMatrix == null) {
+                return;
+            }
             x.getVao().bind();
             x.getTexture().bindToUnit(GL13.GL_TEXTURE0);
-            Matrix4f transformationMatrix = MatrixMath.createTransformationMatrix(x.getParent().getTransform().getAbsolutePosition(), x.getParent().getTransform().getAbsoluteEulerRotation(), x.getParent().getTransform().getAbsoluteScale());
             this.loadUniformMatrix("transformationMatrix", transformationMatrix);
             this.loadUniformLights(this.getLights(camera.getPosition()));
             GL11.glDrawElements(GL11.GL_TRIANGLES, x.getVao().getVertexCount(), GL11.GL_UNSIGNED_INT, 0);
@@ -23,6 +23,11 @@
  */
 package blackengine.rendering.renderers;
 
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Transform;
+import blackengine.rendering.RenderEngine;
+import blackengine.rendering.RenderSnapshot;
+import blackengine.rendering.SnapshotBuffer;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -70,6 +75,11 @@ public abstract class RendererBase {
      * their name.
      */
     private Map<String, Integer> uniformLocations = new HashMap<>();
+
+    /**
+     * A reusable buffer for loading matrices into uniform variables.
+     */
+    private final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Constructors">
@@ -129,6 +139,25 @@ public abstract class RendererBase {
         GL20.glBindAttribLocation(programID, attribute, variableName);
     }
 
+    /**
+     * Retrieves the matrix with which a transform is rendered. When the logic
+     * runs on its own thread, this is the world matrix stored in the snapshot
+     * being rendered. Otherwise, it is the world matrix interpolated between
+     * the last two simulation steps.
+     *
+     * @param transform The transform that is rendered.
+     * @return The transformation matrix, or null if the transform was not
+     * part of the snapshot being rendered.
+     */
+    protected Matrix4f getTransformationMatrix(Transform transform) {
+        SnapshotBuffer snapshotBuffer = RenderEngine.getInstance().getMasterRenderer().getSnapshotBuffer();
+        if (snapshotBuffer != null) {
+            RenderSnapshot snapshot = snapshotBuffer.getReadSnapshot();
+            return transform.getSnapshotMatrix(snapshot.getSlot(), snapshot.getFrame());
+        }
+        return transform.getInterpolatedWorldMatrix(LogicEngine.getInstance().getTimer().getInterpolationAlpha());
+    }
+
     /**
      * Loads a matrix to the uniform variable in the specified location by
      * converting it to a float buffer first.
@@ -140,10 +169,10 @@ public abstract class RendererBase {
      */
     protected void loadUniformMatrix(String uniformName, Matrix4f matrix) {
         int uniformLocation = this.getUniformLocation(uniformName);
-        FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
-        matrix.store(matrixBuffer);
-        matrixBuffer.flip();
-        GL20.glUniformMatrix4(uniformLocation, false, matrixBuffer);
+        this.matrixBuffer.clear();
+        matrix.store(this.matrixBuffer);
+        this.matrixBuffer.flip();
+        GL20.glUniformMatrix4(uniformLocation, false, this.matrixBuffer);
     }
     
     protected void loadUniformBool(String uniformName, boolean value){
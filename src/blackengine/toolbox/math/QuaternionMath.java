@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.toolbox.math;
+
+import org.lwjgl.util.vector.Matrix3f;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ * Contains conversions between quaternions, rotation matrices and Euler
+ * rotations. Euler rotations are in degrees, and rotate around the x, y and z
+ * axis in the same order as
+ * {@link blackengine.toolbox.math.MatrixMath#createRotationMatrix(org.lwjgl.util.vector.Vector3f) MatrixMath.createRotationMatrix(...)}.
+ *
+ * @author Blackened
+ */
+public class QuaternionMath {
+
+    /**
+     * Sets the destination quaternion to the rotation described by the Euler
+     * rotation.
+     *
+     * @param eulerRotation The Euler rotation in degrees.
+     * @param dest The quaternion that will hold the rotation.
+     * @return The destination quaternion.
+     */
+    public static Quaternion fromEuler(Vector3f eulerRotation, Quaternion dest) {
+        double x = Math.toRadians(eulerRotation.x) / 2;
+        double y = Math.toRadians(eulerRotation.y) / 2;
+        double z = Math.toRadians(eulerRotation.z) / 2;
+        float sx = (float) Math.sin(x), cx = (float) Math.cos(x);
+        float sy = (float) Math.sin(y), cy = (float) Math.cos(y);
+        float sz = (float) Math.sin(z), cz = (float) Math.cos(z);
+
+        // The rotation around x followed by y, as a quaternion.
+        float px = sx * cy;
+        float py = cx * sy;
+        float pz = sx * sy;
+        float pw = cx * cy;
+
+        // Followed by the rotation around z.
+        dest.set(px * cz + py * sz,
+                py * cz - px * sz,
+                pz * cz + pw * sz,
+                pw * cz - pz * sz);
+        return dest;
+    }
+
+    /**
+     * Sets the destination matrix to the rotation matrix of the unit
+     * quaternion.
+     *
+     * @param rotation The unit quaternion.
+     * @param dest The matrix that will hold the rotation.
+     * @return The destination matrix.
+     */
+    public static Matrix3f toRotationMatrix(Quaternion rotation, Matrix3f dest) {
+        float x = rotation.x, y = rotation.y, z = rotation.z, w = rotation.w;
+        dest.m00 = 1 - 2 * (y * y + z * z);
+        dest.m10 = 2 * (x * y - z * w);
+        dest.m20 = 2 * (x * z + y * w);
+        dest.m01 = 2 * (x * y + z * w);
+        dest.m11 = 1 - 2 * (x * x + z * z);
+        dest.m21 = 2 * (y * z - x * w);
+        dest.m02 = 2 * (x * z - y * w);
+        dest.m12 = 2 * (y * z + x * w);
+        dest.m22 = 1 - 2 * (x * x + y * y);
+        return dest;
+    }
+
+    /**
+     * Sets the destination vector to the Euler rotation described by the
+     * rotation matrix. When the rotation around y is close to 90 degrees, the
+     * rotation around z is set to 0.
+     *
+     * @param rotation The rotation matrix.
+     * @param dest The vector that will hold the Euler rotation in degrees.
+     * @return The destination vector.
+     */
+    public static Vector3f toEuler(Matrix3f rotation, Vector3f dest) {
+        float sinY = Math.max(-1, Math.min(1, rotation.m20));
+        double y = Math.asin(sinY);
+        double x;
+        double z;
+        if (Math.abs(sinY) < 0.99999f) {
+            x = Math.atan2(-rotation.m21, rotation.m22);
+            z = Math.atan2(-rotation.m10, rotation.m00);
+        } else {
+            x = Math.atan2(rotation.m12, rotation.m11);
+            z = 0;
+        }
+        dest.set((float) Math.toDegrees(x), (float) Math.toDegrees(y), (float) Math.toDegrees(z));
+        return dest;
+    }
+
+    /**
+     * Rotates a vector by the rotation matrix.
+     *
+     * @param rotation The rotation matrix.
+     * @param vector The vector to rotate.
+     * @param dest The vector that will hold the result, which may be the same
+     * instance as the vector to rotate.
+     * @return The destination vector.
+     */
+    public static Vector3f rotate(Matrix3f rotation, Vector3f vector, Vector3f dest) {
+        float x = rotation.m00 * vector.x + rotation.m10 * vector.y + rotation.m20 * vector.z;
+        float y = rotation.m01 * vector.x + rotation.m11 * vector.y + rotation.m21 * vector.z;
+        float z = rotation.m02 * vector.x + rotation.m12 * vector.y + rotation.m22 * vector.z;
+        dest.set(x, y, z);
+        return dest;
+    }
+
+    /**
+     * Rotates a vector by the inverse of the rotation matrix, which is its
+     * transpose.
+     *
+     * @param rotation The rotation matrix.
+     * @param vector The vector to rotate.
+     * @param dest The vector that will hold the result, which may be the same
+     * instance as the vector to rotate.
+     * @return The destination vector.
+     */
+    public static Vector3f inverseRotate(Matrix3f rotation, Vector3f vector, Vector3f dest) {
+        float x = rotation.m00 * vector.x + rotation.m01 * vector.y + rotation.m02 * vector.z;
+        float y = rotation.m10 * vector.x + rotation.m11 * vector.y + rotation.m12 * vector.z;
+        float z = rotation.m20 * vector.x + rotation.m21 * vector.y + rotation.m22 * vector.z;
+        dest.set(x, y, z);
+        return dest;
+    }
+
+    /**
+     * Interpolates between two unit quaternions along the shortest path, and
+     * normalizes the result. For the small differences between two successive
+     * simulation steps, this is indistinguishable from a spherical linear
+     * interpolation.
+     *
+     * @param from The rotation at an alpha of 0.
+     * @param to The rotation at an alpha of 1.
+     * @param alpha The interpolation factor, between 0 and 1.
+     * @param dest The quaternion that will hold the result, which may be the
+     * same instance as either rotation.
+     * @return The destination quaternion.
+     */
+    public static Quaternion nlerp(Quaternion from, Quaternion to, float alpha, Quaternion dest) {
+        float dot = from.x * to.x + from.y * to.y + from.z * to.z + from.w * to.w;
+        float beta = 1 - alpha;
+        float sign = dot < 0 ? -alpha : alpha;
+        float x = beta * from.x + sign * to.x;
+        float y = beta * from.y + sign * to.y;
+        float z = beta * from.z + sign * to.z;
+        float w = beta * from.w + sign * to.w;
+        float length = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        dest.set(x / length, y / length, z / length, w / length);
+        return dest;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.toolbox.profiling;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * An instance of this class holds the accumulated count and duration of the
+ * calls of a single kind to a single class, as collected by the
+ * {@link blackengine.toolbox.profiling.UpdateProfiler UpdateProfiler}.
+ * Instances are immutable, and are exposed over JMX as composite data.
+ *
+ * @author Blackened
+ */
+public class ProfileSample {
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The name of the profiled class.
+     */
+    private final String className;
+
+    /**
+     * The name of the kind of call.
+     */
+    private final String call;
+
+    /**
+     * The amount of calls.
+     */
+    private final long calls;
+
+    /**
+     * The total duration of all calls in nanoseconds.
+     */
+    private final long totalNanos;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the name of the profiled class.
+     *
+     * @return The fully qualified class name.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Getter for the name of the kind of call.
+     *
+     * @return The name of a {@link blackengine.toolbox.profiling.ProfiledCall ProfiledCall}.
+     */
+    public String getCall() {
+        return call;
+    }
+
+    /**
+     * Getter for the amount of calls.
+     *
+     * @return The amount of calls.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Getter for the total duration of all calls.
+     *
+     * @return The total duration in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Getter for the mean duration of a single call.
+     *
+     * @return The mean duration in nanoseconds, or 0 if there were no calls.
+     */
+    public long getMeanNanos() {
+        return this.calls > 0 ? this.totalNanos / this.calls : 0;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of ProfileSample.
+     *
+     * @param className The name of the profiled class.
+     * @param call The name of the kind of call.
+     * @param calls The amount of calls.
+     * @param totalNanos The total duration of all calls in nanoseconds.
+     */
+    @ConstructorProperties({"className", "call", "calls", "totalNanos"})
+    public ProfileSample(String className, String call, long calls, long totalNanos) {
+        this.className = className;
+        this.call = call;
+        this.calls = calls;
+        this.totalNanos = totalNanos;
+    }
+    //</editor-fold>
+
+    @Override
+    public String toString() {
+        return this.call + " " + this.className + ": " + this.calls + " calls, " + this.totalNanos + " ns";
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.toolbox.profiling;
+
+import java.util.Arrays;
+
+/**
+ * An instance of this class keeps a histogram of the most recently recorded
+ * durations, from which percentiles can be read at any time. Like an HDR
+ * histogram, durations are counted in buckets that grow exponentially in
+ * width, so that every bucket covers a range of at most about 3% of its
+ * values, while recording and removing a duration only takes constant time.
+ *
+ * The histogram covers a rolling window: once it is full, recording a
+ * duration removes the oldest one. All methods may be called from any thread.
+ *
+ * @author Blackened
+ */
+public class RollingHistogram {
+
+    /**
+     * The amount of bits of each value used to select a bucket within its
+     * power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The amount of buckets within each power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The total amount of buckets, covering all positive long values.
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * The amount of recorded durations in each bucket.
+     */
+    private final int[] counts = new int[BUCKET_COUNT];
+
+    /**
+     * The recorded durations in the window, in the order in which they were
+     * recorded.
+     */
+    private final long[] window;
+
+    /**
+     * The index in the window at which the next duration is recorded.
+     */
+    private int next = 0;
+
+    /**
+     * The amount of durations in the window.
+     */
+    private int size = 0;
+
+    /**
+     * The sum of all durations in the window.
+     */
+    private long sum = 0;
+
+    /**
+     * The total amount of durations ever recorded.
+     */
+    private long totalCount = 0;
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters">
+    /**
+     * Getter for the maximum amount of durations in the window.
+     *
+     * @return The size of the window.
+     */
+    public int getWindowSize() {
+        return this.window.length;
+    }
+
+    /**
+     * Getter for the amount of durations currently in the window.
+     *
+     * @return The amount of durations.
+     */
+    public synchronized int getCount() {
+        return size;
+    }
+
+    /**
+     * Getter for the total amount of durations ever recorded.
+     *
+     * @return The amount of durations, including the ones that left the
+     * window.
+     */
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Getter for the mean of the durations in the window.
+     *
+     * @return The mean duration, or 0 if the window is empty.
+     */
+    public synchronized long getMean() {
+        return this.size > 0 ? this.sum / this.size : 0;
+    }
+
+    /**
+     * Getter for the longest duration in the window. Unlike the percentiles,
+     * this is exact.
+     *
+     * @return The longest duration, or 0 if the window is empty.
+     */
+    public synchronized long getMax() {
+        long max = 0;
+        for (int i = 0; i < this.size; i++) {
+            max = Math.max(max, this.window[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Getter for a percentile of the durations in the window. The result is
+     * the highest value of the bucket containing the percentile, which is at
+     * most about 3% higher than the actual duration.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The duration at or below which the specified percentage of the
+     * durations in the window lie, or 0 if the window is empty.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (this.size == 0) {
+            return 0;
+        }
+        double clamped = Math.max(0, Math.min(100, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100 * this.size));
+        long max = this.getMax();
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += this.counts[i];
+            if (count >= target) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Default constructor for creating a new instance of RollingHistogram.
+     *
+     * @param windowSize The maximum amount of durations in the window.
+     */
+    public RollingHistogram(int windowSize) {
+        this.window = new long[Math.max(1, windowSize)];
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Records a duration, removing the oldest duration from the window if it
+     * is full.
+     *
+     * @param duration The duration, of which negative values are recorded as
+     * 0.
+     */
+    public synchronized void record(long duration) {
+        long value = Math.max(0, duration);
+        if (this.size == this.window.length) {
+            long oldest = this.window[this.next];
+            this.counts[bucketOf(oldest)]--;
+            this.sum -= oldest;
+        } else {
+            this.size++;
+        }
+        this.window[this.next] = value;
+        this.counts[bucketOf(value)]++;
+        this.sum += value;
+        this.totalCount++;
+        this.next = (this.next + 1) % this.window.length;
+    }
+
+    /**
+     * Removes all durations from the window.
+     */
+    public synchronized void reset() {
+        Arrays.fill(this.counts, 0);
+        this.next = 0;
+        this.size = 0;
+        this.sum = 0;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Static Methods">
+    /**
+     * Calculates the bucket of a value. Values below the amount of sub
+     * buckets each get their own bucket, after which every power of two is
+     * split into the same amount of buckets.
+     *
+     * @param value The value, which is not negative.
+     * @return The index of the bucket.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Calculates the highest value that falls in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+    //</editor-fold>
+
+}
@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.toolbox.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The single instance of this class accumulates the amount of calls and the
+ * time spent per component class in the update and late update methods, and
+ * per renderer class in the render methods. It is registered as an MXBean
+ * under {@link #OBJECT_NAME OBJECT_NAME} the first time it is retrieved, so
+ * that it can be enabled, inspected and reset with any JMX client.
+ *
+ * Profiling is disabled by default. While disabled, callers only read a single
+ * volatile flag per profiled class per frame. While enabled, all components of
+ * a class are timed together, so the time per call is a mean.
+ *
+ * @author Blackened
+ */
+public class UpdateProfiler implements UpdateProfilerMXBean {
+
+    /**
+     * The name under which the profiler is registered as an MXBean.
+     */
+    public static final String OBJECT_NAME = "blackengine:type=UpdateProfiler";
+
+    //<editor-fold defaultstate="collapsed" desc="Instance">
+    private static UpdateProfiler INSTANCE;
+
+    /**
+     * Retrieves the profiler, creating and registering it on the first call.
+     *
+     * @return The single instance of UpdateProfiler.
+     */
+    public static synchronized UpdateProfiler getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UpdateProfiler();
+            INSTANCE.register();
+        }
+        return INSTANCE;
+    }
+
+    private UpdateProfiler() {
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] = new ConcurrentHashMap<>();
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Properties">
+    /**
+     * Whether calls are being profiled.
+     */
+    private volatile boolean enabled = false;
+
+    /**
+     * The counter of every profiled class, per kind of call.
+     */
+    @SuppressWarnings("unchecked")
+    private final Map<Class<?>, Counter>[] counters = new Map[ProfiledCall.values().length];
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Getters & Setters">
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Retrieves the counter of a class for a kind of call, creating it if it
+     * did not exist yet. Callers that profile the same class often can hold on
+     * to the counter while profiling is enabled.
+     *
+     * @param call The kind of call.
+     * @param clazz The profiled class.
+     * @return The counter.
+     */
+    public Counter getCounter(ProfiledCall call, Class<?> clazz) {
+        return this.counters[call.ordinal()].computeIfAbsent(clazz, x -> new Counter());
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Adds calls to the counter of a class. This may be called from any
+     * thread.
+     *
+     * @param call The kind of call.
+     * @param clazz The profiled class.
+     * @param calls The amount of calls.
+     * @param nanos The time spent in those calls in nanoseconds.
+     */
+    public void record(ProfiledCall call, Class<?> clazz, long calls, long nanos) {
+        this.getCounter(call, clazz).add(calls, nanos);
+    }
+
+    @Override
+    public List<ProfileSample> getSamples() {
+        List<ProfileSample> samples = new ArrayList<>();
+        for (ProfiledCall call : ProfiledCall.values()) {
+            this.counters[call.ordinal()].forEach((clazz, counter) -> {
+                samples.add(new ProfileSample(clazz.getName(), call.name(), counter.calls.sum(), counter.nanos.sum()));
+            });
+        }
+        samples.sort(Comparator.comparingLong(ProfileSample::getTotalNanos).reversed());
+        return samples;
+    }
+
+    @Override
+    public List<ProfileSample> top(int count) {
+        List<ProfileSample> samples = this.getSamples();
+        return new ArrayList<>(samples.subList(0, Math.max(0, Math.min(count, samples.size()))));
+    }
+
+    @Override
+    public void reset() {
+        for (Map<Class<?>, Counter> map : this.counters) {
+            map.values().forEach(x -> x.reset());
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Private Methods">
+    /**
+     * Registers this profiler with the platform MBean server.
+     */
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException | SecurityException ex) {
+            Logger.getLogger(UpdateProfiler.class.getName()).log(Level.WARNING, null, ex);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Counter">
+    /**
+     * The accumulated calls of a single kind to a single class.
+     */
+    public static class Counter {
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        /**
+         * Adds calls to this counter. This may be called from any thread.
+         *
+         * @param calls The amount of calls.
+         * @param nanos The time spent in those calls in nanoseconds.
+         */
+        public void add(long calls, long nanos) {
+            this.calls.add(calls);
+            this.nanos.add(nanos);
+        }
+
+        private void reset() {
+            this.calls.reset();
+            this.nanos.reset();
+        }
+    }
+    //</editor-fold>
+
+}
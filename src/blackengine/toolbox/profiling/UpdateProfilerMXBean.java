@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package blackengine.toolbox.profiling;
+
+import java.util.List;
+
+/**
+ * The management interface of the
+ * {@link blackengine.toolbox.profiling.UpdateProfiler UpdateProfiler}, through
+ * which it can be enabled, inspected and reset over JMX.
+ *
+ * @author Blackened
+ */
+public interface UpdateProfilerMXBean {
+
+    /**
+     * Getter for whether calls are being profiled.
+     *
+     * @return True if profiling is enabled, false otherwise.
+     */
+    public boolean isEnabled();
+
+    /**
+     * Setter for whether calls are being profiled.
+     *
+     * @param enabled True to enable profiling.
+     */
+    public void setEnabled(boolean enabled);
+
+    /**
+     * Retrieves the samples of all profiled classes.
+     *
+     * @return A list of samples, sorted by their total duration, longest
+     * first.
+     */
+    public List<ProfileSample> getSamples();
+
+    /**
+     * Retrieves the samples of the profiled classes that took the most time.
+     *
+     * @param count The maximum amount of samples.
+     * @return A list of at most count samples, sorted by their total duration,
+     * longest first.
+     */
+    public List<ProfileSample> top(int count);
+
+    /**
+     * Removes all counts and durations collected so far.
+     */
+    public void reset();
+
+}
@@ -27,6 +27,8 @@ import static blackengine.userInput.MouseEvent.*;
 import io.reactivex.Observable;
 import io.reactivex.subjects.PublishSubject;
 import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.BooleanSupplier;
 import org.lwjgl.input.Keyboard;
 import org.lwjgl.input.Mouse;
@@ -57,6 +59,18 @@ public class InputManager<T> {
      */
     private final KeyActionMapper<T> keyActionMapper;
 
+    /**
+     * Whether actions and mouse events are buffered until they are dispatched,
+     * instead of being sent out immediately.
+     */
+    private volatile boolean buffered = false;
+
+    /**
+     * The buffered emissions of actions and mouse events, in the order in
+     * which they were handled.
+     */
+    private final Queue<Runnable> bufferedInput = new ConcurrentLinkedQueue<>();
+
     /**
      * Getter for the instance of Observable&lt;T&gt; that can be subscribed to
      * in order to receive actions.
@@ -79,6 +93,30 @@ public class InputManager<T> {
         return mouseSubject;
     }
 
+    /**
+     * Getter for whether actions and mouse events are buffered until they are
+     * dispatched.
+     *
+     * @return True if input is buffered, false if it is sent out immediately.
+     */
+    public boolean isBuffered() {
+        return buffered;
+    }
+
+    /**
+     * Setter for whether actions and mouse events are buffered until they are
+     * dispatched. Input has to be handled on the thread owning the display,
+     * while buffering allows it to be sent out to subscribers on the logic
+     * thread by calling {@link #dispatchBufferedInput() dispatchBufferedInput()}
+     * there. Any input still buffered when buffering is disabled is sent out
+     * on the next dispatch.
+     *
+     * @param buffered True to buffer input, false to send it out immediately.
+     */
+    public void setBuffered(boolean buffered) {
+        this.buffered = buffered;
+    }
+
     /**
      * Default constructor for creating a new instance of InputManager.
      *
@@ -135,6 +173,17 @@ public class InputManager<T> {
         this.handleMouseInput();
     }
 
+    /**
+     * Sends out all buffered actions and mouse events to their subscribers, on
+     * the calling thread.
+     */
+    public void dispatchBufferedInput() {
+        Runnable emission;
+        while ((emission = this.bufferedInput.poll()) != null) {
+            emission.run();
+        }
+    }
+
     /**
      * Handles all events retrieved from the keyboard by sending out the
      * appropriate actions defined in the key mapper.
@@ -145,7 +194,7 @@ public class InputManager<T> {
             while (mappedEventIterator.hasNext()) {
                 BooleanSupplier booleanSupplier = mappedEventIterator.next();
                 if (booleanSupplier.getAsBoolean()) {
-                    this.actionSubject.onNext(this.keyActionMapper.getEventAction(booleanSupplier));
+                    this.emitAction(this.keyActionMapper.getEventAction(booleanSupplier));
                 }
             }
         }
@@ -161,7 +210,7 @@ public class InputManager<T> {
         while (mappedKeyIterator.hasNext()) {
             BooleanSupplier booleanSupplier = mappedKeyIterator.next();
             if (booleanSupplier.getAsBoolean()) {
-                this.actionSubject.onNext(this.keyActionMapper.getAction(booleanSupplier));
+                this.emitAction(this.keyActionMapper.getAction(booleanSupplier));
             }
         }
     }
@@ -176,25 +225,58 @@ public class InputManager<T> {
         while (Mouse.next()) {
             if (Mouse.getEventButton() != -1) {
                 if (Mouse.getEventButtonState()) {
-                    this.mouseSubject.onNext(MOUSEDOWN.at(Mouse.getX(), Mouse.getY()).withButton(Mouse.getEventButton()).withDelta(dx, dy));
+                    this.emitMouseEvent(MOUSEDOWN, Mouse.getX(), Mouse.getY(), Mouse.getEventButton(), dx, dy);
                 } else {
-                    this.mouseSubject.onNext(MOUSEUP.at(Mouse.getX(), Mouse.getY()).withButton(Mouse.getEventButton()).withDelta(dx, dy));
+                    this.emitMouseEvent(MOUSEUP, Mouse.getX(), Mouse.getY(), Mouse.getEventButton(), dx, dy);
                 }
             }
         }
         if (Mouse.isButtonDown(0) || Mouse.isButtonDown(1)) {
             if (Mouse.isButtonDown(0)) {
-                this.mouseSubject.onNext(DRAG_LMB.at(Mouse.getX(), Mouse.getY()).withDelta(dx, dy));
+                this.emitMouseEvent(DRAG_LMB, Mouse.getX(), Mouse.getY(), 0, dx, dy);
             }
             if (Mouse.isButtonDown(1)) {
-                this.mouseSubject.onNext(DRAG_RMB.at(Mouse.getX(), Mouse.getY()).withDelta(dx, dy));
+                this.emitMouseEvent(DRAG_RMB, Mouse.getX(), Mouse.getY(), 1, dx, dy);
             }
         } else {
-            this.mouseSubject.onNext(HOVER.at(Mouse.getX(), Mouse.getY()).withDelta(dx, dy));
+            this.emitMouseEvent(HOVER, Mouse.getX(), Mouse.getY(), -1, dx, dy);
         }
 
         //this.mouseSubject.onNext(HOVER.at(Mouse.getX(), Mouse.getY()).withDelta(dx, dy));
 
     }
 
+    /**
+     * Sends out an action, or buffers it if input is buffered.
+     *
+     * @param action The action.
+     */
+    private void emitAction(T action) {
+        if (this.buffered) {
+            this.bufferedInput.add(() -> this.actionSubject.onNext(action));
+        } else {
+            this.actionSubject.onNext(action);
+        }
+    }
+
+    /**
+     * Sends out a mouse event, or buffers it if input is buffered. As the
+     * values of a mouse event are shared, they are only set on the event right
+     * before it is sent out.
+     *
+     * @param event The mouse event.
+     * @param x The x coordinate of the mouse.
+     * @param y The y coordinate of the mouse.
+     * @param button The button of the event, or -1 if there is none.
+     * @param dx The movement of the mouse along the x axis.
+     * @param dy The movement of the mouse along the y axis.
+     */
+    private void emitMouseEvent(MouseEvent event, int x, int y, int button, int dx, int dy) {
+        if (this.buffered) {
+            this.bufferedInput.add(() -> this.mouseSubject.onNext(event.at(x, y).withButton(button).withDelta(dx, dy)));
+        } else {
+            this.mouseSubject.onNext(event.at(x, y).withButton(button).withDelta(dx, dy));
+        }
+    }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package application;
+
+import blackengine.application.DispatchLane;
+import blackengine.application.DispatchQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class DispatchQueueTest {
+
+    public DispatchQueueTest() {
+    }
+
+    @Test
+    public void testLanesRunInOrderOfPriority() {
+        DispatchQueue queue = new DispatchQueue();
+        // A pause of the test thread must not end the drain early.
+        queue.setBudget(Long.MAX_VALUE);
+        List<String> order = new ArrayList<>();
+        queue.add(() -> order.add("low"), DispatchLane.LOW);
+        queue.add(() -> order.add("normal1"), DispatchLane.NORMAL);
+        queue.add(() -> {
+            order.add("high");
+            // Added while draining, but still before the normal lane.
+            queue.add(() -> order.add("high2"), DispatchLane.HIGH);
+        }, DispatchLane.HIGH);
+        queue.add(() -> order.add("normal2"), DispatchLane.NORMAL);
+
+        assertEquals(4, queue.getDepth());
+        assertEquals(5, queue.drain());
+        assertEquals("[high, high2, normal1, normal2, low]", order.toString());
+        assertEquals(0, queue.getDepth());
+        assertEquals(5, queue.getWaitTimes().getCount());
+    }
+
+    @Test
+    public void testBudgetCarriesOverWork() {
+        DispatchQueue queue = new DispatchQueue();
+        queue.setBudget(TimeUnit.MILLISECONDS.toNanos(5));
+        for (int i = 0; i < 10; i++) {
+            queue.add(() -> sleep(2), DispatchLane.LOW);
+        }
+
+        int frames = 0;
+        int total = 0;
+        while (queue.getDepth() > 0) {
+            int count = queue.drain();
+            assertTrue(count >= 1 && count <= 3);
+            assertEquals(queue.getDepth(), queue.getCarriedOver());
+            total += count;
+            frames++;
+        }
+        assertEquals(10, total);
+        assertTrue(frames >= 4);
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        DispatchQueue queue = new DispatchQueue();
+        queue.setBudget(Long.MAX_VALUE);
+        int producers = 4;
+        int perProducer = 20000;
+        int[] last = new int[producers];
+        int[] count = new int[1];
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            last[producer] = -1;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int value = i;
+                    queue.add(() -> {
+                        // Runnables of a single producer run in the order in which they were added.
+                        assertEquals(last[producer] + 1, value);
+                        last[producer] = value;
+                        count[0]++;
+                    }, DispatchLane.NORMAL);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            queue.drain();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        queue.drain();
+        assertEquals(producers * perProducer, count[0]);
+        assertEquals(0, queue.getDepth());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package application;
+
+import blackengine.application.ApplicationManager;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.ManualClock;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.base.ComponentBase;
+import blackengine.gameLogic.components.prefab.PointLightComponent;
+import blackengine.gameLogic.components.prefab.rendering.TexturedMeshComponent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class HeadlessApplicationTest {
+
+    private static final int STEPS = 600;
+
+    public HeadlessApplicationTest() {
+    }
+
+    @Test
+    public void testHeadlessLoopRunsFixedSteps() {
+        GameManager gameManager = new GameManager();
+        gameManager.createEngine();
+        try {
+            LogicEngine.getInstance().registerComponent(StepCounter.class, 0f);
+            ManualClock clock = new ManualClock();
+            LogicEngine.getInstance().getTimer().setClock(clock);
+
+            StepCounter counter = new StepCounter();
+            TexturedMeshComponent mesh = new TexturedMeshComponent(null, null, null);
+            Scene scene = new Scene("scene");
+            scene.addEntity(Entity.create("entity", new Vector3f(), counter, mesh,
+                    new PointLightComponent(new Vector3f(1, 0, 0), new Vector3f(1, 1, 1))));
+
+            ApplicationManager application = new ApplicationManager() {
+                @Override
+                public void setUp() {
+                    this.setGameManager(gameManager);
+                    gameManager.setActiveScene(scene);
+                    this.setHeadless(true);
+                    this.setTickRate(60);
+                }
+
+                @Override
+                public void cleanUp() {
+                    gameManager.destroyGameElements();
+                }
+            };
+            counter.application = application;
+            application.startApplication();
+
+            // Every step covers the same time, without ever sleeping.
+            assertEquals(STEPS, counter.steps);
+            assertEquals(STEPS / 60.0, clock.nanoTime() / 1e9, 0.05);
+            assertFalse(mesh.isRendered());
+        } finally {
+            gameManager.destroyEngine();
+        }
+    }
+
+    private static class StepCounter extends ComponentBase {
+
+        private ApplicationManager application;
+
+        private int steps = 0;
+
+        @Override
+        public void update() {
+            if (++this.steps == STEPS) {
+                this.application.quit();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package dataAccess;
+
+import blackengine.dataAccess.scenes.ComponentSerializer;
+import blackengine.dataAccess.scenes.SceneFormat;
+import blackengine.dataAccess.scenes.SceneReader;
+import blackengine.dataAccess.scenes.SceneWriter;
+import blackengine.gameLogic.DefaultTag;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.Tag;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class SceneFileTest {
+
+    private Path path;
+
+    public SceneFileTest() {
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("scene", ".besc");
+        SceneFormat.register(HealthComponent.class, new ComponentSerializer<HealthComponent>() {
+            @Override
+            public void write(HealthComponent component, DataOutput output) throws IOException {
+                output.writeInt(component.health);
+            }
+
+            @Override
+            public HealthComponent read(ByteBuffer buffer) {
+                return new HealthComponent(buffer.getInt());
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        SceneFormat.unregister(HealthComponent.class);
+        Files.deleteIfExists(this.path);
+    }
+
+    @Test
+    public void testSceneSurvivesRoundTrip() throws IOException {
+        Scene scene = new Scene("level");
+        Entity parent = new Entity("parent", new Vector3f(1, 2, 3), new Vector3f(0, 90, 0), new Vector3f(2, 2, 2));
+        parent.setTag(TestTag.ENEMY);
+        parent.addComponents(new HealthComponent(42), new OtherComponent());
+        Entity child = new Entity("child", new Vector3f(0, 1, 0));
+        child.addComponent(new HealthComponent(7));
+        parent.addChild(child);
+        scene.addEntity(parent);
+        scene.addEntity(new Entity("empty"));
+
+        SceneWriter.write(scene, this.path);
+        Scene read = SceneReader.read(this.path);
+
+        assertEquals("level", read.getName());
+        assertEquals(2, read.getAllEntities().count());
+        Entity readParent = read.getEntity("parent");
+        assertSame(TestTag.ENEMY, readParent.getTag());
+        assertEquals(new Vector3f(1, 2, 3), readParent.getTransform().getRelativePosition());
+        assertEquals(new Vector3f(2, 2, 2), readParent.getTransform().getRelativeScale());
+        Quaternion expected = parent.getTransform().getRelativeRotation();
+        Quaternion actual = readParent.getTransform().getRelativeRotation();
+        assertEquals(expected.y, actual.y, 1e-6f);
+        assertEquals(expected.w, actual.w, 1e-6f);
+        assertEquals(42, readParent.getComponent(HealthComponent.class).health);
+        // Components without a serializer are left out.
+        assertFalse(readParent.containsComponent(OtherComponent.class));
+
+        Entity readChild = readParent.getChild("child");
+        assertSame(readParent, readChild.getParent());
+        assertSame(DefaultTag.NONE, readChild.getTag());
+        assertEquals(7, readChild.getComponent(HealthComponent.class).health);
+        assertEquals(1, read.getEntitiesByTag(TestTag.ENEMY).size());
+        assertEquals(2, read.query(HealthComponent.class).size());
+        assertFalse(readChild.isActive());
+        assertNull(read.getEntity("empty").getComponent(HealthComponent.class));
+    }
+
+    @Test
+    public void testUnregisteredComponentClassIsRejected() throws IOException {
+        Scene scene = new Scene("level");
+        Entity entity = new Entity("entity");
+        entity.addComponent(new HealthComponent(1));
+        scene.addEntity(entity);
+        SceneWriter.write(scene, this.path);
+
+        SceneFormat.unregister(HealthComponent.class);
+        try {
+            SceneReader.read(this.path);
+            fail();
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains(HealthComponent.class.getName()));
+        }
+    }
+
+    private enum TestTag implements Tag {
+        ENEMY;
+    }
+
+    private static class HealthComponent extends ComponentBase {
+
+        private final int health;
+
+        HealthComponent(int health) {
+            this.health = health;
+        }
+    }
+
+    private static class OtherComponent extends ComponentBase {
+    }
+
+}
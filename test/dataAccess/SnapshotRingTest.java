@@ -0,0 +1,230 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package dataAccess;
+
+import blackengine.dataAccess.scenes.ComponentSerializer;
+import blackengine.dataAccess.scenes.RestorableComponentSerializer;
+import blackengine.dataAccess.scenes.SceneFormat;
+import blackengine.dataAccess.scenes.SnapshotRing;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class SnapshotRingTest {
+
+    private Scene scene;
+
+    private Entity mover;
+
+    private CounterComponent counter;
+
+    public SnapshotRingTest() {
+    }
+
+    @Before
+    public void setUp() {
+        SceneFormat.register(CounterComponent.class, new RestorableComponentSerializer<CounterComponent>() {
+            @Override
+            public void write(CounterComponent component, DataOutput output) throws IOException {
+                output.writeInt(component.count);
+            }
+
+            @Override
+            public CounterComponent read(ByteBuffer buffer) {
+                return new CounterComponent(buffer.getInt());
+            }
+
+            @Override
+            public void readInto(CounterComponent component, ByteBuffer buffer) {
+                component.count = buffer.getInt();
+            }
+        });
+        this.scene = new Scene("scene");
+        for (int i = 0; i < 100; i++) {
+            Entity entity = new Entity("entity" + i, new Vector3f(i, 0, 0));
+            entity.addComponent(new CounterComponent(i));
+            this.scene.addEntity(entity);
+        }
+        this.mover = this.scene.getEntity("entity5");
+        this.counter = this.mover.getComponent(CounterComponent.class);
+    }
+
+    @After
+    public void tearDown() {
+        SceneFormat.unregister(CounterComponent.class);
+        SceneFormat.unregister(LabelComponent.class);
+    }
+
+    @Test
+    public void testRestoreFromKeyframeAndDeltas() {
+        SnapshotRing ring = new SnapshotRing(this.scene, 16, 8);
+        for (int frame = 0; frame < 12; frame++) {
+            this.step(frame);
+            ring.capture(frame);
+        }
+        assertEquals(12, ring.size());
+        assertEquals(0, ring.getOldestFrame());
+        assertEquals(11, ring.getNewestFrame());
+
+        // Frame 10 is restored from the keyframe of frame 8 and two deltas.
+        ring.restore(10);
+        assertEquals(10, this.counter.count);
+        assertEquals(new Vector3f(10, 1, 0), this.mover.getTransform().getRelativePosition());
+        assertEquals(10, ring.getNewestFrame());
+        assertFalse(ring.canRestore(11));
+
+        ring.restore(3);
+        assertEquals(3, this.counter.count);
+        assertEquals(new Vector3f(3, 1, 0), this.mover.getTransform().getRelativePosition());
+        // Entities that never changed keep their state.
+        assertEquals(new Vector3f(7, 0, 0), this.scene.getEntity("entity7").getTransform().getRelativePosition());
+        assertSame(this.counter, this.mover.getComponent(CounterComponent.class));
+
+        // Re-simulating continues from the restored frame.
+        for (int frame = 4; frame < 8; frame++) {
+            this.step(frame * 2);
+            ring.capture(frame);
+        }
+        ring.restore(5);
+        assertEquals(10, this.counter.count);
+    }
+
+    @Test
+    public void testOverwrittenKeyframeCanNotBeRestored() {
+        SnapshotRing ring = new SnapshotRing(this.scene, 4, 4);
+        for (int frame = 0; frame < 6; frame++) {
+            this.step(frame);
+            ring.capture(frame);
+        }
+        // Frames 2 to 5 are in the ring, but the keyframe of 2 and 3 is not.
+        assertEquals(2, ring.getOldestFrame());
+        assertFalse(ring.canRestore(3));
+        assertTrue(ring.canRestore(4));
+        assertTrue(ring.canRestore(5));
+        try {
+            ring.restore(1);
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        try {
+            ring.capture(5);
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testStructuralChangeStartsKeyframe() {
+        SnapshotRing ring = new SnapshotRing(this.scene, 16, 8);
+        this.step(0);
+        ring.capture(0);
+        this.step(1);
+        ring.capture(1);
+
+        Entity added = new Entity("added");
+        added.addComponent(new CounterComponent(100));
+        this.scene.addEntity(added);
+        this.step(2);
+        ring.capture(2);
+        this.scene.destroyEntity("entity9");
+        this.step(3);
+        added.getComponent(CounterComponent.class).count = 200;
+        ring.capture(3);
+
+        ring.restore(2);
+        assertEquals(2, this.counter.count);
+        assertEquals(100, added.getComponent(CounterComponent.class).count);
+
+        added.getComponent(CounterComponent.class).count = 300;
+        ring.restore(1);
+        assertEquals(1, this.counter.count);
+        // The added entity was not part of frame 1, so it keeps its state.
+        assertEquals(300, added.getComponent(CounterComponent.class).count);
+    }
+
+    @Test
+    public void testComponentsWithoutRestorableSerializerAreNotRecorded() {
+        SceneFormat.register(LabelComponent.class, new ComponentSerializer<LabelComponent>() {
+            @Override
+            public void write(LabelComponent component, DataOutput output) throws IOException {
+                output.writeInt(component.label);
+            }
+
+            @Override
+            public LabelComponent read(ByteBuffer buffer) {
+                LabelComponent component = new LabelComponent();
+                component.label = buffer.getInt();
+                return component;
+            }
+        });
+        LabelComponent label = new LabelComponent();
+        this.mover.addComponent(label);
+        SnapshotRing ring = new SnapshotRing(this.scene, 16, 8);
+        for (int frame = 0; frame < 3; frame++) {
+            this.step(frame);
+            label.label = frame;
+            ring.capture(frame);
+        }
+
+        ring.restore(0);
+        assertEquals(0, this.counter.count);
+        assertEquals(2, label.label);
+    }
+
+    private void step(int value) {
+        this.counter.count = value;
+        this.mover.getTransform().setRelativePosition(new Vector3f(value, 1, 0));
+    }
+
+    private static class CounterComponent extends ComponentBase {
+
+        private int count;
+
+        CounterComponent(int count) {
+            this.count = count;
+        }
+    }
+
+    private static class LabelComponent extends ComponentBase {
+
+        private int label;
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.prefab.behaviour.Behaviour;
+import blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class AsyncBehaviourTest {
+
+    private GameManager gameManager;
+
+    public AsyncBehaviourTest() {
+    }
+
+    @Before
+    public void setUp() {
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        LogicEngine.getInstance().registerComponent(BehaviourComponent.class, 0f);
+    }
+
+    @After
+    public void tearDown() {
+        this.gameManager.destroyGameElements();
+        this.gameManager.destroyEngine();
+    }
+
+    @Test
+    public void testContinuationRunsOnLogicThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        List<Thread> taskThreads = new ArrayList<>();
+        List<Thread> continuationThreads = new ArrayList<>();
+        Scene scene = this.createScene(Behaviour.async("async", x -> {
+            taskThreads.add(Thread.currentThread());
+            runs.incrementAndGet();
+            await(release);
+            return x.getName();
+        }, (x, name) -> {
+            continuationThreads.add(Thread.currentThread());
+            assertEquals("entity", name);
+        }).after(-1).build());
+
+        // Ticks while the task is in flight do not start another run.
+        for (int i = 0; i < 5; i++) {
+            scene.update();
+        }
+        release.countDown();
+        runContinuations(1);
+        assertEquals(1, runs.get());
+        assertNotSame(Thread.currentThread(), taskThreads.get(0));
+        assertSame(Thread.currentThread(), continuationThreads.get(0));
+
+        // Once the continuation ran, the next tick starts a new run.
+        scene.update();
+        runContinuations(1);
+        assertEquals(2, runs.get());
+        assertEquals(2, continuationThreads.size());
+    }
+
+    @Test
+    public void testContinuationBudget() {
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            LogicEngine.getInstance().addContinuation(() -> count.incrementAndGet());
+        }
+        LogicEngine.getInstance().setContinuationBudget(3);
+        assertEquals(3, LogicEngine.getInstance().runContinuations());
+        assertEquals(3, LogicEngine.getInstance().runContinuations());
+        assertEquals(6, count.get());
+    }
+
+    @Test
+    public void testDestroyingEntityCancelsTask() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger continued = new AtomicInteger();
+        Scene scene = this.createScene(Behaviour.async("async", x -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return null;
+        }, (x, result) -> continued.incrementAndGet()).after(-1).build());
+
+        scene.update();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        scene.getEntity("entity").destroy();
+        scene.getCommandBuffer().apply();
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+
+        Thread.sleep(50);
+        LogicEngine.getInstance().runContinuations();
+        assertEquals(0, continued.get());
+    }
+
+    private Scene createScene(Behaviour behaviour) {
+        Scene scene = new Scene("scene");
+        scene.addEntity(Entity.create("entity", new Vector3f(), new BehaviourComponent(behaviour)));
+        this.gameManager.setActiveScene(scene);
+        return scene;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runContinuations(int amount) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int count = 0;
+        while (count < amount && System.nanoTime() < deadline) {
+            count += LogicEngine.getInstance().runContinuations();
+            Thread.sleep(1);
+        }
+        assertEquals(amount, count);
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.ManualClock;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.prefab.behaviour.Behaviour;
+import blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent;
+import java.util.Arrays;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class BehaviourComponentTest {
+
+    private GameManager gameManager;
+
+    public BehaviourComponentTest() {
+    }
+
+    @Before
+    public void setUp() {
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        LogicEngine.getInstance().registerComponent(BehaviourComponent.class, 0f);
+        LogicEngine.getInstance().getTimer().setClock(new ManualClock());
+    }
+
+    @After
+    public void tearDown() {
+        this.gameManager.destroyGameElements();
+        this.gameManager.destroyEngine();
+    }
+
+    @Test
+    public void testConsumersAddAndRemoveBehaviours() {
+        int[] calls = new int[4];
+        BehaviourComponent component = new BehaviourComponent();
+        Behaviour removed = Behaviour.as("removed", x -> calls[1]++).after(-1).withPriority(1).build();
+        Behaviour added = Behaviour.as("added", x -> calls[2]++).after(-1).withPriority(0.5f).build();
+        Behaviour first = Behaviour.as("first", x -> {
+            if (calls[0]++ == 0) {
+                component.removeBehaviour(removed);
+                component.addBehaviour(added);
+            }
+        }).after(-1).withPriority(0).build();
+        component.addBehaviour(first);
+        component.addBehaviour(removed);
+        component.addBehaviour(Behaviour.as("last", x -> {
+            if (++calls[3] == 2) {
+                component.removeBehaviour(first);
+            }
+        }).after(-1).withPriority(2).build());
+        Scene scene = new Scene("scene");
+        scene.addEntity(Entity.create("entity", new Vector3f(), component));
+        this.gameManager.setActiveScene(scene);
+
+        for (int i = 0; i < 3; i++) {
+            scene.update();
+        }
+        // The removed behaviour never ticks, the added one from the next
+        // update on, and the last one exactly once per update.
+        assertEquals("[2, 0, 2, 3]", Arrays.toString(calls));
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.ComponentStore;
+import blackengine.gameLogic.FramePhase;
+import blackengine.gameLogic.FrameTimer;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.ManualClock;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.TimerWheel;
+import blackengine.toolbox.profiling.RollingHistogram;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class FrameTimerTest {
+
+    public FrameTimerTest() {
+    }
+
+    @Test
+    public void testRecordPhase() {
+        ManualClock clock = new ManualClock();
+        clock.advance(1000);
+        FrameTimer timer = new FrameTimer();
+        timer.setClock(clock);
+
+        long start = clock.nanoTime();
+        clock.advance(5000);
+        long end = timer.recordPhase(FramePhase.INPUT, start);
+        assertEquals(6000, end);
+        clock.advance(7000);
+        assertEquals(13000, timer.recordPhase(FramePhase.SCENE_UPDATE, end));
+
+        RollingHistogram input = timer.getPhaseTimes(FramePhase.INPUT);
+        assertEquals(1, input.getCount());
+        assertEquals(5000, input.getMax());
+        assertEquals(7000, timer.getPhaseTimes(FramePhase.SCENE_UPDATE).getMax());
+        assertEquals(0, timer.getPhaseTimes(FramePhase.RENDER).getCount());
+    }
+
+    @Test
+    public void testSwitchingClockRebasesTimerWheel() {
+        GameManager gameManager = new GameManager();
+        gameManager.createEngine();
+        try {
+            LogicEngine engine = LogicEngine.getInstance();
+            TimerWheel wheel = engine.getTimerWheel();
+            ComponentStore store = new Scene("scene").getComponentStore();
+            List<String> ran = new ArrayList<>();
+            ManualClock first = new ManualClock();
+            first.advance(5000000000L);
+            engine.getTimer().setClock(first);
+            engine.update(store);
+            wheel.schedule(engine.getTimer().getCurrentTime() + 100, () -> ran.add("before"));
+            // The old clock moves on without the wheel being advanced.
+            first.advance(30000000);
+
+            ManualClock second = new ManualClock();
+            engine.getTimer().setClock(second);
+            wheel.schedule(engine.getTimer().getCurrentTime() + 10, () -> ran.add("after"));
+            second.advance(10000000);
+            engine.update(store);
+            assertEquals(Arrays.asList("after"), ran);
+
+            second.advance(59000000);
+            engine.update(store);
+            assertEquals(1, ran.size());
+            second.advance(1000000);
+            engine.update(store);
+            assertEquals(Arrays.asList("after", "before"), ran);
+        } finally {
+            gameManager.destroyEngine();
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.ComponentStore;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class LogicEngineUpdateTest {
+
+    private static final List<String> LOG = new ArrayList<>();
+
+    private GameManager gameManager;
+
+    public LogicEngineUpdateTest() {
+    }
+
+    @Before
+    public void setUp() {
+        LOG.clear();
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        LogicEngine.getInstance().registerComponent(SecondComponent.class, 2f);
+        LogicEngine.getInstance().registerComponent(FirstComponent.class, 1f);
+        LogicEngine.getInstance().registerComponent(ThirdComponent.class, 3f);
+    }
+
+    @After
+    public void tearDown() {
+        this.gameManager.destroyEngine();
+    }
+
+    @Test
+    public void testClassesUpdateInOrderOfPriorityAcrossArchetypes() {
+        Scene scene = new Scene("scene");
+        scene.addEntity(entity("a", new SecondComponent(), new FirstComponent()));
+        scene.addEntity(entity("b", new SecondComponent()));
+        scene.addEntity(entity("c", new ThirdComponent(), new FirstComponent(), new UnregisteredComponent()));
+        ComponentStore store = scene.getComponentStore();
+
+        LogicEngine.getInstance().update(store);
+        LogicEngine.getInstance().lateUpdate(store);
+
+        List<String> classes = new ArrayList<>();
+        for (String entry : LOG) {
+            classes.add(entry.substring(0, entry.indexOf(' ')));
+        }
+        assertEquals("[update:First, update:First, update:Second, update:Second, update:Third, "
+                + "late:First, late:First, late:Second, late:Second, late:Third]", classes.toString());
+        assertEquals(10, LOG.size());
+    }
+
+    @Test
+    public void testDestroyedComponentsAreSkippedAndRemoved() {
+        Scene scene = new Scene("scene");
+        SecondComponent destroyed = new SecondComponent();
+        Entity entity = entity("a", destroyed, new FirstComponent());
+        scene.addEntity(entity);
+        destroyed.destroy();
+
+        LogicEngine.getInstance().update(scene.getComponentStore());
+        assertFalse(LOG.contains("update:Second a"));
+        assertTrue(LOG.contains("update:First a"));
+        assertTrue(entity.containsComponent(SecondComponent.class));
+
+        LogicEngine.getInstance().lateUpdate(scene.getComponentStore());
+        assertFalse(entity.containsComponent(SecondComponent.class));
+        assertTrue(entity.containsComponent(FirstComponent.class));
+        assertEquals(0, scene.getComponentStore().count(SecondComponent.class));
+    }
+
+    private static Entity entity(String name, ComponentBase... components) {
+        Entity entity = new Entity(name);
+        entity.addComponents(components);
+        return entity;
+    }
+
+    private abstract static class LoggingComponent extends ComponentBase {
+
+        private final String name;
+
+        LoggingComponent(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void update() {
+            LOG.add("update:" + this.name + " " + this.getParent().getName());
+        }
+
+        @Override
+        public void lateUpdate() {
+            LOG.add("late:" + this.name + " " + this.getParent().getName());
+        }
+    }
+
+    private static class FirstComponent extends LoggingComponent {
+
+        FirstComponent() {
+            super("First");
+        }
+    }
+
+    private static class SecondComponent extends LoggingComponent {
+
+        SecondComponent() {
+            super("Second");
+        }
+    }
+
+    private static class ThirdComponent extends LoggingComponent {
+
+        ThirdComponent() {
+            super("Third");
+        }
+    }
+
+    private static class UnregisteredComponent extends LoggingComponent {
+
+        UnregisteredComponent() {
+            super("Unregistered");
+        }
+    }
+
+}
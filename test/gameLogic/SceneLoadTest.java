@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameElement;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.SceneLoad;
+import blackengine.gameLogic.Scene;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class SceneLoadTest {
+
+    private GameManager gameManager;
+
+    public SceneLoadTest() {
+    }
+
+    @Before
+    public void setUp() {
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+    }
+
+    @After
+    public void tearDown() {
+        this.gameManager.destroyGameElements();
+        this.gameManager.destroyEngine();
+    }
+
+    @Test
+    public void testLoadedSceneIsSwappedIn() throws InterruptedException {
+        Scene old = createScene("old", 3);
+        this.gameManager.setActiveScene(old);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] loader = new Thread[1];
+        SceneLoad load = this.gameManager.preloadScene(() -> {
+            loader[0] = Thread.currentThread();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return createScene("new", 1);
+        });
+
+        // The old scene keeps running while the new one is built.
+        this.gameManager.updateActiveScene();
+        assertSame(old, this.gameManager.getActiveScene());
+
+        release.countDown();
+        awaitDone(load);
+        this.gameManager.setTeardownBudget(0);
+        this.gameManager.updateActiveScene();
+        assertNotSame(Thread.currentThread(), loader[0]);
+        assertSame(load.getScene(), this.gameManager.getActiveScene());
+        assertTrue(load.getScene().isActive());
+        assertFalse(old.isActive());
+        assertNull(this.gameManager.getSceneLoad());
+
+        // Without a budget, one entity of the old scene is destroyed per update.
+        assertEquals(1, this.gameManager.getRetiredSceneCount());
+        assertEquals(2, old.getAllEntities().count());
+        this.gameManager.updateActiveScene();
+        this.gameManager.updateActiveScene();
+        assertTrue(old.isDestroyed());
+        assertEquals(0, old.getCommandBuffer().size());
+        assertEquals(0, this.gameManager.getRetiredSceneCount());
+        assertFalse(load.getScene().isDestroyed());
+    }
+
+    @Test
+    public void testFailedLoadIsRethrown() throws InterruptedException {
+        Scene old = createScene("old", 1);
+        this.gameManager.setActiveScene(old);
+        IllegalStateException cause = new IllegalStateException();
+        SceneLoad load = this.gameManager.preloadScene(() -> {
+            throw cause;
+        });
+        awaitDone(load);
+        try {
+            this.gameManager.updateActiveScene();
+            fail();
+        } catch (RuntimeException ex) {
+            assertSame(cause, ex.getCause());
+        }
+        assertSame(old, this.gameManager.getActiveScene());
+        assertTrue(old.isActive());
+    }
+
+    @Test
+    public void testLoadCancelledBeforeStartingIsCleared() throws InterruptedException {
+        Scene old = createScene("old", 1);
+        this.gameManager.setActiveScene(old);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean built = new AtomicBoolean();
+        try {
+            LogicEngine.getInstance().setAsyncExecutor(executor);
+            executor.submit(() -> {
+                release.await();
+                return null;
+            });
+            SceneLoad load = this.gameManager.preloadScene(() -> {
+                built.set(true);
+                return createScene("new", 1);
+            });
+
+            load.cancel();
+            assertTrue(load.isDone());
+            this.gameManager.updateActiveScene();
+            assertNull(this.gameManager.getSceneLoad());
+            assertSame(old, this.gameManager.getActiveScene());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            LogicEngine.getInstance().setAsyncExecutor(null);
+        }
+        assertFalse(built.get());
+    }
+
+    @Test
+    public void testCancelledScenesAreDestroyed() throws InterruptedException {
+        Scene old = createScene("old", 1);
+        this.gameManager.setActiveScene(old);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Scene[] built = new Scene[1];
+        SceneLoad stubborn = this.gameManager.preloadScene(() -> {
+            started.countDown();
+            // This factory ignores being interrupted.
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                }
+            }
+            built[0] = createScene("stubborn", 2);
+            return built[0];
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        stubborn.cancel();
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((built[0] == null || !built[0].isDestroyed()) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(built[0].isDestroyed());
+        assertNull(stubborn.getScene());
+
+        // A scene that was already built is destroyed when its load is
+        // replaced by another one.
+        SceneLoad replaced = this.gameManager.preloadScene(() -> createScene("replaced", 1));
+        awaitDone(replaced);
+        GameElement replacedScene = replaced.getScene();
+        SceneLoad last = this.gameManager.preloadScene(() -> createScene("last", 1));
+        assertTrue(replacedScene.isDestroyed());
+        assertNull(replaced.getScene());
+        awaitDone(last);
+        this.gameManager.updateActiveScene();
+        assertSame(last.getScene(), this.gameManager.getActiveScene());
+        assertFalse(this.gameManager.getActiveScene().isDestroyed());
+    }
+
+    private static Scene createScene(String name, int entities) {
+        Scene scene = new Scene(name);
+        for (int i = 0; i < entities; i++) {
+            scene.addEntity(Entity.create("entity" + i, new Vector3f()));
+        }
+        return scene;
+    }
+
+    private static void awaitDone(SceneLoad load) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!load.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(load.isDone());
+    }
+
+}
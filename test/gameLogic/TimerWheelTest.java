@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.ManualClock;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.TimerWheel;
+import blackengine.gameLogic.components.prefab.behaviour.Behaviour;
+import blackengine.gameLogic.components.prefab.behaviour.BehaviourComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class TimerWheelTest {
+
+    public TimerWheelTest() {
+    }
+
+    @Test
+    public void testTasksRunWhenDue() {
+        TimerWheel wheel = new TimerWheel(1000);
+        Random random = new Random(7);
+        long[] dueTicks = new long[2000];
+        long[] ranAt = new long[dueTicks.length];
+        long[] ranAfter = new long[dueTicks.length];
+        List<TimerWheel.Timeout> timeouts = new ArrayList<>();
+        // The tick advanced to before and in the current advance.
+        long[] now = {999, 1000};
+        for (int i = 0; i < dueTicks.length; i++) {
+            // Spread the due ticks over all levels, including beyond the last one.
+            dueTicks[i] = 1000 + (long) Math.pow(2, random.nextDouble() * 28);
+            int index = i;
+            timeouts.add(wheel.schedule(dueTicks[i], () -> {
+                ranAfter[index] = now[0];
+                ranAt[index] = now[1];
+            }));
+        }
+        for (int i = 0; i < dueTicks.length; i += 10) {
+            assertTrue(timeouts.get(i).cancel());
+        }
+        assertEquals(dueTicks.length - dueTicks.length / 10, wheel.size());
+
+        while (wheel.size() > 0) {
+            now[0] = now[1];
+            now[1] += 1 + random.nextInt(5000);
+            wheel.advance(now[1]);
+        }
+        for (int i = 0; i < dueTicks.length; i++) {
+            if (i % 10 == 0) {
+                assertEquals(0, ranAt[i]);
+                assertFalse(timeouts.get(i).cancel());
+            } else {
+                // Every task runs in the first advance reaching its due tick.
+                assertTrue(ranAt[i] >= dueTicks[i]);
+                assertTrue(ranAfter[i] < dueTicks[i]);
+                assertFalse(timeouts.get(i).isScheduled());
+            }
+        }
+    }
+
+    @Test
+    public void testRebaseKeepsRemainingDelay() {
+        TimerWheel wheel = new TimerWheel(1000000);
+        long[] delays = {0, 5, 300, 20000, 1000000};
+        long[] ranAt = new long[delays.length];
+        long[] tick = new long[1];
+        for (int i = 0; i < delays.length; i++) {
+            int index = i;
+            wheel.schedule(1000000 + delays[i], () -> ranAt[index] = tick[0]);
+        }
+        wheel.rebase(1000000, 0);
+        assertEquals(0, wheel.getCurrentTick());
+        assertEquals(delays.length, wheel.size());
+
+        for (tick[0] = 0; tick[0] <= 1000000; tick[0]++) {
+            wheel.advance(tick[0]);
+        }
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(delays[i], ranAt[i]);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRebaseKeepsTasksDueBeforeTheOldTick() {
+        TimerWheel wheel = new TimerWheel(1000);
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(1010, () -> ran.add("due"));
+        wheel.schedule(1100, () -> ran.add("pending"));
+        // The old clock is at 1050, but the wheel was last advanced at 999.
+        wheel.rebase(1050, 0);
+        wheel.advance(0);
+        assertEquals(Arrays.asList("due"), ran);
+        wheel.advance(49);
+        assertEquals(1, ran.size());
+        wheel.advance(50);
+        assertEquals(Arrays.asList("due", "pending"), ran);
+    }
+
+    @Test
+    public void testBehavioursSleepUntilDue() {
+        GameManager gameManager = new GameManager();
+        gameManager.createEngine();
+        try {
+            LogicEngine.getInstance().registerComponent(BehaviourComponent.class, 0f);
+            ManualClock clock = new ManualClock();
+            LogicEngine.getInstance().getTimer().setClock(clock);
+
+            int[] calls = new int[3];
+            BehaviourComponent component = new BehaviourComponent(
+                    Behaviour.as("delayed", x -> calls[0]++).after(100).build(),
+                    Behaviour.as("interval", x -> calls[1]++).every(50).build(),
+                    Behaviour.as("repeating", x -> calls[2]++).after(-1).every(30).repeating(3).build());
+            Scene scene = new Scene("scene");
+            scene.addEntity(Entity.create("entity", new Vector3f(), component));
+            gameManager.setActiveScene(scene);
+
+            for (int i = 0; i < 30; i++) {
+                scene.update();
+                clock.advance(10000000);
+            }
+
+            // Updates run at 0, 10, ..., 290 milliseconds.
+            assertEquals(19, calls[0]);
+            assertEquals(5, calls[1]);
+            assertEquals(3, calls[2]);
+            // Only the delayed behaviour is still awake, the interval is asleep.
+            assertEquals(1, LogicEngine.getInstance().getTimerWheel().size());
+        } finally {
+            gameManager.destroyGameElements();
+            gameManager.destroyEngine();
+        }
+    }
+
+}
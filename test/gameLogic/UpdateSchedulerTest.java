@@ -0,0 +1,269 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic;
+
+import blackengine.gameLogic.ComponentAccess;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.Transform;
+import blackengine.gameLogic.components.base.ComponentBase;
+import blackengine.jobs.JobSystem;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class UpdateSchedulerTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private static final Map<Class<?>, AtomicInteger> ACTIVE = new ConcurrentHashMap<>();
+
+    private static final AtomicBoolean OVERLAPPED = new AtomicBoolean();
+
+    private static final AtomicInteger WRITTEN = new AtomicInteger();
+
+    private static final AtomicBoolean READ_BEFORE_WRITE = new AtomicBoolean();
+
+    private static final Set<Thread> THREADS = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+    private static int writers;
+
+    private static CountDownLatch sameStage;
+
+    private static AtomicInteger sameStageMet;
+
+    private GameManager gameManager;
+
+    private Scene scene;
+
+    private int entityCount;
+
+    public UpdateSchedulerTest() {
+    }
+
+    @Before
+    public void setUp() {
+        ACTIVE.clear();
+        OVERLAPPED.set(false);
+        WRITTEN.set(0);
+        READ_BEFORE_WRITE.set(false);
+        THREADS.clear();
+        sameStage = new CountDownLatch(2);
+        sameStageMet = new AtomicInteger();
+        JobSystem.getInstance().shutdown();
+        JobSystem.getInstance().setParallelism(4);
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        LogicEngine.getInstance().setParallelUpdateEnabled(true);
+        this.scene = new Scene("scene");
+    }
+
+    @After
+    public void tearDown() {
+        LogicEngine.getInstance().setParallelUpdateEnabled(false);
+        this.gameManager.destroyEngine();
+        JobSystem.getInstance().shutdown();
+        JobSystem.getInstance().setParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void testStagePlanRunsIndependentClassesTogether() {
+        LogicEngine engine = LogicEngine.getInstance();
+        engine.registerComponent(WriterComponent.class, 1f, ComponentAccess.create().writes(Shared.class));
+        engine.registerComponent(ReaderComponent.class, 2f, ComponentAccess.create().reads(Shared.class));
+        engine.registerComponent(FreeComponent.class, 3f, ComponentAccess.create());
+        writers = 1;
+        this.addEntities(writers, WriterComponent::new);
+        this.addEntities(1, ReaderComponent::new);
+        this.addEntities(1, FreeComponent::new);
+
+        engine.update(this.scene.getComponentStore());
+        assertEquals(2, sameStageMet.get());
+        assertFalse(READ_BEFORE_WRITE.get());
+    }
+
+    @Test
+    public void testConflictingClassesNeverOverlap() {
+        LogicEngine engine = LogicEngine.getInstance();
+        engine.registerComponent(WriterComponent.class, 1f, ComponentAccess.create().writes(Shared.class).entityLocal());
+        engine.registerComponent(ReaderComponent.class, 2f, ComponentAccess.create().reads(Shared.class).entityLocal());
+        engine.registerComponent(FirstTransformComponent.class, 3f, ComponentAccess.create().reads(Transform.class));
+        engine.registerComponent(SecondTransformComponent.class, 4f, ComponentAccess.create().reads(Transform.class));
+        sameStage = new CountDownLatch(0);
+        writers = 300;
+        this.addEntities(writers, WriterComponent::new);
+        this.addEntities(300, ReaderComponent::new);
+        this.addEntities(300, FirstTransformComponent::new);
+        this.addEntities(300, SecondTransformComponent::new);
+
+        engine.update(this.scene.getComponentStore());
+        assertFalse(OVERLAPPED.get());
+        assertFalse(READ_BEFORE_WRITE.get());
+    }
+
+    @Test
+    public void testEntityLocalClassesAreSplit() {
+        LogicEngine.getInstance().registerComponent(SplitComponent.class, 1f, ComponentAccess.create().entityLocal());
+        this.addEntities(1024, SplitComponent::new);
+
+        LogicEngine.getInstance().update(this.scene.getComponentStore());
+        assertTrue(THREADS.size() > 1);
+    }
+
+    @Test
+    public void testEntityLocalClassesAccessingTransformsAreNotSplit() {
+        LogicEngine.getInstance().registerComponent(FirstTransformComponent.class, 1f, ComponentAccess.create().writes(Transform.class).entityLocal());
+        this.addEntities(1024, FirstTransformComponent::new);
+
+        LogicEngine.getInstance().update(this.scene.getComponentStore());
+        assertEquals(1, THREADS.size());
+    }
+
+    @Test
+    public void testSingleUnsplitClassRunsOnCallingThread() {
+        LogicEngine.getInstance().registerComponent(FirstTransformComponent.class, 1f);
+        LogicEngine.getInstance().registerComponent(FreeComponent.class, 2f, ComponentAccess.create());
+        this.addEntities(1024, FirstTransformComponent::new);
+        sameStage = new CountDownLatch(0);
+        this.addEntities(1, FreeComponent::new);
+
+        LogicEngine.getInstance().update(this.scene.getComponentStore());
+        assertEquals(Collections.singleton(Thread.currentThread()), THREADS);
+    }
+
+    private void addEntities(int count, Supplier<ComponentBase> factory) {
+        for (int i = 0; i < count; i++) {
+            Entity entity = new Entity("entity" + this.entityCount++);
+            entity.addComponents(factory.get());
+            this.scene.addEntity(entity);
+        }
+    }
+
+    private static void work(Class<?> own, Class<?> conflicting) {
+        AtomicInteger active = ACTIVE.computeIfAbsent(own, c -> new AtomicInteger());
+        active.incrementAndGet();
+        long end = System.nanoTime() + 20000;
+        while (System.nanoTime() < end) {
+            AtomicInteger other = ACTIVE.get(conflicting);
+            if (other != null && other.get() != 0) {
+                OVERLAPPED.set(true);
+            }
+            Thread.yield();
+        }
+        active.decrementAndGet();
+    }
+
+    private static void meetInSameStage() {
+        sameStage.countDown();
+        try {
+            if (sameStage.await(5, TimeUnit.SECONDS)) {
+                sameStageMet.incrementAndGet();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Shared {
+    }
+
+    private static class WriterComponent extends ComponentBase {
+
+        @Override
+        public void update() {
+            meetInSameStage();
+            work(WriterComponent.class, ReaderComponent.class);
+            WRITTEN.incrementAndGet();
+        }
+    }
+
+    private static class ReaderComponent extends ComponentBase {
+
+        @Override
+        public void update() {
+            if (WRITTEN.get() != writers) {
+                READ_BEFORE_WRITE.set(true);
+            }
+            work(ReaderComponent.class, WriterComponent.class);
+        }
+    }
+
+    private static class FreeComponent extends ComponentBase {
+
+        @Override
+        public void update() {
+            meetInSameStage();
+            THREADS.add(Thread.currentThread());
+        }
+    }
+
+    private static class FirstTransformComponent extends ComponentBase {
+
+        @Override
+        public void update() {
+            THREADS.add(Thread.currentThread());
+            work(FirstTransformComponent.class, SecondTransformComponent.class);
+        }
+    }
+
+    private static class SecondTransformComponent extends ComponentBase {
+
+        @Override
+        public void update() {
+            THREADS.add(Thread.currentThread());
+            work(SecondTransformComponent.class, FirstTransformComponent.class);
+        }
+    }
+
+    private static class SplitComponent extends ComponentBase {
+
+        @Override
+        public void update() {
+            THREADS.add(Thread.currentThread());
+            long deadline = System.nanoTime() + TIMEOUT;
+            while (THREADS.size() < 2 && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic.entity;
+
+import blackengine.gameLogic.Archetype;
+import blackengine.gameLogic.ArchetypeTable;
+import blackengine.gameLogic.ComponentType;
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Query;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.Tag;
+import blackengine.gameLogic.TransformHierarchy;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class ComponentStoreTest {
+
+    public ComponentStoreTest() {
+    }
+
+    @Test
+    public void testComponentsFollowEntityIntoStore() {
+        Scene scene = new Scene("scene");
+        Entity parent = new Entity("parent");
+        Entity child = new Entity("child");
+        FirstComponent first = new FirstComponent();
+        SecondComponent second = new SecondComponent();
+
+        // Components added before the entity is stored are kept in a loose row.
+        parent.addComponent(first);
+        child.addComponent(second);
+        parent.addChild(child);
+        assertSame(first, parent.getComponent(FirstComponent.class));
+        assertEquals(0, scene.getComponentStore().size());
+
+        // Components can also be looked up by the ID of their mapping.
+        assertEquals(ComponentType.idOf(FirstComponent.class), first.getTypeId());
+        assertTrue(parent.containsComponent(first.getTypeId()));
+        assertFalse(parent.containsComponent(second.getTypeId()));
+        assertSame(first, parent.getComponent(first.getTypeId()));
+
+        // Adding the entity to the scene moves the whole subtree into the store.
+        scene.addEntity(parent);
+        assertEquals(2, scene.getComponentStore().size());
+        assertSame(first, parent.getComponent(FirstComponent.class));
+        assertSame(second, child.getComponent(SecondComponent.class));
+        assertNull(parent.getComponent(SecondComponent.class));
+
+        // Adding a component to a stored entity moves it to another archetype.
+        SecondComponent parentSecond = new SecondComponent();
+        parent.addComponent(parentSecond);
+        assertSame(first, parent.getComponent(FirstComponent.class));
+        assertSame(parentSecond, parent.getComponent(SecondComponent.class));
+        assertEquals(2, scene.getComponentStore().count(SecondComponent.class));
+
+        // Detaching the child takes it out of the store again.
+        parent.detachChild("child");
+        assertEquals(1, scene.getComponentStore().size());
+        assertSame(second, child.getComponent(SecondComponent.class));
+
+        parent.destroyComponent(FirstComponent.class);
+        assertFalse(parent.containsComponent(FirstComponent.class));
+        assertTrue(parent.containsComponent(SecondComponent.class));
+        assertEquals(0, scene.getComponentStore().count(FirstComponent.class));
+    }
+
+    @Test
+    public void testRemovalKeepsChunksDense() {
+        Scene scene = new Scene("scene");
+        int amount = ArchetypeTable.CHUNK_CAPACITY * 2 + 5;
+        for (int i = 0; i < amount; i++) {
+            scene.addEntity(Entity.create("entity" + i, new Vector3f(), new FirstComponent()));
+        }
+        for (int i = 0; i < amount; i += 3) {
+            scene.destroyEntity("entity" + i);
+        }
+
+        List<FirstComponent> visited = new ArrayList<>();
+        scene.getComponentStore().forEach(FirstComponent.class, x -> visited.add(x));
+
+        int remaining = amount - (amount + 2) / 3;
+        assertEquals(remaining, visited.size());
+        assertEquals(remaining, scene.getComponentStore().size());
+        for (int i = 0; i < amount; i++) {
+            Entity entity = scene.getEntity("entity" + i);
+            if (i % 3 == 0) {
+                assertNull(entity);
+            } else {
+                assertSame(entity, entity.getComponent(FirstComponent.class).getParent());
+            }
+        }
+    }
+
+    @Test
+    public void testTransformHierarchyFollowsEntities() {
+        Scene scene = new Scene("scene");
+        TransformHierarchy hierarchy = scene.getComponentStore().getTransformHierarchy();
+        Entity root = new Entity("root", new Vector3f(1, 0, 0), new Vector3f(), new Vector3f(1, 1, 1));
+        Entity child = new Entity("child", new Vector3f(1, 0, 0), new Vector3f(), new Vector3f(1, 1, 1));
+        Entity grandChild = new Entity("grandChild", new Vector3f(1, 0, 0), new Vector3f(), new Vector3f(1, 1, 1));
+        child.addChild(grandChild);
+        root.addChild(child);
+
+        scene.addEntity(root);
+        assertEquals(3, hierarchy.size());
+        assertEquals(3, hierarchy.getLevelCount());
+
+        // Moving the grand child up to the root moves it up a level in the hierarchy.
+        child.detachChild("grandChild");
+        root.addChild(grandChild);
+        assertEquals(3, hierarchy.size());
+        assertEquals(2, hierarchy.getLevelCount());
+
+        hierarchy.resolve();
+        assertEquals(new Vector3f(2, 0, 0), grandChild.getTransform().getAbsolutePosition());
+
+        scene.destroyEntity("root");
+        assertEquals(0, hierarchy.size());
+        assertEquals(0, hierarchy.getLevelCount());
+    }
+
+    @Test
+    public void testQueryIsLive() {
+        Scene scene = new Scene("scene");
+        Query query = scene.query(FirstComponent.class, SecondComponent.class);
+        Entity parent = Entity.create("parent", new Vector3f(), new FirstComponent());
+        Entity child = Entity.create("child", new Vector3f(), new FirstComponent(), new SecondComponent());
+        parent.addChild(child);
+        scene.addEntity(parent);
+
+        assertSame(query, scene.query(SecondComponent.class, FirstComponent.class));
+        assertEquals(1, query.size());
+
+        parent.addComponent(new SecondComponent());
+        List<Entity> matched = new ArrayList<>();
+        query.forEach(x -> matched.add(x));
+        assertEquals(2, matched.size());
+        assertTrue(matched.contains(parent));
+
+        child.destroyComponent(FirstComponent.class);
+        parent.detachChild("child");
+        assertEquals(1, query.size());
+    }
+
+    @Test
+    public void testTagIndexCoversChildren() {
+        Scene scene = new Scene("scene");
+        Entity parent = new Entity("parent");
+        Entity child = new Entity("child");
+        child.setTag(TestTag.ENEMY);
+        parent.addChild(child);
+        scene.addEntity(parent);
+
+        Set<Entity> enemies = scene.getEntitiesByTag(TestTag.ENEMY);
+        assertEquals(1, enemies.size());
+        assertTrue(enemies.contains(child));
+
+        // The returned set reflects later changes.
+        parent.setTag(TestTag.ENEMY);
+        assertEquals(2, enemies.size());
+
+        parent.detachChild("child");
+        assertEquals(1, enemies.size());
+        assertTrue(enemies.contains(parent));
+
+        scene.destroyEntity("parent");
+        assertTrue(enemies.isEmpty());
+    }
+
+    @Test
+    public void testCommandBufferDefersChanges() {
+        Scene scene = new Scene("scene");
+        Entity parent = new Entity("parent");
+        Entity child = new Entity("child");
+        scene.addEntity(parent);
+
+        scene.getCommandBuffer().spawn(child);
+        scene.getCommandBuffer().addComponent(child, new FirstComponent());
+        scene.getCommandBuffer().reparent(child, parent);
+        assertNull(scene.getEntity("child"));
+        assertEquals(1, scene.getComponentStore().size());
+
+        scene.getCommandBuffer().apply();
+        assertNull(scene.getEntity("child"));
+        assertSame(child, parent.getChild("child"));
+        assertEquals(1, scene.getComponentStore().count(FirstComponent.class));
+
+        // A destroyed entity stays in place until the buffer is applied.
+        FirstComponent component = child.getComponent(FirstComponent.class);
+        parent.destroy();
+        assertTrue(parent.isDestroyed());
+        assertSame(parent, scene.getEntity("parent"));
+        assertSame(child, parent.getChild("child"));
+        assertFalse(component.isDestroyed());
+        assertEquals(2, scene.getComponentStore().size());
+        assertEquals(1, scene.getComponentStore().count(FirstComponent.class));
+        scene.getCommandBuffer().apply();
+        assertTrue(component.isDestroyed());
+        assertNull(parent.getChild("child"));
+        assertNull(scene.getEntity("parent"));
+        assertEquals(0, scene.getComponentStore().size());
+        assertEquals(0, scene.getCommandBuffer().size());
+    }
+
+    @Test
+    public void testArchetypeLookupsDoNotAssignIds() {
+        Archetype archetype = Archetype.EMPTY.with(FirstComponent.class);
+        int count = ComponentType.count();
+
+        // Looking up a mapping that was never seen must not take up an ID.
+        assertEquals(-1, ComponentType.findId(UnseenComponent.class));
+        assertEquals(-1, archetype.columnOf(UnseenComponent.class));
+        assertFalse(archetype.contains(UnseenComponent.class));
+        assertEquals(count, ComponentType.count());
+
+        assertEquals(ComponentType.idOf(FirstComponent.class), ComponentType.findId(FirstComponent.class));
+        assertEquals(0, archetype.columnOf(FirstComponent.class));
+        assertTrue(archetype.contains(FirstComponent.class));
+    }
+
+    private enum TestTag implements Tag {
+        ENEMY
+    }
+
+    private static class FirstComponent extends ComponentBase {
+    }
+
+    private static class SecondComponent extends ComponentBase {
+    }
+
+    private static class UnseenComponent extends ComponentBase {
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package gameLogic.entity;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Prefab;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.base.ComponentBase;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class PrefabTest {
+
+    public PrefabTest() {
+    }
+
+    @Test
+    public void testBulkInstantiation() {
+        Scene scene = new Scene("scene");
+        Prefab prefab = Prefab.as("projectile")
+                .at(new Vector3f(1, 2, 3))
+                .with(() -> new CounterComponent())
+                .withChild(Prefab.as("trail").with(() -> new CounterComponent()).build())
+                .build();
+
+        List<Entity> instances = prefab.instantiate(300, scene);
+
+        assertEquals(300, instances.size());
+        assertEquals(600, scene.getComponentStore().count(CounterComponent.class));
+        for (Entity instance : instances) {
+            assertSame(instance, scene.getEntity(instance.getName()));
+            assertTrue(instance.getComponent(CounterComponent.class).isActive());
+            assertNotNull(instance.getChild("trail"));
+            assertEquals(new Vector3f(1, 2, 3), instance.getTransform().getRelativePosition());
+        }
+    }
+
+    @Test
+    public void testRecycling() {
+        Scene scene = new Scene("scene");
+        Prefab prefab = Prefab.as("projectile").with(() -> new CounterComponent()).build();
+        Entity instance = prefab.instantiate(scene);
+        CounterComponent component = instance.getComponent(CounterComponent.class);
+        instance.getTransform().setRelativePosition(new Vector3f(5, 5, 5));
+
+        prefab.recycle(instance);
+
+        assertEquals(1, prefab.getPoolSize());
+        assertEquals(1, component.recycled);
+        assertFalse(component.isActive());
+        assertEquals(0, scene.getComponentStore().size());
+
+        // The next instantiation reuses the recycled instance, reset to the prefab.
+        Entity reused = prefab.instantiate(scene);
+        assertSame(instance, reused);
+        assertSame(component, reused.getComponent(CounterComponent.class));
+        assertTrue(component.isActive());
+        assertEquals(new Vector3f(), reused.getTransform().getRelativePosition());
+        assertEquals(0, prefab.getPoolSize());
+    }
+
+    private static class CounterComponent extends ComponentBase {
+
+        private int recycled = 0;
+
+        @Override
+        public void onRecycle() {
+            this.recycled++;
+        }
+    }
+
+}
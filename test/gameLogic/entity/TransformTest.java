@@ -24,6 +24,9 @@
 package gameLogic.entity;
 
 import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.Transform;
+import blackengine.toolbox.math.MatrixMath;
+import java.nio.FloatBuffer;
 import org.junit.After;
 import org.junit.AfterClass;
 import static org.junit.Assert.assertEquals;
@@ -31,6 +34,7 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
 import org.lwjgl.util.vector.Vector3f;
 
 /**
@@ -138,6 +142,102 @@ public class TransformTest {
         assertTrue(areEqual(new Vector3f(1,0,0), child.getTransform().getAbsolutePosition()));
     }
     
+    @Test
+    public void testLazyAbsolutePositioning(){
+        Entity parent = new Entity("parent", new Vector3f(1,0,0), new Vector3f(0,90,0), new Vector3f(1,1,1));
+        Entity child = new Entity("child", new Vector3f(), new Vector3f(), new Vector3f(1,1,1));
+        
+        parent.addChild(child);
+        
+        // Setting the absolute position of the child should undo the rotation of the parent.
+        child.getTransform().setAbsolutePosition(new Vector3f(1,0,-1));
+        
+        assertTrue(areEqual(new Vector3f(1,0,0), child.getTransform().getRelativePosition()));
+        assertTrue(areEqual(new Vector3f(1,0,-1), child.getTransform().getAbsolutePosition()));
+        
+        // Moving the parent several times only changes the version of the child once it is read.
+        int version = child.getTransform().getVersion();
+        parent.getTransform().setRelativePosition(new Vector3f(2,0,0));
+        parent.getTransform().setRelativePosition(new Vector3f(3,0,0));
+        
+        assertTrue(areEqual(new Vector3f(3,0,-1), child.getTransform().getAbsolutePosition()));
+        assertEquals(version + 1, child.getTransform().getVersion());
+    }
+    
+    @Test
+    public void testNestedRotation(){
+        Entity parent = new Entity("parent", new Vector3f(), new Vector3f(0,90,0), new Vector3f(1,1,1));
+        Entity child = new Entity("child", new Vector3f(), new Vector3f(90,0,0), new Vector3f(1,1,1));
+        Entity grandChild = new Entity("grandChild", new Vector3f(0,0,1), new Vector3f(), new Vector3f(1,1,1));
+        
+        parent.addChild(child);
+        child.addChild(grandChild);
+        
+        // The rotation of the child is applied first, followed by the rotation of the parent.
+        assertTrue(areEqual(new Vector3f(0,-1,0), grandChild.getTransform().getAbsolutePosition()));
+        
+        // Setting the absolute rotation of the child should leave it unchanged when read back.
+        child.getTransform().setAbsoluteEulerRotation(new Vector3f(0,45,0));
+        
+        assertTrue(areEqual(new Vector3f(0,45,0), child.getTransform().getAbsoluteEulerRotation()));
+        assertTrue(areEqual(new Vector3f(0,-45,0), child.getTransform().getRelativeEulerRotation()));
+    }
+    
+    @Test
+    public void testWorldMatrix(){
+        Entity parent = new Entity("parent", new Vector3f(1,2,3), new Vector3f(30,45,60), new Vector3f(2,2,2));
+        Entity child = new Entity("child", new Vector3f(1,0,0), new Vector3f(10,20,30), new Vector3f(1,2,3));
+        
+        parent.addChild(child);
+        
+        Matrix4f expected = MatrixMath.createTransformationMatrix(
+                child.getTransform().getAbsolutePosition(),
+                child.getTransform().getAbsoluteEulerRotation(),
+                child.getTransform().getAbsoluteScale());
+        Matrix4f world = child.getTransform().getWorldMatrix();
+        
+        assertTrue(areEqual(expected, world));
+        
+        // The matrix should only be rebuilt after a change.
+        assertTrue(world == child.getTransform().getWorldMatrix());
+        
+        Matrix4f identity = Matrix4f.mul(world, child.getTransform().getInverseWorldMatrix(), null);
+        assertTrue(areEqual(new Matrix4f(), identity));
+    }
+    
+    @Test
+    public void testInterpolatedWorldMatrix(){
+        Entity entity = new Entity("entity", new Vector3f(0,0,0), new Vector3f(0,0,0), new Vector3f(1,1,1));
+        Transform transform = entity.getTransform();
+        
+        // Without a previous state, the world matrix itself is used.
+        assertTrue(transform.getWorldMatrix() == transform.getInterpolatedWorldMatrix(0.5f));
+        
+        transform.storePreviousState();
+        transform.setRelativePosition(new Vector3f(2,0,0));
+        transform.setRelativeEulerRotation(new Vector3f(0,90,0));
+        
+        Matrix4f expected = MatrixMath.createTransformationMatrix(
+                new Vector3f(1,0,0),
+                new Vector3f(0,45,0),
+                new Vector3f(1,1,1));
+        assertTrue(areEqual(expected, transform.getInterpolatedWorldMatrix(0.5f)));
+        assertTrue(areEqual(transform.getWorldMatrix(), transform.getInterpolatedWorldMatrix(1)));
+    }
+    
+    private boolean areEqual(Matrix4f left, Matrix4f right){
+        float[] l = new float[16];
+        float[] r = new float[16];
+        left.store(FloatBuffer.wrap(l));
+        right.store(FloatBuffer.wrap(r));
+        for (int i = 0; i < 16; i++) {
+            if (Math.abs(l[i] - r[i]) > 0.001f) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     private boolean areEqual(Vector3f left, Vector3f right){
         return Math.abs(left.x - right.x) < 0.001f &&
                 Math.abs(left.y - right.y) < 0.001f &&
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jobs;
+
+import blackengine.jobs.Job;
+import blackengine.jobs.JobSystem;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class JobSystemTest {
+
+    public JobSystemTest() {
+    }
+
+    @After
+    public void tearDown() {
+        JobSystem.getInstance().shutdown();
+        JobSystem.getInstance().setParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void testDependenciesRunFirst() {
+        JobSystem jobs = JobSystem.getInstance();
+        AtomicInteger counter = new AtomicInteger();
+        Job first = jobs.submit(counter::incrementAndGet);
+        Job second = jobs.submit(counter::incrementAndGet);
+        Job third = jobs.submit(() -> counter.compareAndSet(2, 3), first, second);
+        Job last = third.then(() -> counter.compareAndSet(3, 4));
+
+        last.await();
+        assertTrue(first.isDone() && second.isDone() && third.isDone());
+        assertEquals(4, counter.get());
+    }
+
+    @Test
+    public void testParallelForVisitsEveryIndexOnce() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(10000);
+        JobSystem.getInstance().parallelFor(0, visits.length(), 7, visits::incrementAndGet).await();
+        for (int i = 0; i < visits.length(); i++) {
+            assertEquals(1, visits.get(i));
+        }
+
+        Job empty = JobSystem.getInstance().parallelFor(5, 5, i -> fail());
+        empty.await();
+        assertTrue(empty.isDone());
+    }
+
+    @Test
+    public void testFailureReachesDependents() {
+        JobSystem jobs = JobSystem.getInstance();
+        IllegalStateException cause = new IllegalStateException();
+        AtomicInteger runs = new AtomicInteger();
+        Job failing = jobs.parallelFor(0, 100, 10, i -> {
+            if (i == 42) {
+                throw cause;
+            }
+        });
+        Job dependent = failing.then(runs::incrementAndGet);
+        try {
+            dependent.await();
+            fail();
+        } catch (RuntimeException ex) {
+            assertSame(cause, ex.getCause());
+        }
+        assertTrue(failing.isFailed());
+        assertSame(cause, dependent.getFailure());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testNestedWaitHelpsWithSingleWorker() {
+        JobSystem jobs = JobSystem.getInstance();
+        jobs.setParallelism(1);
+        jobs.shutdown();
+        AtomicInteger sum = new AtomicInteger();
+        Job outer = jobs.submit(() -> {
+            Job[] inner = new Job[8];
+            for (int i = 0; i < inner.length; i++) {
+                int value = i;
+                inner[i] = jobs.submit(() -> sum.addAndGet(value));
+            }
+            // The only worker is waiting here, so it has to run the inner jobs.
+            jobs.awaitAll(inner);
+        });
+        outer.await();
+        assertFalse(outer.isFailed());
+        assertEquals(28, sum.get());
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package rendering;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.Transform;
+import blackengine.rendering.DisplayManager;
+import blackengine.rendering.RenderSnapshot;
+import blackengine.rendering.SnapshotBuffer;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+/**
+ *
+ * @author Blackened
+ */
+public class SnapshotBufferTest {
+
+    private DisplayManager displayManager;
+
+    private GameManager gameManager;
+
+    private SnapshotBuffer buffer;
+
+    private Transform transform;
+
+    public SnapshotBufferTest() {
+    }
+
+    @Before
+    public void setUp() {
+        this.displayManager = new DisplayManager(60);
+        this.displayManager.createEngine();
+        this.gameManager = new GameManager();
+        this.gameManager.createEngine();
+        Scene scene = new Scene("scene");
+        scene.addEntity(Entity.create("entity", new Vector3f()));
+        this.gameManager.setActiveScene(scene);
+        this.transform = scene.getEntity("entity").getTransform();
+        this.buffer = new SnapshotBuffer();
+    }
+
+    @After
+    public void tearDown() {
+        this.gameManager.destroyGameElements();
+        this.gameManager.destroyEngine();
+        this.displayManager.destroyEngine();
+    }
+
+    @Test
+    public void testAcquireReturnsNewestPublishedFrame() {
+        for (int frame = 1; frame <= 3; frame++) {
+            this.publish(frame);
+        }
+        assertTrue(this.buffer.acquire());
+        RenderSnapshot snapshot = this.buffer.getReadSnapshot();
+        assertEquals(3, snapshot.getFrame());
+        assertEquals(3f, this.transform.getSnapshotMatrix(snapshot.getSlot(), 3).m30, 0f);
+    }
+
+    @Test
+    public void testAcquireWithoutNewFrameReturnsFalse() {
+        assertFalse(this.buffer.acquire());
+        this.publish(1);
+        assertTrue(this.buffer.acquire());
+        assertFalse(this.buffer.acquire());
+        assertEquals(1, this.buffer.getReadSnapshot().getFrame());
+    }
+
+    @Test
+    public void testAcquiredSlotIsNeverWritten() {
+        Random random = new Random(7);
+        int frame = 0;
+        long acquired = 0;
+        for (int i = 0; i < 1000; i++) {
+            int published = random.nextInt(4);
+            for (int j = 0; j < published; j++) {
+                this.publish(++frame);
+            }
+            assertEquals(frame != acquired, this.buffer.acquire());
+            RenderSnapshot snapshot = this.buffer.getReadSnapshot();
+            acquired = snapshot.getFrame();
+            assertEquals(frame, acquired);
+
+            // The logic thread keeps publishing while the render thread reads.
+            int ahead = random.nextInt(4);
+            for (int j = 0; j < ahead; j++) {
+                this.publish(++frame);
+            }
+            assertEquals(acquired, snapshot.getFrame());
+            if (acquired > 0) {
+                assertEquals((float) acquired, this.transform.getSnapshotMatrix(snapshot.getSlot(), acquired).m30, 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotMatrixIsNullForStaleFrames() {
+        assertNull(this.transform.getSnapshotMatrix(0, 0));
+        this.publish(1);
+        assertTrue(this.buffer.acquire());
+        int slot = this.buffer.getReadSnapshot().getSlot();
+        assertNotNull(this.transform.getSnapshotMatrix(slot, 1));
+        assertNull(this.transform.getSnapshotMatrix(slot, 2));
+
+        // Once released, the slot is written again by a later frame.
+        this.publish(2);
+        assertTrue(this.buffer.acquire());
+        this.publish(3);
+        this.publish(4);
+        assertNull(this.transform.getSnapshotMatrix(slot, 1));
+        assertNotNull(this.transform.getSnapshotMatrix(slot, 4));
+    }
+
+    private void publish(int frame) {
+        this.transform.setRelativePosition(new Vector3f(frame, 0, 0));
+        this.buffer.publish(this.gameManager);
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package toolbox.profiling;
+
+import blackengine.toolbox.profiling.RollingHistogram;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class RollingHistogramTest {
+
+    private static final double[] PERCENTILES = {0, 1, 10, 50, 90, 99, 99.9, 100};
+
+    public RollingHistogramTest() {
+    }
+
+    @Test
+    public void testPercentilesOfUniformDurations() {
+        long[] durations = new long[10000];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = (i + 1) * 1000L;
+        }
+        assertPercentiles(durations);
+    }
+
+    @Test
+    public void testPercentilesOfLongTailedDurations() {
+        Random random = new Random(7);
+        long[] durations = new long[5000];
+        for (int i = 0; i < durations.length; i++) {
+            // Mostly 16 ms frames, with an exponential tail of hitches.
+            durations[i] = 16000000L + (long) (-Math.log(1 - random.nextDouble()) * 2000000);
+        }
+        assertPercentiles(durations);
+    }
+
+    @Test
+    public void testOldestDurationsLeaveTheWindow() {
+        RollingHistogram histogram = new RollingHistogram(4);
+        histogram.record(900);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        assertEquals(900, histogram.getMax());
+
+        histogram.record(6);
+        assertEquals(4, histogram.getCount());
+        assertEquals(5, histogram.getTotalCount());
+        assertEquals(6, histogram.getMax());
+        assertEquals(3, histogram.getMean());
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(2, histogram.getPercentile(50));
+        assertEquals(6, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testMaxAndMean() {
+        RollingHistogram histogram = new RollingHistogram(100);
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+
+        histogram.record(1000003);
+        histogram.record(2000000);
+        histogram.record(-5);
+        // The maximum is exact, even though its bucket is wider.
+        assertEquals(2000000, histogram.getMax());
+        assertEquals(1000001, histogram.getMean());
+        assertEquals(2000000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testReset() {
+        RollingHistogram histogram = new RollingHistogram(10);
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i * 100);
+        }
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(20, histogram.getTotalCount());
+
+        histogram.record(7);
+        assertEquals(1, histogram.getCount());
+        assertEquals(7, histogram.getMax());
+        assertEquals(7, histogram.getPercentile(50));
+    }
+
+    /**
+     * Verifies that every percentile lies within the documented error of the
+     * exact percentile, which is never underestimated.
+     */
+    private static void assertPercentiles(long[] durations) {
+        RollingHistogram histogram = new RollingHistogram(durations.length);
+        for (long duration : durations) {
+            histogram.record(duration);
+        }
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        for (double percentile : PERCENTILES) {
+            int rank = Math.max(1, (int) Math.ceil(percentile / 100 * sorted.length));
+            long exact = sorted[rank - 1];
+            long estimate = histogram.getPercentile(percentile);
+            assertTrue(percentile + ": " + estimate + " < " + exact, estimate >= exact);
+            assertTrue(percentile + ": " + estimate + " > " + exact + " + 3%", estimate - exact <= exact / 32);
+        }
+        assertEquals(sorted[sorted.length - 1], histogram.getMax());
+    }
+
+}
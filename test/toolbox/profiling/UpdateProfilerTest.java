@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 Blackened.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package toolbox.profiling;
+
+import blackengine.gameLogic.Entity;
+import blackengine.gameLogic.GameManager;
+import blackengine.gameLogic.LogicEngine;
+import blackengine.gameLogic.Scene;
+import blackengine.gameLogic.components.base.ComponentBase;
+import blackengine.toolbox.profiling.ProfileSample;
+import blackengine.toolbox.profiling.ProfiledCall;
+import blackengine.toolbox.profiling.UpdateProfiler;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Blackened
+ */
+public class UpdateProfilerTest {
+
+    private UpdateProfiler profiler;
+
+    public UpdateProfilerTest() {
+    }
+
+    @Before
+    public void setUp() {
+        this.profiler = UpdateProfiler.getInstance();
+        this.profiler.reset();
+    }
+
+    @After
+    public void tearDown() {
+        this.profiler.setEnabled(false);
+        this.profiler.reset();
+    }
+
+    @Test
+    public void testRecordAccumulatesPerClassAndCall() {
+        this.profiler.record(ProfiledCall.UPDATE, FirstComponent.class, 2, 100);
+        this.profiler.record(ProfiledCall.UPDATE, FirstComponent.class, 3, 200);
+        this.profiler.record(ProfiledCall.LATE_UPDATE, FirstComponent.class, 1, 50);
+
+        ProfileSample update = this.sample(FirstComponent.class, ProfiledCall.UPDATE);
+        assertEquals(5, update.getCalls());
+        assertEquals(300, update.getTotalNanos());
+        assertEquals(60, update.getMeanNanos());
+        ProfileSample late = this.sample(FirstComponent.class, ProfiledCall.LATE_UPDATE);
+        assertEquals(1, late.getCalls());
+        assertEquals(50, late.getTotalNanos());
+    }
+
+    @Test
+    public void testTopReturnsMostExpensiveSamples() {
+        this.profiler.record(ProfiledCall.UPDATE, FirstComponent.class, 1, 300);
+        this.profiler.record(ProfiledCall.UPDATE, SecondComponent.class, 1, 1000);
+        this.profiler.record(ProfiledCall.RENDER, ThirdComponent.class, 1, 10);
+
+        List<ProfileSample> top = this.profiler.top(2);
+        assertEquals(2, top.size());
+        assertEquals(SecondComponent.class.getName(), top.get(0).getClassName());
+        assertEquals(FirstComponent.class.getName(), top.get(1).getClassName());
+        assertEquals(0, this.profiler.top(0).size());
+        assertEquals(this.profiler.getSamples().size(), this.profiler.top(Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testReset() {
+        this.profiler.record(ProfiledCall.UPDATE, FirstComponent.class, 4, 400);
+        this.profiler.reset();
+        for (ProfileSample sample : this.profiler.getSamples()) {
+            assertEquals(0, sample.getCalls());
+            assertEquals(0, sample.getTotalNanos());
+        }
+        this.profiler.record(ProfiledCall.UPDATE, FirstComponent.class, 1, 10);
+        assertEquals(1, this.sample(FirstComponent.class, ProfiledCall.UPDATE).getCalls());
+    }
+
+    @Test
+    public void testDisabledProfilerRecordsNothing() {
+        GameManager gameManager = new GameManager();
+        gameManager.createEngine();
+        try {
+            LogicEngine engine = LogicEngine.getInstance();
+            engine.registerComponent(ProfiledComponent.class, 1f);
+            Scene scene = new Scene("scene");
+            Entity entity = new Entity("entity");
+            entity.addComponent(new ProfiledComponent());
+            scene.addEntity(entity);
+
+            for (boolean parallel : new boolean[]{false, true}) {
+                engine.setParallelUpdateEnabled(parallel);
+                this.profiler.setEnabled(false);
+                engine.update(scene.getComponentStore());
+                engine.lateUpdate(scene.getComponentStore());
+                assertEquals(0, this.calls(ProfiledComponent.class, ProfiledCall.UPDATE));
+                assertEquals(0, this.calls(ProfiledComponent.class, ProfiledCall.LATE_UPDATE));
+
+                this.profiler.setEnabled(true);
+                engine.update(scene.getComponentStore());
+                engine.lateUpdate(scene.getComponentStore());
+                assertEquals(1, this.calls(ProfiledComponent.class, ProfiledCall.UPDATE));
+                assertEquals(1, this.calls(ProfiledComponent.class, ProfiledCall.LATE_UPDATE));
+                this.profiler.reset();
+            }
+            engine.setParallelUpdateEnabled(false);
+        } finally {
+            gameManager.destroyEngine();
+        }
+    }
+
+    private ProfileSample sample(Class<?> clazz, ProfiledCall call) {
+        for (ProfileSample sample : this.profiler.getSamples()) {
+            if (sample.getClassName().equals(clazz.getName()) && sample.getCall().equals(call.name())) {
+                return sample;
+            }
+        }
+        return null;
+    }
+
+    private long calls(Class<?> clazz, ProfiledCall call) {
+        ProfileSample sample = this.sample(clazz, call);
+        return sample != null ? sample.getCalls() : 0;
+    }
+
+    private static class FirstComponent extends ComponentBase {
+    }
+
+    private static class SecondComponent extends ComponentBase {
+    }
+
+    private static class ThirdComponent extends ComponentBase {
+    }
+
+    private static class ProfiledComponent extends ComponentBase {
+    }
+
+}